@@ -0,0 +1,56 @@
+#!/bin/bash
+
+# Fast-start build of the application: Spring AOT processed bean definitions plus a JVM AOT cache
+# (classes loaded and linked ahead of time, JDK 24+) recorded from a training run up to context refresh.
+#
+#   ./fast-start.sh build        package with -Pfast-start, extract the jar and train the cache
+#   ./fast-start.sh run [args]   start from target/fast-start with the cache and AOT bean definitions
+#
+# The cache is only valid for the JDK and jar it was trained with; rebuild it after changing either.
+
+set -euo pipefail
+
+SCRIPT_DIR="$( cd "$( dirname "${BASH_SOURCE[0]}" )" && pwd )"
+OUT_DIR="$SCRIPT_DIR/target/fast-start"
+AOT_CACHE="$OUT_DIR/app.aot"
+
+if command -v mvn &> /dev/null; then
+    MVN_CMD="mvn"
+else
+    MVN_CMD="$SCRIPT_DIR/mvnw"
+fi
+
+extracted_jar() {
+    ls "$OUT_DIR"/lic-agent-*.jar 2>/dev/null | head -n 1
+}
+
+case "${1:-}" in
+    build)
+        cd "$SCRIPT_DIR"
+        $MVN_CMD -B -Pfast-start package -DskipTests
+        JAR=$(ls "$SCRIPT_DIR"/target/lic-agent-*-exec.jar | head -n 1)
+
+        rm -rf "$OUT_DIR"
+        java -Djarmode=tools -jar "$JAR" extract --destination "$OUT_DIR"
+
+        # Training run: starts the context and exits once it is refreshed; its data directories stay under target/.
+        # The Gemini client is created but never called, so any key will do
+        echo "Training the AOT cache..."
+        cd "$OUT_DIR"
+        GEMINI_API_KEY="${GEMINI_API_KEY:-training}" java -XX:AOTCacheOutput="$AOT_CACHE" \
+            -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh -jar "$(extracted_jar)"
+        echo "Fast-start build ready in $OUT_DIR"
+        ;;
+    run)
+        shift
+        if [ ! -f "$AOT_CACHE" ]; then
+            echo "Error: no AOT cache at $AOT_CACHE, run ./fast-start.sh build first"
+            exit 1
+        fi
+        exec java -XX:AOTCache="$AOT_CACHE" -Dspring.aot.enabled=true -jar "$(extracted_jar)" "$@"
+        ;;
+    *)
+        echo "Usage: $0 build | run [application arguments]"
+        exit 1
+        ;;
+esac
@@ -0,0 +1,356 @@
+package com.i2gether.lic.cluster;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.i2gether.lic.models.ClusterProperties;
+import com.i2gether.lic.services.AdmissionRejectedException;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Routes session-bound requests to the node that owns the session.
+ *
+ * A session's ADK session, turn lock and conversation history live on one node, chosen by consistent
+ * hashing of the session ID over the configured nodes. Other nodes forward the session's requests to
+ * it, marked with a {@link #FORWARDED_BY} header so a node never forwards a forwarded request again
+ * (e.g. while two nodes briefly disagree on membership). Forwarded requests skip the rate limits the
+ * forwarding node already applied, so the header is only trusted with a {@link #FORWARD_SIGNATURE}:
+ * an HMAC keyed with the secret the nodes share over the forwarding node, the time, a nonce, the
+ * method, path and session ID, accepted once. New sessions get an ID owned by the node that
+ * receives their first turn, so first turns are never forwarded. If the owner can't be reached the
+ * request is handled locally, without the session's earlier context.
+ */
+@Component
+public class ClusterRouter implements MeterBinder {
+
+    public static final String FORWARDED_BY = "X-Lic-Forwarded-By";
+    public static final String FORWARD_SIGNATURE = "X-Lic-Forward-Signature";
+    private static final String FORWARD_VERIFIED = ClusterRouter.class.getName() + ".forwarded";
+
+    private static final String HMAC = "HmacSHA256";
+    private static final Duration MAX_SIGNATURE_AGE = Duration.ofMinutes(5); // Allows for clock skew between nodes
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterRouter.class);
+
+    private final ClusterProperties properties;
+    private final @Nullable ConsistentHashRing ring;
+    private final @Nullable URI self;
+    private final @Nullable SecretKeySpec signingKey;
+    private final RestClient restClient;
+    // Signatures already accepted, kept while they could still pass the age check
+    private final Cache<String, Boolean> usedSignatures = Caffeine.newBuilder()
+        .expireAfterWrite(MAX_SIGNATURE_AGE.multipliedBy(2))
+        .maximumSize(1_000_000)
+        .build();
+    private final LongAdder forwarded = new LongAdder();
+    private final LongAdder unreachable = new LongAdder();
+
+    ClusterRouter(ClusterProperties properties) {
+        this.properties = properties;
+        if (properties.enabled()) {
+            if (properties.self() == null || !properties.nodes().contains(properties.self())) {
+                throw new IllegalStateException("com.i2gether.lic.cluster.self must be one of cluster.nodes");
+            }
+            if (properties.sharedSecret() == null || properties.sharedSecret().isBlank()) {
+                throw new IllegalStateException("com.i2gether.lic.cluster.shared-secret must be set");
+            }
+            this.self = properties.self();
+            this.signingKey = new SecretKeySpec(properties.sharedSecret().getBytes(StandardCharsets.UTF_8), HMAC);
+            this.ring = new ConsistentHashRing(properties.nodes(), properties.virtualNodes());
+            log.info("Cluster mode: {} of {} nodes", self, ring.nodes().size());
+        } else {
+            this.self = null;
+            this.signingKey = null;
+            this.ring = null;
+        }
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(
+            HttpClient.newBuilder().connectTimeout(properties.connectTimeout()).build());
+        requestFactory.setReadTimeout(properties.forwardTimeout());
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+    }
+
+    /**
+     * A session ID for a new session that this node owns
+     */
+    public UUID newSessionId() {
+        UUID sessionId = UUID.randomUUID();
+        if (ring == null) {
+            return sessionId;
+        }
+        // About as many tries as there are nodes
+        while (!self.equals(ring.owner(sessionId.toString()))) {
+            sessionId = UUID.randomUUID();
+        }
+        return sessionId;
+    }
+
+    /**
+     * The node to forward a request for the session to, or null to handle it here
+     */
+    public @Nullable URI ownerOf(UUID sessionId, HttpServletRequest request) {
+        if (ring == null || isForwarded(request, sessionId)) {
+            return null;
+        }
+        URI owner = ring.owner(sessionId.toString());
+        return owner.equals(self) ? null : owner;
+    }
+
+    /**
+     * Whether the request for the session was forwarded by another node; a forwarded-by header
+     * without a valid signature for this request (e.g. set by a client, or copied from another
+     * forwarded request) is ignored. Checked once per request, as each signature is accepted once.
+     */
+    public boolean isForwarded(HttpServletRequest request, @Nullable UUID sessionId) {
+        if (request.getAttribute(FORWARD_VERIFIED) instanceof Boolean verified) {
+            return verified;
+        }
+        boolean verified = verify(request, sessionId);
+        request.setAttribute(FORWARD_VERIFIED, verified);
+        return verified;
+    }
+
+    private boolean verify(HttpServletRequest request, @Nullable UUID sessionId) {
+        String forwardedBy = request.getHeader(FORWARDED_BY);
+        String signature = request.getHeader(FORWARD_SIGNATURE);
+        if (ring == null || forwardedBy == null) {
+            return false;
+        }
+        if (signature != null && isValid(forwardedBy, signature, request.getMethod(), request.getRequestURI(), sessionId,
+                Instant.now())) {
+            return true;
+        }
+        log.debug("Ignoring unsigned or invalid {} header from {}", FORWARDED_BY, request.getRemoteAddr());
+        return false;
+    }
+
+    /**
+     * Signature header value for a request this node forwards at the given time: the time, a nonce and
+     * an HMAC over them, this node, the request's method and path, and the session ID
+     */
+    String signature(String method, String path, @Nullable UUID sessionId, Instant now) {
+        long epochSecond = now.getEpochSecond();
+        String nonce = UUID.randomUUID().toString();
+        return epochSecond + ":" + nonce + ":" + hmac(self.toString(), epochSecond, nonce, method, path, sessionId);
+    }
+
+    private boolean isValid(String forwardedBy, String signature, String method, String path,
+                            @Nullable UUID sessionId, Instant now) {
+        String[] parts = signature.split(":", 3);
+        if (parts.length != 3) {
+            return false;
+        }
+        long epochSecond;
+        try {
+            if (!ring.nodes().contains(URI.create(forwardedBy))) {
+                return false;
+            }
+            epochSecond = Long.parseLong(parts[0]);
+        } catch (IllegalArgumentException e) { // Including NumberFormatException
+            return false;
+        }
+        if (Math.abs(now.getEpochSecond() - epochSecond) > MAX_SIGNATURE_AGE.toSeconds()) {
+            return false;
+        }
+        String expected = hmac(forwardedBy, epochSecond, parts[1], method, path, sessionId);
+        if (!MessageDigest.isEqual(expected.getBytes(StandardCharsets.US_ASCII),
+                parts[2].getBytes(StandardCharsets.US_ASCII))) {
+            return false;
+        }
+        // A replayed copy of a request this node already accepted
+        return usedSignatures.asMap().putIfAbsent(expected, Boolean.TRUE) == null;
+    }
+
+    private String hmac(String forwardedBy, long epochSecond, String nonce, String method, String path,
+                        @Nullable UUID sessionId) {
+        String signed = String.join("\n", forwardedBy, Long.toString(epochSecond), nonce, method, path,
+            sessionId != null ? sessionId.toString() : "");
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(signingKey);
+            byte[] digest = mac.doFinal(signed.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC + " is not available", e);
+        }
+    }
+
+    /**
+     * POST the request body to the path on the owner
+     *
+     * @return the owner's response, or null if the owner could not be reached
+     */
+    public <T> @Nullable T forward(URI owner, String path, UUID sessionId, Object body, Class<T> responseType) {
+        URI uri = owner.resolve(path);
+        return exchange(owner, restClient.post()
+            .uri(uri)
+            .header(FORWARD_SIGNATURE, signature(HttpMethod.POST.name(), uri.getRawPath(), sessionId, Instant.now()))
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body), responseType);
+    }
+
+    /**
+     * GET the path on the owner
+     *
+     * @return the owner's response, or null if the owner could not be reached
+     */
+    public <T> @Nullable T forwardGet(URI owner, String path, UUID sessionId, Class<T> responseType) {
+        URI uri = owner.resolve(path);
+        return exchange(owner, restClient.get()
+            .uri(uri)
+            .header(FORWARD_SIGNATURE, signature(HttpMethod.GET.name(), uri.getRawPath(), sessionId, Instant.now())),
+            responseType);
+    }
+
+    /**
+     * POST the request body to the path on the owner and relay its server-sent events to the emitter
+     *
+     * @return false if the owner could not be reached; once the owner has answered, true even if the
+     *     relay broke off midway
+     */
+    public boolean forwardStream(URI owner, String path, UUID sessionId, Object body, SseEmitter emitter) {
+        AtomicBoolean answered = new AtomicBoolean();
+        URI uri = owner.resolve(path);
+        try {
+            restClient.post()
+                .uri(uri)
+                .header(FORWARDED_BY, self.toString())
+                .header(FORWARD_SIGNATURE, signature(HttpMethod.POST.name(), uri.getRawPath(), sessionId, Instant.now()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .body(body)
+                .exchange((clientRequest, response) -> {
+                    if (!response.getStatusCode().is2xxSuccessful()) {
+                        throw rejection(response.getStatusCode().value(), response.getHeaders());
+                    }
+                    answered.set(true);
+                    forwarded.increment();
+                    relay(response.getBody(), emitter);
+                    return null;
+                });
+            return true;
+        } catch (ResourceAccessException e) {
+            if (answered.get()) {
+                // The client or the owner went away mid-stream; the turn itself completes on the owner
+                log.debug("Relaying the stream from {} broke off: {}", owner, e.getMessage());
+                return true;
+            }
+            return unreachable(owner, e);
+        }
+    }
+
+    private <T> @Nullable T exchange(URI owner, RestClient.RequestHeadersSpec<?> spec, Class<T> responseType) {
+        try {
+            return spec.header(FORWARDED_BY, self.toString())
+                .exchange((clientRequest, response) -> {
+                    if (!response.getStatusCode().is2xxSuccessful()) {
+                        throw rejection(response.getStatusCode().value(), response.getHeaders());
+                    }
+                    forwarded.increment();
+                    return response.bodyTo(responseType);
+                });
+        } catch (ResourceAccessException e) {
+            unreachable(owner, e);
+            return null;
+        }
+    }
+
+    private boolean unreachable(URI owner, ResourceAccessException e) {
+        unreachable.increment();
+        log.warn("Could not reach session owner {}, handling the request locally: {}", owner, e.getMessage());
+        return false;
+    }
+
+    /**
+     * The owner's error as this node's own; a 429 keeps its Retry-After
+     */
+    private static RuntimeException rejection(int status, HttpHeaders headers) {
+        if (status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
+            return new AdmissionRejectedException("owner_overloaded",
+                Duration.ofSeconds(retryAfter != null ? Long.parseLong(retryAfter) : 1));
+        }
+        return new ResponseStatusException(HttpStatus.valueOf(status), "Session owner responded with " + status);
+    }
+
+    /**
+     * Copy server-sent events from the owner's response to the emitter, one event per blank-line separated block
+     */
+    static void relay(InputStream body, SseEmitter emitter) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String event = null;
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                if (!data.isEmpty()) {
+                    emitter.send(SseEmitter.event().name(event != null ? event : "message").data(data.toString()));
+                }
+                event = null;
+                data.setLength(0);
+            } else if (line.startsWith("event:")) {
+                event = line.substring("event:".length()).strip();
+            } else if (line.startsWith("data:")) {
+                if (!data.isEmpty()) {
+                    data.append('\n');
+                }
+                String value = line.substring("data:".length());
+                data.append(value.startsWith(" ") ? value.substring(1) : value);
+            }
+        }
+    }
+
+    /**
+     * {@code lic.cluster.forwarded{outcome}}: requests forwarded to their session's owner (ok) or
+     * handled locally because the owner was unreachable
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!properties.enabled()) {
+            return;
+        }
+        FunctionCounter.builder("lic.cluster.forwarded", forwarded, LongAdder::sum)
+            .description("Requests forwarded to the node owning their session")
+            .tag("outcome", "ok")
+            .register(registry);
+        FunctionCounter.builder("lic.cluster.forwarded", unreachable, LongAdder::sum)
+            .description("Requests forwarded to the node owning their session")
+            .tag("outcome", "unreachable")
+            .register(registry);
+    }
+}
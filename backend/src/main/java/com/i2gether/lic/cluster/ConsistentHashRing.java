@@ -0,0 +1,54 @@
+package com.i2gether.lic.cluster;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring of cluster nodes. Every node takes {@code virtualNodes} positions on the
+ * ring and a key belongs to the node at the first position at or after the key's hash, so adding
+ * or removing a node only moves the keys of the ring segments it gains or loses (about 1/n).
+ */
+public final class ConsistentHashRing {
+
+    private final NavigableMap<Long, URI> ring = new TreeMap<>();
+    private final List<URI> nodes;
+
+    public ConsistentHashRing(Collection<URI> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one node");
+        }
+        this.nodes = List.copyOf(nodes);
+        for (URI node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    public URI owner(String key) {
+        Map.Entry<Long, URI> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    public List<URI> nodes() {
+        return nodes;
+    }
+
+    private static long hash(String value) {
+        try {
+            // MD5 for its even spread, not for security; String.hashCode clusters similar node names
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,58 +1,162 @@
 package com.i2gether.lic.config;
 
 import com.google.adk.agents.BaseAgent;
+import com.google.adk.agents.Instruction;
 import com.google.adk.agents.LlmAgent;
+import com.google.adk.agents.ReadonlyContext;
+import com.google.adk.artifacts.InMemoryArtifactService;
+import com.google.adk.models.Gemini;
+import com.google.adk.models.LlmRegistry;
+import com.google.adk.runner.Runner;
+import com.google.adk.sessions.BaseSessionService;
 import com.google.adk.tools.FunctionTool;
+import com.google.genai.types.Content;
+import com.i2gether.lic.llm.ResilientLlm;
+import com.i2gether.lic.llm.StubLlm;
+import com.i2gether.lic.models.AdmissionProperties;
 import com.i2gether.lic.models.AgentProperties;
+import com.i2gether.lic.models.ClusterProperties;
+import com.i2gether.lic.models.ContextBudgetProperties;
+import com.i2gether.lic.models.ConversationHistoryProperties;
+import com.i2gether.lic.models.IntentProperties;
+import com.i2gether.lic.models.KnowledgeBaseProperties;
+import com.i2gether.lic.models.ResilienceProperties;
+import com.i2gether.lic.models.ResponseCacheProperties;
+import com.i2gether.lic.models.RetrievalProperties;
+import com.i2gether.lic.models.SessionCacheProperties;
+import com.i2gether.lic.models.StubLlmProperties;
+import com.i2gether.lic.services.AgentMetrics;
+import com.i2gether.lic.services.KnowledgeBaseRetriever;
 import com.i2gether.lic.services.ProductService;
 import com.i2gether.lic.tool.AuthorFetcher;
 
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.core.Single;
+
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
-@EnableConfigurationProperties(AgentProperties.class)
+@EnableConfigurationProperties({
+    AgentProperties.class,
+    SessionCacheProperties.class,
+    ConversationHistoryProperties.class,
+    RetrievalProperties.class,
+    IntentProperties.class,
+    KnowledgeBaseProperties.class,
+    ContextBudgetProperties.class,
+    ResponseCacheProperties.class,
+    AdmissionProperties.class,
+    ResilienceProperties.class,
+    ClusterProperties.class,
+    StubLlmProperties.class
+})
 public class AgentConfiguration {
 
+    private static final Logger log = LoggerFactory.getLogger(AgentConfiguration.class);
+    private static final String GEMINI_MODEL_PATTERN = "gemini-.*";
+
+    /**
+     * The agent's model, with call timeouts, retries and a circuit breaker; ai-model "stub" selects {@link StubLlm}.
+     * Gemini models get the configured API key; without one the Gemini client reads GOOGLE_API_KEY / GEMINI_API_KEY.
+     */
     @Bean
-    BaseAgent baseAgent(AgentProperties agentProperties, ProductService productService) throws IOException {
+    ResilientLlm agentModel(AgentProperties agentProperties, ResilienceProperties resilienceProperties,
+                            StubLlmProperties stubLlmProperties, Scheduler agentScheduler) {
+        String apiKey = agentProperties.apiKey();
+        if (apiKey != null && !apiKey.isBlank()) {
+            // Replaces ADK's registration for Gemini names, so models resolved by name (the summarizer's) get the key too
+            LlmRegistry.registerLlm(GEMINI_MODEL_PATTERN, model -> Gemini.builder().modelName(model).apiKey(apiKey).build());
+        }
+        StubLlm.register(stubLlmProperties, agentScheduler);
+        return new ResilientLlm(LlmRegistry.getLlm(agentProperties.aiModel()), resilienceProperties, agentScheduler);
+    }
+
+    @Bean
+    BaseAgent baseAgent(AgentProperties agentProperties, RetrievalProperties retrievalProperties,
+                        ProductService productService, KnowledgeBaseRetriever retriever,
+                        ResilientLlm agentModel, AgentMetrics metrics) throws IOException {
         // Get system prompt
         String systemPrompt = agentProperties.systemPrompt().getContentAsString(Charset.defaultCharset());
-        
-        // Append product knowledge base to system prompt
-        try {
-            String productKnowledge = productService.getAllProductKnowledgeBase();
-            String enhancedPrompt = systemPrompt + "\n\n## Product Knowledge Base\n\n" + productKnowledge;
-            
-            // API key is set by ApiKeyEnvironmentInitializer before beans are created
-            return LlmAgent
-                .builder()
-                .name(agentProperties.name())
-                .description(agentProperties.description())
-                .model(agentProperties.aiModel())
-                .instruction(enhancedPrompt)
-                .tools(
-                    FunctionTool.create(AuthorFetcher.class, "fetch")
-                )
-                .build();
-        } catch (Exception e) {
-            // If product knowledge base fails to load, use base prompt only
-            System.err.println("Warning: Could not load product knowledge base: " + e.getMessage());
-            return LlmAgent
-                .builder()
-                .name(agentProperties.name())
-                .description(agentProperties.description())
-                .model(agentProperties.aiModel())
-                .instruction(systemPrompt)
-                .tools(
-                    FunctionTool.create(AuthorFetcher.class, "fetch")
-                )
-                .build();
+
+        return LlmAgent
+            .builder()
+            .name(agentProperties.name())
+            .description(agentProperties.description())
+            .model(agentModel)
+            .instruction(instruction(systemPrompt, retrievalProperties, productService, retriever, metrics))
+            .tools(
+                FunctionTool.create(AuthorFetcher.class, "fetch")
+            )
+            .build();
+    }
+
+    @Bean
+    Runner runner(BaseAgent baseAgent, BaseSessionService sessionService) {
+        return new Runner(baseAgent, baseAgent.name(), new InMemoryArtifactService(), sessionService);
+    }
+
+    private static Instruction instruction(String systemPrompt, RetrievalProperties retrievalProperties,
+                                           ProductService productService, KnowledgeBaseRetriever retriever,
+                                           AgentMetrics metrics) {
+        if (retrievalProperties.enabled()) {
+            // Only the sections relevant to the current question are sent with each turn
+            log.info("Knowledge base retrieval enabled: {} sections indexed, top {} injected per turn",
+                retriever.chunkCount(), retrievalProperties.topK());
+            return new Instruction.Provider(context -> Single.fromCallable(() -> {
+                String prompt = systemPrompt + "\n\n## Product Knowledge Base\n\n" + retriever.renderContext(userText(context));
+                metrics.recordInstruction(prompt);
+                return prompt;
+            }));
         }
+
+        // Append the whole product knowledge base to the system prompt. Resolved per turn so knowledge
+        // base reloads reach the agent; the prompt is only rebuilt when the knowledge base text changes.
+        log.info("Knowledge base retrieval disabled: {} characters of product knowledge in every prompt",
+            productService.getAllProductKnowledgeBase().length());
+        AtomicReference<FullPrompt> fullPrompt = new AtomicReference<>();
+        return new Instruction.Provider(context -> Single.fromCallable(() -> {
+            String prompt;
+            try {
+                String productKnowledge = productService.getAllProductKnowledgeBase();
+                FullPrompt current = fullPrompt.get();
+                if (current == null || current.productKnowledge() != productKnowledge) {
+                    current = new FullPrompt(productKnowledge,
+                        systemPrompt + "\n\n## Product Knowledge Base\n\n" + productKnowledge);
+                    fullPrompt.set(current);
+                }
+                prompt = current.text();
+            } catch (Exception e) {
+                // If product knowledge base fails to load, use base prompt only
+                log.warn("Could not load product knowledge base: {}", e.getMessage());
+                prompt = systemPrompt;
+            }
+            metrics.recordInstruction(prompt);
+            return prompt;
+        }));
     }
-}
 
+    /**
+     * The system prompt with the whole knowledge base, built from this knowledge base text
+     */
+    private record FullPrompt(String productKnowledge, String text) {
+    }
+
+    private static String userText(ReadonlyContext context) {
+        return context.userContent()
+            .flatMap(Content::parts)
+            .orElse(List.of())
+            .stream()
+            .map(part -> part.text().orElse(""))
+            .collect(Collectors.joining(" "));
+    }
+}
@@ -0,0 +1,49 @@
+package com.i2gether.lic.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Execution model for the agent request path.
+ *
+ * With spring.threads.virtual.enabled=true Tomcat serves requests on virtual threads, so the
+ * blocking runner calls in AgentService only park a virtual thread. RxJava work (the streaming
+ * endpoint and any io() usage inside ADK) is moved onto virtual threads as well, instead of the
+ * bounded platform-thread io() pool.
+ *
+ * Every task scheduled through RxJava carries the ThreadLocal context of the thread that scheduled it,
+ * so the current Observation (and with it the trace) follows a turn across scheduler hops. Both hooks are
+ * global; {@link RxJavaHooks} puts the previous ones back when the context closes.
+ */
+@Configuration
+public class ExecutionConfiguration {
+
+    @Bean
+    RxJavaHooks rxJavaHooks() {
+        return new RxJavaHooks();
+    }
+
+    @Bean
+    Scheduler agentScheduler(RxJavaHooks hooks,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        hooks.propagateContext();
+
+        if (!virtualThreads) {
+            return Schedulers.io();
+        }
+        // Kept private rather than exposed as an Executor bean so Boot's applicationTaskExecutor still applies
+        Executor executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("agent-vt-", 0).factory());
+        Scheduler scheduler = Schedulers.from(executor, true);
+
+        // Bridge RxJava's io() scheduler so blocking work inside ADK doesn't occupy platform threads
+        hooks.replaceIoScheduler(scheduler);
+        return scheduler;
+    }
+}
@@ -0,0 +1,37 @@
+package com.i2gether.lic.config;
+
+import java.io.IOException;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.i2gether.lic.models.LeadStoreProperties;
+import com.i2gether.lic.services.FileLeadRepository;
+import com.i2gether.lic.services.InMemoryLeadRepository;
+import com.i2gether.lic.services.LeadRepository;
+import com.i2gether.lic.services.TranscriptStore;
+
+import tools.jackson.databind.json.JsonMapper;
+
+@Configuration
+@EnableConfigurationProperties(LeadStoreProperties.class)
+public class LeadStoreConfiguration {
+
+    @Bean
+    LeadRepository leadRepository(LeadStoreProperties properties, JsonMapper jsonMapper,
+                                  TranscriptStore transcriptStore) throws IOException {
+        return switch (properties.type()) {
+            case MEMORY -> new InMemoryLeadRepository();
+            case FILE -> new FileLeadRepository(properties, jsonMapper, transcriptStore);
+        };
+    }
+
+    @Bean
+    TranscriptStore transcriptStore(LeadStoreProperties properties) {
+        return switch (properties.type()) {
+            case MEMORY -> new TranscriptStore(null);
+            case FILE -> new TranscriptStore(properties.directory().resolve("transcripts"));
+        };
+    }
+}
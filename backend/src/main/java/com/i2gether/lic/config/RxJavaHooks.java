@@ -0,0 +1,45 @@
+package com.i2gether.lic.config;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+
+import io.micrometer.context.ContextSnapshotFactory;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.functions.Function;
+import io.reactivex.rxjava3.plugins.RxJavaPlugins;
+
+/**
+ * The global RxJava hooks the agent installs, restored to what they were when the context closes so
+ * another application context in the same JVM (tests, devtools restarts) doesn't inherit them.
+ */
+class RxJavaHooks implements DisposableBean {
+
+    private final @Nullable Function<? super Runnable, ? extends Runnable> previousScheduleHandler;
+    private final @Nullable Function<? super Scheduler, ? extends Scheduler> previousIoSchedulerHandler;
+
+    RxJavaHooks() {
+        this.previousScheduleHandler = RxJavaPlugins.getScheduleHandler();
+        this.previousIoSchedulerHandler = RxJavaPlugins.getIoSchedulerHandler();
+    }
+
+    /**
+     * Run every task scheduled through RxJava with the ThreadLocal context of the thread that scheduled it
+     */
+    void propagateContext() {
+        ContextSnapshotFactory snapshots = ContextSnapshotFactory.builder().build();
+        RxJavaPlugins.setScheduleHandler(task -> snapshots.captureAll().wrap(task));
+    }
+
+    /**
+     * Hand out the given scheduler wherever {@code Schedulers.io()} is used
+     */
+    void replaceIoScheduler(Scheduler scheduler) {
+        RxJavaPlugins.setIoSchedulerHandler(ignored -> scheduler);
+    }
+
+    @Override
+    public void destroy() {
+        RxJavaPlugins.setScheduleHandler(previousScheduleHandler);
+        RxJavaPlugins.setIoSchedulerHandler(previousIoSchedulerHandler);
+    }
+}
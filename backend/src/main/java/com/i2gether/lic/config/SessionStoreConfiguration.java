@@ -0,0 +1,38 @@
+package com.i2gether.lic.config;
+
+import java.io.IOException;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.google.adk.sessions.BaseSessionService;
+import com.google.adk.sessions.InMemorySessionService;
+import com.i2gether.lic.models.SessionStoreProperties;
+import com.i2gether.lic.services.DurableSessionService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.reactivex.rxjava3.core.Scheduler;
+import tools.jackson.databind.json.JsonMapper;
+
+@Configuration
+@EnableConfigurationProperties(SessionStoreProperties.class)
+public class SessionStoreConfiguration {
+
+    /**
+     * Session service of the agent's runner
+     */
+    @Bean
+    BaseSessionService sessionService(SessionStoreProperties properties, JsonMapper jsonMapper, Scheduler agentScheduler,
+                                      MeterRegistry meterRegistry) throws IOException {
+        return switch (properties.type()) {
+            case MEMORY -> new InMemorySessionService();
+            case FILE -> {
+                DurableSessionService sessionService = new DurableSessionService(properties, jsonMapper, agentScheduler);
+                // Bound here, the bean's declared type doesn't tell Boot that it's a MeterBinder
+                sessionService.bindTo(meterRegistry);
+                yield sessionService;
+            }
+        };
+    }
+}
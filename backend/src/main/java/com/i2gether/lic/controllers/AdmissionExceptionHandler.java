@@ -0,0 +1,26 @@
+package com.i2gether.lic.controllers;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.i2gether.lic.services.AdmissionRejectedException;
+
+/**
+ * Turns rejected by admission control become 429 Too Many Requests with a Retry-After header
+ */
+@RestControllerAdvice
+class AdmissionExceptionHandler {
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    ResponseEntity<ProblemDetail> rejected(AdmissionRejectedException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+        problem.setProperty("reason", e.getReason());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfter().toSeconds()))
+            .body(problem);
+    }
+}
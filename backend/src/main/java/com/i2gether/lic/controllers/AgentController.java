@@ -1,26 +1,168 @@
 package com.i2gether.lic.controllers;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.i2gether.lic.cluster.ClusterRouter;
+import com.i2gether.lic.models.AgentStreamFrame;
 import com.i2gether.lic.models.UserRequest;
 import com.i2gether.lic.models.UserResponse;
+import com.i2gether.lic.services.AdmissionControl;
+import com.i2gether.lic.services.AdmissionRejectedException;
 import com.i2gether.lic.services.AgentService;
 
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.disposables.Disposable;
+import jakarta.servlet.http.HttpServletRequest;
+
 @RestController
 @RequestMapping("/api/v1/agent/interact")
 public class AgentController {
 
+    private static final long STREAM_TIMEOUT_MILLIS = Duration.ofMinutes(2).toMillis();
+
     private final AgentService agentService;
+    private final AdmissionControl admission;
+    private final ClusterRouter router;
+    private final Scheduler agentScheduler;
 
-    AgentController(AgentService agentService) {
+    AgentController(AgentService agentService, AdmissionControl admission, ClusterRouter router,
+                    Scheduler agentScheduler) {
         this.agentService = agentService;
+        this.admission = admission;
+        this.router = router;
+        this.agentScheduler = agentScheduler;
     }
 
+    /**
+     * Answer a question; 429 with Retry-After when the client is over its rate limit or the agent is overloaded.
+     * In a cluster, a turn of an existing session is answered by the node that owns the session.
+     */
     @PostMapping
-    UserResponse interact(@RequestBody UserRequest request) {
-        return agentService.interact(request);
+    UserResponse interact(@RequestBody UserRequest request, HttpServletRequest servletRequest) {
+        checkRate(request, servletRequest);
+        UserRequest routed = withSessionId(request);
+        URI owner = router.ownerOf(routed.sessionId(), servletRequest);
+        if (owner != null) {
+            UserResponse response = router.forward(owner, servletRequest.getRequestURI(), routed.sessionId(), routed,
+                UserResponse.class);
+            if (response != null) {
+                return response;
+            }
+        }
+        admission.checkCapacity();
+        return agentService.interact(routed);
+    }
+
+    /**
+     * Stream the agent answer as Server-Sent Events.
+     * Emits "chunk" events with partial text and a final "done" event carrying the full UserResponse.
+     * Requests are admitted as for {@link #interact}; a turn that is rejected after the stream has
+     * started (no model call slot within the maximum wait) ends with an "error" event instead.
+     * In a cluster, the stream of an existing session is relayed from the node that owns the session.
+     */
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter interactStream(@RequestBody UserRequest request, HttpServletRequest servletRequest) {
+        checkRate(request, servletRequest);
+        UserRequest routed = withSessionId(request);
+        URI owner = router.ownerOf(routed.sessionId(), servletRequest);
+        if (owner == null) {
+            admission.checkCapacity();
+        }
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+        if (owner != null) {
+            // Relayed from the owner on the agent scheduler; handled here only if the owner is unreachable
+            String forwardedUri = servletRequest.getRequestURI();
+            Disposable relay = agentScheduler.scheduleDirect(() -> {
+                try {
+                    if (router.forwardStream(owner, forwardedUri, routed.sessionId(), routed, emitter)) {
+                        emitter.complete();
+                    } else {
+                        admission.checkCapacity();
+                        stream(routed, emitter);
+                    }
+                } catch (RuntimeException e) {
+                    fail(emitter, e);
+                }
+            });
+            emitter.onTimeout(relay::dispose);
+            return emitter;
+        }
+        stream(routed, emitter);
+        return emitter;
+    }
+
+    private void stream(UserRequest request, SseEmitter emitter) {
+        // The servlet thread is released right away; the turn runs on the agent scheduler
+        Disposable subscription = agentService.interactStream(request)
+            .subscribeOn(agentScheduler)
+            .subscribe(
+                frame -> send(emitter, frame),
+                error -> fail(emitter, error),
+                emitter::complete
+            );
+
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(error -> subscription.dispose());
+    }
+
+    /**
+     * Rate limits apply where the client's request arrives, not again on the node it is forwarded to
+     */
+    private void checkRate(UserRequest request, HttpServletRequest servletRequest) {
+        if (router.isForwarded(servletRequest, request.sessionId())) {
+            return;
+        }
+        // The client's own address, as reported by a trusted proxy (server.forward-headers-strategy)
+        admission.checkRate(request.userId() != null ? request.userId().toString() : null, servletRequest.getRemoteAddr());
+    }
+
+    /**
+     * A new session gets its ID here, one this node owns, so its first turn is never forwarded
+     */
+    private UserRequest withSessionId(UserRequest request) {
+        if (request.sessionId() != null) {
+            return request;
+        }
+        return new UserRequest(request.userId(), router.newSessionId(), request.question(), request.context(),
+            request.customerInfo());
+    }
+
+    private static void fail(SseEmitter emitter, Throwable error) {
+        if (!(error instanceof AdmissionRejectedException rejected)) {
+            emitter.completeWithError(error);
+            return;
+        }
+        try {
+            emitter.send(SseEmitter.event().name("error").data(Map.of(
+                "status", 429,
+                "reason", rejected.getReason(),
+                "retryAfterSeconds", rejected.getRetryAfter().toSeconds())));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private static void send(SseEmitter emitter, AgentStreamFrame frame) {
+        try {
+            switch (frame) {
+                case AgentStreamFrame.Chunk chunk -> emitter.send(SseEmitter.event().name("chunk").data(chunk));
+                case AgentStreamFrame.Done done -> emitter.send(SseEmitter.event().name("done").data(done.response()));
+            }
+        } catch (IOException e) {
+            // Client went away; failing the subscriber cancels the upstream LLM call
+            throw new UncheckedIOException(e);
+        }
     }
-}
\ No newline at end of file
+}
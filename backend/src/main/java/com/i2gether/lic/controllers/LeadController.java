@@ -1,34 +1,77 @@
 package com.i2gether.lic.controllers;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.i2gether.lic.cluster.ClusterRouter;
 import com.i2gether.lic.models.CustomerInfo;
 import com.i2gether.lic.models.Lead;
+import com.i2gether.lic.models.LeadPage;
+import com.i2gether.lic.models.LeadQuery;
+import com.i2gether.lic.models.LeadStatus;
+import com.i2gether.lic.models.LeadSummary;
+import com.i2gether.lic.services.IllegalLeadTransitionException;
 import com.i2gether.lic.services.LeadManagementService;
+import com.i2gether.lic.services.LeadVersionConflictException;
+
+import jakarta.servlet.http.HttpServletRequest;
+import tools.jackson.databind.json.JsonMapper;
 
 @RestController
 @RequestMapping("/api/v1/agent")
 public class LeadController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int EXPORT_FLUSH_INTERVAL = 100;
+
     private final LeadManagementService leadManagementService;
+    private final JsonMapper jsonMapper;
+    private final ClusterRouter router;
 
-    LeadController(LeadManagementService leadManagementService) {
+    LeadController(LeadManagementService leadManagementService, JsonMapper jsonMapper, ClusterRouter router) {
         this.leadManagementService = leadManagementService;
+        this.jsonMapper = jsonMapper;
+        this.router = router;
     }
 
     /**
-     * Submit customer information to create a lead
+     * Submit customer information to create a lead.
+     * In a cluster the lead is created on the node owning the session, which has its conversation history.
      */
     @PostMapping("/leads")
-    public LeadResponse submitLead(@RequestBody LeadRequest request) {
+    public LeadResponse submitLead(@RequestBody LeadRequest request, HttpServletRequest servletRequest) {
+        URI owner = request.sessionId() != null ? router.ownerOf(request.sessionId(), servletRequest) : null;
+        if (owner != null) {
+            LeadResponse response = router.forward(owner, servletRequest.getRequestURI(), request.sessionId(), request,
+                LeadResponse.class);
+            if (response != null) {
+                return response;
+            }
+        }
         UUID userId = request.userId() != null ? request.userId() : UUID.randomUUID();
         
         // Create customer info from request
@@ -57,32 +100,187 @@ public class LeadController {
     }
 
     /**
-     * Get conversation history for a session
+     * Get conversation history for a session, from the node owning it in a cluster
      */
     @GetMapping("/session/{sessionId}")
-    public SessionResponse getSessionHistory(@PathVariable UUID sessionId) {
+    public SessionResponse getSessionHistory(@PathVariable UUID sessionId, HttpServletRequest servletRequest) {
+        URI owner = router.ownerOf(sessionId, servletRequest);
+        if (owner != null) {
+            SessionResponse response = router.forwardGet(owner, servletRequest.getRequestURI(), sessionId,
+                SessionResponse.class);
+            if (response != null) {
+                return response;
+            }
+        }
         List<String> history = leadManagementService.getConversationHistory(sessionId);
         return new SessionResponse(sessionId, history);
     }
 
     /**
-     * Get all leads (for human agents/admin)
+     * List leads newest first, one page at a time (for human agents/admin).
+     * The cursor for the next page is returned in the X-Next-Cursor header, absent on the last page.
+     * Conversation transcripts are left out unless includeHistory is set.
      */
     @GetMapping("/admin/leads")
-    public List<Lead> getAllLeads() {
-        return leadManagementService.getAllLeads();
+    public ResponseEntity<List<LeadSummary>> getLeads(
+            @RequestParam(required = false) @Nullable LeadStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @Nullable LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @Nullable LocalDateTime to,
+            @RequestParam(required = false) @Nullable String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "false") boolean includeHistory) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        LeadQuery query = query(status, from, to);
+        LeadPage page;
+        try {
+            page = leadManagementService.getLeads(query, cursor, limit);
+        } catch (IllegalArgumentException e) {
+            // A cursor that wasn't handed out by this endpoint
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header("X-Next-Cursor", page.nextCursor());
+        }
+        return response.body(page.leads().stream().map(lead -> summary(lead, includeHistory)).toList());
     }
 
     /**
-     * Get a specific lead by ID (for human agents/admin)
+     * Export all matching leads as newline-delimited JSON, newest first, streamed without buffering the result
+     */
+    @GetMapping(value = "/admin/leads/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportLeads(
+            @RequestParam(required = false) @Nullable LeadStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @Nullable LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @Nullable LocalDateTime to,
+            @RequestParam(defaultValue = "false") boolean includeHistory) {
+        LeadQuery query = query(status, from, to);
+        return output -> {
+            try (Stream<Lead> leads = leadManagementService.streamLeads(query)) {
+                writeNdjson(leads.iterator(), includeHistory, output);
+            }
+        };
+    }
+
+    /**
+     * Get a specific lead by ID (for human agents/admin). The ETag carries the lead's version.
      */
     @GetMapping("/admin/leads/{leadId}")
-    public Lead getLead(@PathVariable UUID leadId) {
+    public ResponseEntity<Lead> getLead(@PathVariable UUID leadId) {
+        Lead lead = leadManagementService.getLead(leadId);
+        if (lead == null) {
+            throw new IllegalArgumentException("Lead not found: " + leadId);
+        }
+        return ResponseEntity.ok().eTag(eTag(lead)).body(lead);
+    }
+
+    /**
+     * Move a lead to a new status (for human agents/admin).
+     * With If-Match the update only applies if the lead is still at that version, otherwise 412 with the current lead.
+     */
+    @PutMapping("/admin/leads/{leadId}/status")
+    public ResponseEntity<Lead> updateLeadStatus(
+            @PathVariable UUID leadId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) @Nullable String ifMatch,
+            @RequestBody StatusUpdateRequest request) {
+        if (request.status() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "status is required");
+        }
+        Long expectedVersion = expectedVersion(ifMatch);
+        try {
+            Lead lead = leadManagementService.updateLeadStatus(leadId, request.status(), expectedVersion);
+            return ResponseEntity.ok().eTag(eTag(lead)).body(lead);
+        } catch (LeadVersionConflictException e) {
+            return preconditionFailed(e);
+        } catch (IllegalLeadTransitionException e) {
+            // Only the transition itself; a lead that couldn't be persisted is a server error
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    /**
+     * Append a note to a lead (for human agents/admin); If-Match is honoured as for status updates
+     */
+    @PostMapping("/admin/leads/{leadId}/notes")
+    public ResponseEntity<Lead> addLeadNote(
+            @PathVariable UUID leadId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) @Nullable String ifMatch,
+            @RequestBody NoteRequest request) {
+        if (request.text() == null || request.text().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "text is required");
+        }
+        Long expectedVersion = expectedVersion(ifMatch);
+        try {
+            Lead lead = leadManagementService.addNoteToLead(leadId, request.text(), request.author(), expectedVersion);
+            return ResponseEntity.ok().eTag(eTag(lead)).body(lead);
+        } catch (LeadVersionConflictException e) {
+            return preconditionFailed(e);
+        }
+    }
+
+    /**
+     * Get the conversation transcript a lead was created from (for human agents/admin)
+     */
+    @GetMapping("/admin/leads/{leadId}/transcript")
+    public TranscriptResponse getLeadTranscript(@PathVariable UUID leadId) {
         Lead lead = leadManagementService.getLead(leadId);
         if (lead == null) {
             throw new IllegalArgumentException("Lead not found: " + leadId);
         }
-        return lead;
+        List<String> transcript = leadManagementService.getTranscript(lead);
+        return new TranscriptResponse(leadId, transcript == null ? List.of() : transcript);
+    }
+
+    private static LeadQuery query(@Nullable LeadStatus status, @Nullable LocalDateTime from, @Nullable LocalDateTime to) {
+        try {
+            return new LeadQuery(status, from, to);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static String eTag(Lead lead) {
+        return "\"" + lead.version() + "\"";
+    }
+
+    /**
+     * Version from an If-Match header such as "3" or W/"3"; null (unconditional) when absent or *
+     */
+    private static @Nullable Long expectedVersion(@Nullable String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.strip();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.parseLong(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "If-Match must be a lead version ETag: " + ifMatch);
+        }
+    }
+
+    private static ResponseEntity<Lead> preconditionFailed(LeadVersionConflictException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(eTag(e.getCurrent())).body(e.getCurrent());
+    }
+
+    private LeadSummary summary(Lead lead, boolean includeHistory) {
+        return LeadSummary.of(lead, includeHistory ? leadManagementService.getTranscript(lead) : null);
+    }
+
+    private void writeNdjson(Iterator<Lead> leads, boolean includeHistory, OutputStream output) throws IOException {
+        int written = 0;
+        while (leads.hasNext()) {
+            output.write(jsonMapper.writeValueAsBytes(summary(leads.next(), includeHistory)));
+            output.write('\n');
+            if (++written % EXPORT_FLUSH_INTERVAL == 0) {
+                output.flush();
+            }
+        }
+        output.flush();
     }
 
     // Request/Response DTOs
@@ -97,7 +295,21 @@ public class LeadController {
     public record LeadResponse(
         UUID leadId,
         String message,
-        String status
+        LeadStatus status
+    ) {}
+
+    public record StatusUpdateRequest(
+        LeadStatus status
+    ) {}
+
+    public record NoteRequest(
+        String text,
+        @Nullable String author
+    ) {}
+
+    public record TranscriptResponse(
+        UUID leadId,
+        List<String> conversationHistory
     ) {}
 
     public record SessionResponse(
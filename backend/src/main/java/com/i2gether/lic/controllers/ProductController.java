@@ -2,23 +2,31 @@ package com.i2gether.lic.controllers;
 
 import java.util.List;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.i2gether.lic.models.InsuranceProduct;
 import com.i2gether.lic.models.InsuranceProduct.ProductType;
+import com.i2gether.lic.models.ProductSearchResult;
+import com.i2gether.lic.services.ProductSearchIndex;
 import com.i2gether.lic.services.ProductService;
 
 @RestController
 @RequestMapping("/api/v1/agent/products")
 public class ProductController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ProductService productService;
+    private final ProductSearchIndex productSearchIndex;
 
-    ProductController(ProductService productService) {
+    ProductController(ProductService productService, ProductSearchIndex productSearchIndex) {
         this.productService = productService;
+        this.productSearchIndex = productSearchIndex;
     }
 
     /**
@@ -43,11 +51,21 @@ public class ProductController {
     }
 
     /**
-     * Search products by keyword
+     * Search products and their knowledge base content by keyword, best match first.
+     * The total number of matches is returned in the X-Total-Count header.
      */
     @GetMapping("/search")
-    public List<InsuranceProduct> searchProducts(String keyword) {
-        return productService.searchProducts(keyword);
+    public ResponseEntity<List<InsuranceProduct>> searchProducts(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "true") boolean prefix) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        ProductSearchResult result = productSearchIndex.search(keyword, page, size, prefix);
+        return ResponseEntity.ok()
+            .header("X-Total-Count", String.valueOf(result.total()))
+            .body(result.products());
     }
 }
-
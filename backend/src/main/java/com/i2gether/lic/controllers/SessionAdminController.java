@@ -0,0 +1,27 @@
+package com.i2gether.lic.controllers;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.i2gether.lic.models.SessionCacheStats;
+import com.i2gether.lic.services.AgentSessionCache;
+
+@RestController
+@RequestMapping("/api/v1/agent/admin/sessions")
+public class SessionAdminController {
+
+    private final AgentSessionCache sessionCache;
+
+    SessionAdminController(AgentSessionCache sessionCache) {
+        this.sessionCache = sessionCache;
+    }
+
+    /**
+     * Get session cache size and hit/miss/eviction counters
+     */
+    @GetMapping("/stats")
+    public SessionCacheStats getSessionCacheStats() {
+        return sessionCache.stats();
+    }
+}
@@ -0,0 +1,128 @@
+package com.i2gether.lic.llm;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker: opens when the failure rate over the last {@code windowSize} calls
+ * reaches the threshold, rejects calls while open, and after the open duration lets a single probe
+ * call through (half open), whose outcome closes or re-opens it.
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+    private final Consumer<State> transitions;
+
+    // Ring of the last windowSize outcomes, true for a failure
+    private final boolean[] outcomes;
+    private int next;
+    private int recorded;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probing;
+
+    CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, Duration openDuration,
+                   LongSupplier nanoClock, Consumer<State> transitions) {
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+        this.transitions = transitions;
+        this.outcomes = new boolean[windowSize];
+    }
+
+    /**
+     * Whether a call may be made now; a permitted call must be ended with exactly one of
+     * {@link #onSuccess()}, {@link #onFailure()} or {@link #onAbandoned()}
+     */
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < openNanos) {
+                return false;
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probing) {
+                return false;
+            }
+            probing = true;
+        }
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            reset();
+            transition(State.CLOSED);
+            return;
+        }
+        record(false);
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recorded >= minimumCalls && (double) failures / recorded >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * The call ended without telling anything about the upstream, e.g. it was cancelled
+     */
+    synchronized void onAbandoned() {
+        if (state == State.HALF_OPEN) {
+            probing = false;
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == windowSize) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % windowSize;
+    }
+
+    private void open() {
+        reset();
+        openedAt = nanoClock.getAsLong();
+        transition(State.OPEN);
+    }
+
+    private void reset() {
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        probing = false;
+    }
+
+    private void transition(State target) {
+        state = target;
+        transitions.accept(target);
+    }
+}
@@ -0,0 +1,11 @@
+package com.i2gether.lic.llm;
+
+/**
+ * A model call was not attempted because the circuit breaker is open
+ */
+public class LlmUnavailableException extends RuntimeException {
+
+    public LlmUnavailableException(String model) {
+        super("Model " + model + " is unavailable, circuit breaker is open");
+    }
+}
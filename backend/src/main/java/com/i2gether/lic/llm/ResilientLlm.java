@@ -0,0 +1,180 @@
+package com.i2gether.lic.llm;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.adk.models.BaseLlm;
+import com.google.adk.models.BaseLlmConnection;
+import com.google.adk.models.LlmRequest;
+import com.google.adk.models.LlmResponse;
+import com.google.genai.errors.ApiException;
+import com.i2gether.lic.models.ResilienceProperties;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Scheduler;
+
+/**
+ * Model decorator that bounds and retries calls and stops calling an unhealthy upstream.
+ *
+ * Every call waits at most {@code callTimeout} for each response. Calls failing with a transient
+ * error (timeout, I/O error, HTTP 408/429/5xx) are retried with full-jitter exponential backoff,
+ * but only while they have produced no output, so a streamed answer is never repeated. Calls go
+ * through a {@link CircuitBreaker}; while it is open they fail right away with
+ * {@link LlmUnavailableException}. With resilience disabled calls are passed through unchanged.
+ */
+public class ResilientLlm extends BaseLlm implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ResilientLlm.class);
+
+    private final BaseLlm delegate;
+    private final ResilienceProperties properties;
+    private final Scheduler scheduler;
+    private final CircuitBreaker circuitBreaker;
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final Map<CircuitBreaker.State, LongAdder> transitions = new EnumMap<>(CircuitBreaker.State.class);
+
+    public ResilientLlm(BaseLlm delegate, ResilienceProperties properties, Scheduler scheduler) {
+        super(delegate.model());
+        this.delegate = delegate;
+        this.properties = properties;
+        this.scheduler = scheduler;
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            transitions.put(state, new LongAdder());
+        }
+        this.circuitBreaker = new CircuitBreaker(properties.slidingWindowSize(), properties.minimumCalls(),
+            properties.failureRateThreshold(), properties.openDuration(), System::nanoTime, state -> {
+                transitions.get(state).increment();
+                log.info("Circuit breaker for model {} is now {}", model(), state);
+            });
+    }
+
+    @Override
+    public Flowable<LlmResponse> generateContent(LlmRequest llmRequest, boolean stream) {
+        if (!properties.enabled()) {
+            return delegate.generateContent(llmRequest, stream);
+        }
+        return Flowable.defer(() -> {
+            if (!circuitBreaker.tryAcquire()) {
+                rejections.increment();
+                return Flowable.error(new LlmUnavailableException(model()));
+            }
+            return attempt(llmRequest, stream, 1)
+                .doOnComplete(() -> {
+                    successes.increment();
+                    circuitBreaker.onSuccess();
+                })
+                .doOnError(error -> {
+                    if (isTransient(error)) {
+                        failures.increment();
+                        circuitBreaker.onFailure();
+                    } else {
+                        // The upstream answered, the request itself was bad
+                        circuitBreaker.onSuccess();
+                    }
+                })
+                .doOnCancel(circuitBreaker::onAbandoned);
+        });
+    }
+
+    private Flowable<LlmResponse> attempt(LlmRequest llmRequest, boolean stream, int attempt) {
+        AtomicBoolean produced = new AtomicBoolean();
+        return delegate.generateContent(llmRequest, stream)
+            .timeout(properties.callTimeout().toMillis(), TimeUnit.MILLISECONDS, scheduler)
+            .doOnNext(response -> produced.set(true))
+            .onErrorResumeNext(error -> {
+                if (error instanceof TimeoutException) {
+                    timeouts.increment();
+                }
+                if (produced.get() || attempt >= properties.maxAttempts() || !isTransient(error)) {
+                    return Flowable.error(error);
+                }
+                retries.increment();
+                long backoff = backoffMillis(attempt);
+                log.debug("Model call attempt {} failed ({}), retrying in {}ms", attempt, error.toString(), backoff);
+                return Flowable.timer(backoff, TimeUnit.MILLISECONDS, scheduler)
+                    .concatMap(ignored -> attempt(llmRequest, stream, attempt + 1));
+            });
+    }
+
+    /**
+     * Full jitter: uniformly random up to the exponential backoff for this attempt
+     */
+    private long backoffMillis(int attempt) {
+        long exponential = properties.initialBackoff().toMillis() << Math.min(attempt - 1, 20);
+        long cap = Math.min(properties.maxBackoff().toMillis(), exponential);
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    static boolean isTransient(Throwable error) {
+        if (error instanceof TimeoutException || error instanceof IOException) {
+            return true;
+        }
+        if (error instanceof ApiException api) {
+            return api.code() == 408 || api.code() == 429 || api.code() >= 500;
+        }
+        return error.getCause() != null && error.getCause() != error && isTransient(error.getCause());
+    }
+
+    @Override
+    public BaseLlmConnection connect(LlmRequest llmRequest) {
+        return delegate.connect(llmRequest);
+    }
+
+    /**
+     * {@code lic.llm.calls{outcome}} (success / failure / rejected by the open circuit), {@code lic.llm.retries},
+     * {@code lic.llm.timeouts}, {@code lic.llm.circuit.state{state}} (1 for the current state) and
+     * {@code lic.llm.circuit.transitions{state}}
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        callCounter(registry, "success", successes);
+        callCounter(registry, "failure", failures);
+        callCounter(registry, "rejected", rejections);
+        FunctionCounter.builder("lic.llm.retries", retries, LongAdder::sum)
+            .description("Model call attempts retried after a transient error")
+            .tag("model", model())
+            .register(registry);
+        FunctionCounter.builder("lic.llm.timeouts", timeouts, LongAdder::sum)
+            .description("Model call attempts that waited longer than the call timeout for a response")
+            .tag("model", model())
+            .register(registry);
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            String name = state.name().toLowerCase();
+            Gauge.builder("lic.llm.circuit.state", circuitBreaker, breaker -> breaker.state() == state ? 1 : 0)
+                .description("Circuit breaker state of the model, 1 for the current state")
+                .tag("model", model())
+                .tag("state", name)
+                .register(registry);
+            FunctionCounter.builder("lic.llm.circuit.transitions", transitions.get(state), LongAdder::sum)
+                .description("Circuit breaker transitions into a state")
+                .tag("model", model())
+                .tag("state", name)
+                .register(registry);
+        }
+    }
+
+    private void callCounter(MeterRegistry registry, String outcome, LongAdder count) {
+        FunctionCounter.builder("lic.llm.calls", count, LongAdder::sum)
+            .description("Model calls after retries, by outcome")
+            .tag("model", model())
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+}
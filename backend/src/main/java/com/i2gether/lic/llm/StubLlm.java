@@ -0,0 +1,159 @@
+package com.i2gether.lic.llm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.google.adk.models.BaseLlm;
+import com.google.adk.models.BaseLlmConnection;
+import com.google.adk.models.LlmRegistry;
+import com.google.adk.models.LlmRequest;
+import com.google.adk.models.LlmResponse;
+import com.google.genai.errors.ApiException;
+import com.google.genai.types.Content;
+import com.google.genai.types.GenerateContentResponseUsageMetadata;
+import com.google.genai.types.Part;
+import com.i2gether.lic.models.StubLlmProperties;
+
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Scheduler;
+
+/**
+ * Fake model for load tests and local runs: answers with canned text after a simulated latency, word by
+ * word when streaming, and fails a configurable share of calls like an overloaded upstream would.
+ *
+ * The answer is picked by the user's last message, so the same question always gets the same answer.
+ * Latency to the first token is log-normal with the configured median and 99th percentile. Token usage
+ * is estimated at four characters per token. The stub never calls tools.
+ */
+public class StubLlm extends BaseLlm {
+
+    public static final String MODEL_PATTERN = "stub(-.*)?";
+
+    private static final double Z_99 = 2.326;
+    private static final List<String> DEFAULT_RESPONSES = List.of(
+        "Term life insurance gives your family a lump sum if something happens to you during the term, for example "
+            + "20 years. It is the most affordable way to get a high sum assured. How old are you, and how many "
+            + "people depend on your income?",
+        "A whole life policy covers you for your entire life and builds a cash value you can borrow against. The "
+            + "premiums are higher than for term insurance, but they stay the same for as long as you pay them. "
+            + "Would you like me to compare the two for your situation?",
+        "Based on what you told me, a 25 year term policy with a sum assured of about ten times your yearly income "
+            + "would protect your children until they finish their studies. Shall I ask an agent to prepare a quote?",
+        "I'd be happy to help you apply. Could you share your full name, phone number and email address so one of "
+            + "our agents can contact you with the details?",
+        "Group life insurance is arranged by an employer for all employees, usually without a medical exam. If your "
+            + "company offers it, a personal term policy on top can close the gap to the cover your family needs."
+    );
+
+    private final StubLlmProperties properties;
+    private final Scheduler scheduler;
+    private final List<String> responses;
+    private final double latencyMu;
+    private final double latencySigma;
+
+    public StubLlm(String model, StubLlmProperties properties, Scheduler scheduler) {
+        super(model);
+        this.properties = properties;
+        this.scheduler = scheduler;
+        this.responses = properties.responses().isEmpty() ? DEFAULT_RESPONSES : List.copyOf(properties.responses());
+        double median = Math.max(1, properties.latencyMedian().toNanos());
+        double p99 = Math.max(median, properties.latencyP99().toNanos());
+        this.latencyMu = Math.log(median);
+        this.latencySigma = Math.log(p99 / median) / Z_99;
+    }
+
+    /**
+     * Make "stub" and "stub-*" model names resolve to a stub model, for the agent and the summarizer alike
+     */
+    public static void register(StubLlmProperties properties, Scheduler scheduler) {
+        LlmRegistry.registerLlm(MODEL_PATTERN, model -> new StubLlm(model, properties, scheduler));
+    }
+
+    @Override
+    public Flowable<LlmResponse> generateContent(LlmRequest llmRequest, boolean stream) {
+        return Flowable.defer(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long latencyNanos = (long) Math.exp(latencyMu + latencySigma * random.nextGaussian());
+            if (random.nextDouble() < properties.errorRate()) {
+                return Flowable.timer(latencyNanos, TimeUnit.NANOSECONDS, scheduler)
+                    .flatMap(ignored -> Flowable.error(new ApiException(properties.errorStatus(), "UNAVAILABLE",
+                        "Injected stub model error")));
+            }
+
+            String question = lastUserText(llmRequest);
+            String answer = responses.get(Math.floorMod(question.hashCode(), responses.size()));
+            int promptTokens = estimateTokens(llmRequest.contents());
+            int responseTokens = Math.max(1, answer.length() / 4);
+            LlmResponse complete = response(answer, false)
+                .usageMetadata(GenerateContentResponseUsageMetadata.builder()
+                    .promptTokenCount(promptTokens)
+                    .candidatesTokenCount(responseTokens)
+                    .totalTokenCount(promptTokens + responseTokens)
+                    .build())
+                .build();
+            Flowable<LlmResponse> responseFlow = stream
+                ? Flowable.fromIterable(chunks(answer))
+                    .concatMap(chunk -> Flowable.timer(properties.tokenDelay().toNanos(), TimeUnit.NANOSECONDS, scheduler)
+                        .map(ignored -> response(chunk, true).build()))
+                    .concatWith(Flowable.just(complete))
+                : Flowable.just(complete);
+            return Flowable.timer(latencyNanos, TimeUnit.NANOSECONDS, scheduler)
+                .concatMap(ignored -> responseFlow);
+        });
+    }
+
+    @Override
+    public BaseLlmConnection connect(LlmRequest llmRequest) {
+        throw new UnsupportedOperationException("The stub model does not support live connections");
+    }
+
+    static List<String> chunks(String answer) {
+        List<String> chunks = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= answer.length(); i++) {
+            if (i == answer.length() || answer.charAt(i) == ' ') {
+                chunks.add(answer.substring(start, i));
+                start = i;
+            }
+        }
+        return chunks;
+    }
+
+    private static String lastUserText(LlmRequest llmRequest) {
+        List<Content> contents = llmRequest.contents();
+        for (int i = contents.size() - 1; i >= 0; i--) {
+            Content content = contents.get(i);
+            if ("user".equals(content.role().orElse(null))) {
+                String text = text(content);
+                if (!text.isBlank()) {
+                    return text;
+                }
+            }
+        }
+        return "";
+    }
+
+    private static int estimateTokens(List<Content> contents) {
+        int characters = 0;
+        for (Content content : contents) {
+            characters += text(content).length();
+        }
+        return Math.max(1, characters / 4);
+    }
+
+    private static LlmResponse.Builder response(String text, boolean partial) {
+        return LlmResponse.builder()
+            .content(Content.builder().role("model").parts(List.of(Part.fromText(text))).build())
+            .partial(partial);
+    }
+
+    private static String text(Content content) {
+        StringBuilder text = new StringBuilder();
+        for (Part part : content.parts().orElse(List.of())) {
+            part.text().ifPresent(text::append);
+        }
+        return text.toString();
+    }
+}
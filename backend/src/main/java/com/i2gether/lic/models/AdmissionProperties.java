@@ -0,0 +1,21 @@
+package com.i2gether.lic.models;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "com.i2gether.lic.admission")
+public record AdmissionProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("16") int initialLimit, // Concurrent model calls to start with; adapted between min and max
+    @DefaultValue("2") int minLimit,
+    @DefaultValue("64") int maxLimit,
+    @DefaultValue("2.0") double latencyTolerance, // Recent latency over this multiple of the long-run average shrinks the limit
+    @DefaultValue("100") int maxQueue, // Turns waiting for a model call slot; more are rejected right away
+    @DefaultValue("10s") Duration maxWait, // Longest a turn waits for a slot, or is expected to, before it is rejected
+    @DefaultValue("20") double userRequestsPerMinute,
+    @DefaultValue("10") int userBurst,
+    @DefaultValue("120") double ipRequestsPerMinute, // Higher than per user, many users may share an address
+    @DefaultValue("40") int ipBurst
+) {}
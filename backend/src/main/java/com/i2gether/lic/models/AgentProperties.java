@@ -1,5 +1,6 @@
 package com.i2gether.lic.models;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.core.io.Resource;
 
@@ -9,5 +10,5 @@ public record AgentProperties (
     String description,
     String aiModel,
     Resource systemPrompt,
-    String apiKey
+    @Nullable String apiKey // Gemini API key; without one the client reads GOOGLE_API_KEY / GEMINI_API_KEY
 ){}
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.i2gether.lic.models;
+
+/**
+ * A single frame of a streamed agent turn: text chunks as the model produces them,
+ * followed by one final frame carrying the turn metadata.
+ */
+public sealed interface AgentStreamFrame {
+
+    record Chunk(String text) implements AgentStreamFrame {}
+
+    record Done(UserResponse response) implements AgentStreamFrame {}
+}
@@ -0,0 +1,20 @@
+package com.i2gether.lic.models;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "com.i2gether.lic.cluster")
+public record ClusterProperties(
+    @DefaultValue("false") boolean enabled,
+    @Nullable URI self, // This node's base URL as the other nodes reach it, one of 'nodes'
+    @DefaultValue List<URI> nodes, // Base URLs of all nodes, including this one
+    @Nullable String sharedSecret, // Same on all nodes; signs forwarded requests so clients can't pass as a node
+    @DefaultValue("128") int virtualNodes, // Ring positions per node; more spreads sessions more evenly
+    @DefaultValue("2s") Duration connectTimeout,
+    @DefaultValue("30s") Duration forwardTimeout // Wait for the owner's response (headers, for streams)
+) {}
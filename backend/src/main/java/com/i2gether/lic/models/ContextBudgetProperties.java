@@ -0,0 +1,20 @@
+package com.i2gether.lic.models;
+
+import java.time.Duration;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.core.io.Resource;
+
+@ConfigurationProperties(prefix = "com.i2gether.lic.context-budget")
+public record ContextBudgetProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("32000") int maxPromptTokens, // Prompt size of a turn above which the session history is compacted
+    @DefaultValue("12") int maxTurns, // Turns since the last compaction after which the session history is compacted
+    @DefaultValue("4") int keepTurns, // Most recent user turns (with their replies) kept verbatim when compacting
+    @DefaultValue("true") boolean summarize, // Replace older turns with a generated summary; false just drops them
+    @DefaultValue("classpath:prompts/summary-prompt.txt") Resource summaryPrompt,
+    @Nullable String summaryModel, // Model for summaries; defaults to the agent's model
+    @DefaultValue("60s") Duration summaryTimeout // Longest a summary may take; the compaction is given up after it
+) {}
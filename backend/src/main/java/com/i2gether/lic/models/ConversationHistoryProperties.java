@@ -0,0 +1,14 @@
+package com.i2gether.lic.models;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "com.i2gether.lic.conversation-history")
+public record ConversationHistoryProperties(
+    @DefaultValue("200") int maxMessages, // Oldest messages are dropped beyond this many per session
+    @DefaultValue("262144") long maxBytes, // UTF-8 size budget per session
+    @DefaultValue("2h") Duration idleTtl, // Sessions without new messages are expired after this
+    @DefaultValue("100000") long maxSessions
+) {}
@@ -13,22 +13,41 @@ public record InsuranceProduct(
     EligibilityCriteria eligibility,
     List<String> faqs
 ) {
+    public InsuranceProduct {
+        features = features == null ? List.of() : List.copyOf(features);
+        benefits = benefits == null ? List.of() : List.copyOf(benefits);
+        faqs = faqs == null ? List.of() : List.copyOf(faqs);
+    }
+
     public enum ProductType {
-        TERM,
-        WHOLE,
-        UNIVERSAL,
-        VARIABLE,
-        GROUP,
-        TERM_BENEFIT_PENSION,
-        THREE_INSTALLMENT,
-        MULTIPLE_INSTALLMENT,
-        JBC_MONTHLY_SAVINGS,
-        JBC_EXPECTED_MONTHLY_SAVINGS,
-        SOCIAL_SECURITY,
-        PROMILA_DPS,
-        RURAL_LIFE,
-        PERSONAL_PENSION,
-        CHILD_SECURITY
+        TERM("term-life-insurance.md"),
+        WHOLE("whole-life-insurance.md"),
+        UNIVERSAL("universal-life-insurance.md"),
+        VARIABLE("variable-life-insurance.md"),
+        GROUP("group-life-insurance.md"),
+        TERM_BENEFIT_PENSION("term-benefit-pension-insurance.md"),
+        THREE_INSTALLMENT("three-installment-insurance.md"),
+        MULTIPLE_INSTALLMENT("multiple-installment-insurance.md"),
+        JBC_MONTHLY_SAVINGS("jbc-monthly-savings-scheme.md"),
+        JBC_EXPECTED_MONTHLY_SAVINGS("jbc-expected-monthly-savings.md"),
+        SOCIAL_SECURITY("social-security-insurance.md"),
+        PROMILA_DPS("promila-dps-scheme.md"),
+        RURAL_LIFE("rural-life-insurance.md"),
+        PERSONAL_PENSION("personal-pension-insurance.md"),
+        CHILD_SECURITY("child-security-insurance.md");
+
+        private final String knowledgeBaseFile;
+
+        ProductType(String knowledgeBaseFile) {
+            this.knowledgeBaseFile = knowledgeBaseFile;
+        }
+
+        /**
+         * Knowledge base markdown file describing this product
+         */
+        public String knowledgeBaseFile() {
+            return knowledgeBaseFile;
+        }
     }
     
     public record PricingInfo(
@@ -0,0 +1,14 @@
+package com.i2gether.lic.models;
+
+/**
+ * Phrase categories recognized in a conversation turn
+ */
+public enum IntentCategory {
+    STRONG_PURCHASE_INTENT, // Explicit purchase/subscription intent from the customer
+    LEAD_CAPTURE_REQUEST, // Agent asking for contact information
+    PURCHASE_HINT, // Weaker purchase wording from the customer
+    GREETING,
+    NEEDS_ASSESSMENT,
+    PRODUCT_RECOMMENDATION,
+    CONTACT_DETAILS
+}
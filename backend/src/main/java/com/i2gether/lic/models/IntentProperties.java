@@ -0,0 +1,12 @@
+package com.i2gether.lic.models;
+
+import java.util.List;
+import java.util.Map;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "com.i2gether.lic.intent")
+public record IntentProperties(
+    @Nullable Map<IntentCategory, List<String>> phrases // Replaces the built-in phrase list of each configured category
+) {}
@@ -0,0 +1,11 @@
+package com.i2gether.lic.models;
+
+import java.util.Set;
+
+/**
+ * Published after knowledge base files were reloaded
+ */
+public record KnowledgeBaseChangedEvent(
+    Set<String> fileNames,
+    long version // Knowledge base version after the change
+) {}
@@ -0,0 +1,13 @@
+package com.i2gether.lic.models;
+
+import java.nio.file.Path;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "com.i2gether.lic.knowledge-base")
+public record KnowledgeBaseProperties(
+    @Nullable Path directory, // Optional external directory; its files override the bundled knowledge base
+    @DefaultValue("true") boolean watch // Hot-reload files changed in the external directory
+) {}
@@ -0,0 +1,11 @@
+package com.i2gether.lic.models;
+
+/**
+ * A heading-delimited section of a knowledge base file
+ */
+public record KnowledgeChunk(
+    String fileName,
+    String productTitle, // The file's top-level "# " heading
+    String heading, // The section heading, or the product title for text before the first section
+    String content
+) {}
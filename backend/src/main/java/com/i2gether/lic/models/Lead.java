@@ -1,17 +1,22 @@
 package com.i2gether.lic.models;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+
 public record Lead(
     UUID leadId,
     UUID sessionId,
     UUID userId,
     CustomerInfo customerInfo,
-    String fullConversationHistory, // Complete conversation for human agent review
+    @Nullable UUID transcriptId, // Frozen conversation for human agent review, resolved through TranscriptStore
     LocalDateTime createdAt,
-    String status, // NEW, PENDING_CONTACT, CONTACTED, etc.
-    String notes // For human sales agent to add notes
+    LeadStatus status,
+    List<LeadNote> notes, // Added by human sales agents, oldest first; append-only
+    long version // Incremented on every change, for optimistic concurrency
 ) {
     public Lead {
         if (leadId == null) {
@@ -23,20 +28,23 @@ public record Lead(
         if (customerInfo == null) {
             throw new IllegalArgumentException("Customer info is required");
         }
-        if (status == null || status.isBlank()) {
-            status = "NEW";
+        if (status == null) {
+            status = LeadStatus.NEW;
         }
         if (createdAt == null) {
             createdAt = LocalDateTime.now();
         }
+        notes = notes == null ? List.of() : List.copyOf(notes);
     }
     
-    public Lead withStatus(String newStatus) {
-        return new Lead(leadId, sessionId, userId, customerInfo, fullConversationHistory, createdAt, newStatus, notes);
+    public Lead withStatus(LeadStatus newStatus) {
+        return new Lead(leadId, sessionId, userId, customerInfo, transcriptId, createdAt, newStatus, notes, version + 1);
     }
     
-    public Lead withNotes(String newNotes) {
-        return new Lead(leadId, sessionId, userId, customerInfo, fullConversationHistory, createdAt, status, newNotes);
+    public Lead withNote(LeadNote note) {
+        List<LeadNote> newNotes = new ArrayList<>(notes.size() + 1);
+        newNotes.addAll(notes);
+        newNotes.add(note);
+        return new Lead(leadId, sessionId, userId, customerInfo, transcriptId, createdAt, status, newNotes, version + 1);
     }
 }
-
@@ -0,0 +1,20 @@
+package com.i2gether.lic.models;
+
+import java.time.LocalDateTime;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+public record LeadNote(
+    String text,
+    @Nullable String author, // Human agent who wrote the note
+    LocalDateTime createdAt
+) {
+    public LeadNote {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Note text is required");
+        }
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
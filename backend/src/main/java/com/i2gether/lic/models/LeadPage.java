@@ -0,0 +1,10 @@
+package com.i2gether.lic.models;
+
+import java.util.List;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+public record LeadPage(
+    List<Lead> leads, // Newest first
+    @Nullable String nextCursor // Pass back to continue after the last lead; null on the last page
+) {}
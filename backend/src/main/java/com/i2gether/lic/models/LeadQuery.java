@@ -0,0 +1,19 @@
+package com.i2gether.lic.models;
+
+import java.time.LocalDateTime;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+public record LeadQuery(
+    @Nullable LeadStatus status, // Only leads currently in this status
+    @Nullable LocalDateTime createdFrom, // Inclusive lower bound on createdAt
+    @Nullable LocalDateTime createdTo // Exclusive upper bound on createdAt
+) {
+    public static final LeadQuery ALL = new LeadQuery(null, null, null);
+
+    public LeadQuery {
+        if (createdFrom != null && createdTo != null && !createdFrom.isBefore(createdTo)) {
+            throw new IllegalArgumentException("createdFrom must be before createdTo");
+        }
+    }
+}
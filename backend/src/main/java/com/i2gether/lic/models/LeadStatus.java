@@ -0,0 +1,34 @@
+package com.i2gether.lic.models;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Lifecycle of a lead as human agents work it
+ */
+public enum LeadStatus {
+    NEW, // Captured by the agent, nobody has looked at it yet
+    PENDING_CONTACT, // Assigned, waiting for a call back
+    CONTACTED,
+    QUALIFIED, // Customer is a fit and interested in a product
+    CONVERTED, // Policy sold
+    LOST;
+
+    /**
+     * Statuses a lead in this status may move to next
+     */
+    public Set<LeadStatus> nextStatuses() {
+        return switch (this) {
+            case NEW -> EnumSet.of(PENDING_CONTACT, CONTACTED, LOST);
+            case PENDING_CONTACT -> EnumSet.of(CONTACTED, LOST);
+            case CONTACTED -> EnumSet.of(PENDING_CONTACT, QUALIFIED, CONVERTED, LOST);
+            case QUALIFIED -> EnumSet.of(CONVERTED, LOST);
+            case CONVERTED -> EnumSet.noneOf(LeadStatus.class);
+            case LOST -> EnumSet.of(PENDING_CONTACT); // Reopened
+        };
+    }
+
+    public boolean canTransitionTo(LeadStatus next) {
+        return nextStatuses().contains(next);
+    }
+}
@@ -0,0 +1,29 @@
+package com.i2gether.lic.models;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "com.i2gether.lic.lead-store")
+public record LeadStoreProperties(
+    @DefaultValue("FILE") StoreType type,
+    @DefaultValue("data/leads") Path directory,
+    @DefaultValue("ASYNC") Durability durability,
+    @DefaultValue("256") int batchSize, // Maximum writes per fsync
+    @DefaultValue("50ms") Duration flushInterval, // How long the idle writer waits for a write before checking for close; writes are never held back
+    @DefaultValue("10000") int queueCapacity,
+    @DefaultValue("10000") int compactionThreshold // Log entries before a snapshot is written and the log truncated
+) {
+    public enum StoreType {
+        MEMORY, // Leads are lost on restart
+        FILE // Append-only log with snapshot compaction
+    }
+
+    public enum Durability {
+        NONE, // Batched writes, no fsync; relies on the OS page cache
+        ASYNC, // Batches are fsynced, the request does not wait for it
+        SYNC // The request waits until its batch is fsynced (group commit)
+    }
+}
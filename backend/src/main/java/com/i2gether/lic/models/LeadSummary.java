@@ -0,0 +1,38 @@
+package com.i2gether.lic.models;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Admin listing projection of a {@link Lead}; the conversation transcript is only carried when requested.
+ */
+public record LeadSummary(
+    UUID leadId,
+    UUID sessionId,
+    UUID userId,
+    CustomerInfo customerInfo,
+    LocalDateTime createdAt,
+    LeadStatus status,
+    List<LeadNote> notes,
+    long version,
+    @Nullable UUID transcriptId,
+    @Nullable List<String> conversationHistory
+) {
+    public static LeadSummary of(Lead lead, @Nullable List<String> conversationHistory) {
+        return new LeadSummary(
+            lead.leadId(),
+            lead.sessionId(),
+            lead.userId(),
+            lead.customerInfo(),
+            lead.createdAt(),
+            lead.status(),
+            lead.notes(),
+            lead.version(),
+            lead.transcriptId(),
+            conversationHistory
+        );
+    }
+}
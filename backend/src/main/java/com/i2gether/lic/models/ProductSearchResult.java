@@ -0,0 +1,8 @@
+package com.i2gether.lic.models;
+
+import java.util.List;
+
+public record ProductSearchResult(
+    int total, // Number of matching products across all pages
+    List<InsuranceProduct> products // Requested page, best match first
+) {}
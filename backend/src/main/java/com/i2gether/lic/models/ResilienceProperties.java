@@ -0,0 +1,21 @@
+package com.i2gether.lic.models;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "com.i2gether.lic.resilience")
+public record ResilienceProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("25s") Duration turnTimeout, // Whole turn, all model and tool calls; below the frontend's 30s timeout
+    @DefaultValue("15s") Duration callTimeout, // Longest wait for the first or next response of a model call
+    @DefaultValue("3") int maxAttempts, // Per model call, for transient errors before any output was produced
+    @DefaultValue("250ms") Duration initialBackoff,
+    @DefaultValue("2s") Duration maxBackoff,
+    @DefaultValue("0.5") double failureRateThreshold, // Share of failed calls in the window that opens the circuit
+    @DefaultValue("20") int slidingWindowSize,
+    @DefaultValue("10") int minimumCalls,
+    @DefaultValue("30s") Duration openDuration, // Time the circuit stays open before a single probe call
+    @DefaultValue("I'm sorry, I can't answer right now. Please try again in a moment.") String fallbackAnswer
+) {}
@@ -0,0 +1,15 @@
+package com.i2gether.lic.models;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "com.i2gether.lic.response-cache")
+public record ResponseCacheProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("1000") long maximumSize, // Cached first-turn answers
+    @DefaultValue("6h") Duration timeToLive,
+    @DefaultValue("200") int maxQuestionLength, // Longer questions are too specific (and too personal) to share answers
+    @DefaultValue("0") double similarityThreshold // Cosine similarity for near-duplicate questions to share an answer; 0 = exact matches only
+) {}
@@ -0,0 +1,10 @@
+package com.i2gether.lic.models;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "com.i2gether.lic.retrieval")
+public record RetrievalProperties(
+    @DefaultValue("true") boolean enabled, // false falls back to the whole knowledge base in the system prompt
+    @DefaultValue("4") int topK // Number of knowledge base sections injected per turn
+) {}
@@ -0,0 +1,12 @@
+package com.i2gether.lic.models;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "com.i2gether.lic.session-cache")
+public record SessionCacheProperties(
+    @DefaultValue("10000") long maximumSize, // Maximum number of live agent sessions
+    @DefaultValue("30m") Duration expireAfterAccess // Idle time after which a session is evicted
+) {}
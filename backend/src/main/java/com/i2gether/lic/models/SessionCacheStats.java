@@ -0,0 +1,9 @@
+package com.i2gether.lic.models;
+
+public record SessionCacheStats(
+    long size,
+    long hitCount,
+    long missCount,
+    double hitRate,
+    long evictionCount
+) {}
@@ -0,0 +1,17 @@
+package com.i2gether.lic.models;
+
+import java.util.UUID;
+
+/**
+ * Identifies an ADK session owned by a user.
+ */
+public record SessionKey(UUID userId, UUID sessionId) {
+    public SessionKey {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID is required");
+        }
+        if (sessionId == null) {
+            throw new IllegalArgumentException("Session ID is required");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.i2gether.lic.models;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "com.i2gether.lic.session-store")
+public record SessionStoreProperties(
+    @DefaultValue("FILE") StoreType type,
+    @DefaultValue("data/sessions") Path directory,
+    @DefaultValue("2000") long hotSessions, // Sessions kept in memory; the others are reloaded from disk on their next turn
+    @DefaultValue("7d") Duration retention // Sessions untouched for longer are deleted from disk
+) {
+    public enum StoreType {
+        MEMORY, // ADK in-memory sessions, lost on restart
+        FILE // One JSON-lines event log per session
+    }
+}
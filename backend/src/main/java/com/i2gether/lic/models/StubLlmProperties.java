@@ -0,0 +1,20 @@
+package com.i2gether.lic.models;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Behaviour of the stub model, used when the agent's ai-model is "stub" (load tests, local runs without an API key)
+ */
+@ConfigurationProperties(prefix = "com.i2gether.lic.stub-llm")
+public record StubLlmProperties(
+    @DefaultValue("600ms") Duration latencyMedian, // Time to the first token, log-normally distributed
+    @DefaultValue("3s") Duration latencyP99,
+    @DefaultValue("15ms") Duration tokenDelay, // Between streamed words
+    @DefaultValue("0.0") double errorRate, // Share of calls failing with errorStatus before any output
+    @DefaultValue("503") int errorStatus,
+    @DefaultValue List<String> responses // Canned answers, picked by the question; built-in sales answers if empty
+) {}
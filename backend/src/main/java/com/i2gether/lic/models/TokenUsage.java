@@ -0,0 +1,17 @@
+package com.i2gether.lic.models;
+
+public record TokenUsage(
+    int promptTokens, // Sent to the model, summed over every model call of the turn
+    int responseTokens, // Generated by the model
+    int totalTokens
+) {
+    public static final TokenUsage NONE = new TokenUsage(0, 0, 0);
+
+    public TokenUsage plus(TokenUsage other) {
+        return new TokenUsage(
+            promptTokens + other.promptTokens,
+            responseTokens + other.responseTokens,
+            totalTokens + other.totalTokens
+        );
+    }
+}
@@ -9,7 +9,9 @@ public record UserResponse(
     UUID sessionId,
     String answer,
     @Nullable ConversationState conversationState,
-    @Nullable Boolean requiresLeadCapture // Indicates if agent is asking for customer info
+    @Nullable Boolean requiresLeadCapture, // Indicates if agent is asking for customer info
+    @Nullable TokenUsage tokenUsage, // Tokens used by this turn
+    @Nullable Long sessionTokens // Total tokens used by the session so far, this turn included
 ) {
     public UserResponse {
         if (userId == null) {
@@ -25,6 +27,6 @@ public record UserResponse(
     
     // Convenience constructor for simple responses
     public UserResponse(UUID userId, UUID sessionId, String answer) {
-        this(userId, sessionId, answer, null, null);
+        this(userId, sessionId, answer, null, null, null, null);
     }
 }
@@ -0,0 +1,283 @@
+package com.i2gether.lic.services;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.i2gether.lic.models.AdmissionProperties;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Admission control for agent turns.
+ *
+ * Requests are first rate limited per user and per client address with token buckets. Model calls
+ * then need one of a limited number of slots; a call without a free slot waits in a bounded queue,
+ * and is rejected right away if the queue is full or its expected wait is longer than the
+ * configured maximum. The slot limit adapts AIMD-style to the upstream: it grows by about one per
+ * limit's worth of calls completing within the latency tolerance, and shrinks by 10% on a call
+ * that failed or completed while the recent average latency was over the tolerated multiple of the
+ * long-run average. Comparing averages rather than single calls against the fastest one keeps a
+ * steady mix of short and long answers from reading as congestion.
+ */
+@Component
+public class AdmissionControl implements MeterBinder {
+
+    static final String RATE_LIMITED = "rate_limited";
+    static final String QUEUE_FULL = "queue_full";
+    static final String TIMEOUT = "timeout";
+
+    private static final double DECREASE_FACTOR = 0.9;
+    private static final double LATENCY_SMOOTHING = 0.1; // Recent average, over roughly the last 10 calls
+    private static final double BASELINE_SMOOTHING = 0.01; // Long-run average, over roughly the last 100 calls
+
+    private final AdmissionProperties properties;
+    private final Cache<String, TokenBucket> buckets;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder queueFull = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    // Guarded by lock
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private double latencyNanos;
+    private double baselineNanos;
+    private long latencySamples;
+
+    AdmissionControl(AdmissionProperties properties) {
+        this.properties = properties;
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .build();
+        this.limit = Math.clamp(properties.initialLimit(), properties.minLimit(), properties.maxLimit());
+    }
+
+    /**
+     * Take a request token for the user (if known) and one for the client address, or neither
+     *
+     * @throws AdmissionRejectedException if either is over its rate limit
+     */
+    public void checkRate(@Nullable String userId, String clientAddress) {
+        if (!properties.enabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        TokenBucket addressBucket = buckets.get("ip:" + clientAddress,
+            key -> new TokenBucket(properties.ipBurst(), properties.ipRequestsPerMinute(), now));
+        long waitNanos;
+        if (userId == null) {
+            waitNanos = addressBucket.tryTake(now);
+        } else {
+            // A request rejected for its address doesn't use up its user's budget, nor the other way round
+            waitNanos = buckets.get("user:" + userId,
+                    key -> new TokenBucket(properties.userBurst(), properties.userRequestsPerMinute(), now))
+                .tryTakeWith(addressBucket, now);
+        }
+        if (waitNanos > 0) {
+            rateLimited.increment();
+            throw new AdmissionRejectedException(RATE_LIMITED, retryAfter(waitNanos));
+        }
+    }
+
+    /**
+     * Fail fast when a new turn could not get a model call slot in time anyway
+     *
+     * @throws AdmissionRejectedException if the queue is full or the expected wait is too long
+     */
+    public void checkCapacity() {
+        if (!properties.enabled()) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (inFlight >= (int) limit) {
+                rejectIfOverloaded();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait for a model call slot; close the permit when the call has completed
+     *
+     * @throws AdmissionRejectedException if no slot is available within the maximum wait
+     */
+    public Permit acquire() {
+        if (!properties.enabled()) {
+            return new Permit(false);
+        }
+        lock.lock();
+        try {
+            if (inFlight < (int) limit && waiting == 0) {
+                inFlight++;
+                return new Permit(true);
+            }
+            rejectIfOverloaded();
+
+            waiting++;
+            try {
+                long remaining = properties.maxWait().toNanos();
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        timedOut.increment();
+                        throw new AdmissionRejectedException(TIMEOUT, retryAfter(expectedWaitNanos()));
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                inFlight++;
+                return new Permit(true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AdmissionRejectedException(TIMEOUT, retryAfter(expectedWaitNanos()));
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Current limit on concurrent model calls
+     */
+    public int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void rejectIfOverloaded() {
+        if (waiting >= properties.maxQueue()) {
+            queueFull.increment();
+            throw new AdmissionRejectedException(QUEUE_FULL, retryAfter(expectedWaitNanos()));
+        }
+        long expectedWait = expectedWaitNanos();
+        if (expectedWait > properties.maxWait().toNanos()) {
+            timedOut.increment();
+            throw new AdmissionRejectedException(TIMEOUT, retryAfter(expectedWait));
+        }
+    }
+
+    /**
+     * Rough wait for a slot for one more call: the queue ahead of it drains limit calls per average latency
+     */
+    private long expectedWaitNanos() {
+        return (long) ((waiting + 1) / limit * latencyNanos);
+    }
+
+    void release(long elapsedNanos, boolean failed) {
+        lock.lock();
+        try {
+            inFlight--;
+            boolean slow = false;
+            if (!failed) {
+                // Plain means over the first samples, so neither average starts out biased by the first call
+                latencySamples++;
+                latencyNanos += Math.max(LATENCY_SMOOTHING, 1.0 / latencySamples) * (elapsedNanos - latencyNanos);
+                baselineNanos += Math.max(BASELINE_SMOOTHING, 1.0 / latencySamples) * (elapsedNanos - baselineNanos);
+                slow = latencyNanos > baselineNanos * properties.latencyTolerance();
+            }
+            if (failed || slow) {
+                limit = Math.max(properties.minLimit(), limit * DECREASE_FACTOR);
+            } else if (inFlight + 1 >= limit / 2) {
+                // Only grow while the limit is actually being used
+                limit = Math.min(properties.maxLimit(), limit + 1 / limit);
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Duration retryAfter(long nanos) {
+        return Duration.ofSeconds(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos) + 1));
+    }
+
+    /**
+     * {@code lic.admission.limit}, {@code lic.admission.in.flight} and {@code lic.admission.queued}, and
+     * {@code lic.admission.rejected{reason}}
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("lic.admission.limit", this, AdmissionControl::limit)
+            .description("Current adaptive limit on concurrent model calls")
+            .register(registry);
+        Gauge.builder("lic.admission.in.flight", this, control -> control.locked(() -> control.inFlight))
+            .description("Model calls holding a slot")
+            .register(registry);
+        Gauge.builder("lic.admission.queued", this, control -> control.locked(() -> control.waiting))
+            .description("Turns waiting for a model call slot")
+            .register(registry);
+        rejectedCounter(registry, RATE_LIMITED, rateLimited);
+        rejectedCounter(registry, QUEUE_FULL, queueFull);
+        rejectedCounter(registry, TIMEOUT, timedOut);
+    }
+
+    private int locked(IntSupplier value) {
+        lock.lock();
+        try {
+            return value.getAsInt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void rejectedCounter(MeterRegistry registry, String reason, LongAdder count) {
+        FunctionCounter.builder("lic.admission.rejected", count, LongAdder::sum)
+            .description("Requests rejected with 429")
+            .tag("reason", reason)
+            .register(registry);
+    }
+
+    /**
+     * A model call slot; mark it {@link #failed()} if the call failed, then close it
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final boolean counted;
+        private final long startedNanos = System.nanoTime();
+        private volatile boolean failed;
+        private boolean closed;
+
+        private Permit(boolean counted) {
+            this.counted = counted;
+        }
+
+        /**
+         * The call failed; treated as a sign of upstream overload
+         */
+        public void failed() {
+            failed = true;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (counted) {
+                release(System.nanoTime() - startedNanos, failed);
+            }
+        }
+    }
+}
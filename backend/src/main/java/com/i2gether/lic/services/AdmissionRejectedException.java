@@ -0,0 +1,33 @@
+package com.i2gether.lic.services;
+
+import java.time.Duration;
+
+/**
+ * A turn was not admitted, either because its client is over its rate limit or because the agent
+ * has no model call capacity for it within the configured wait
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final String reason;
+    private final Duration retryAfter;
+
+    public AdmissionRejectedException(String reason, Duration retryAfter) {
+        super("Request rejected (" + reason + "), retry after " + retryAfter.toSeconds() + "s");
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * One of rate_limited, queue_full, timeout
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * When the client should try again, in whole seconds
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,185 @@
+package com.i2gether.lic.services;
+
+import java.time.Duration;
+
+import org.springframework.stereotype.Component;
+
+import com.i2gether.lic.models.TokenUsage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Instrumentation of an agent turn.
+ *
+ * A turn is an Observation ({@code lic.agent.turn}) with one child Observation per phase
+ * ({@code lic.agent.phase}: history, session, cache, coalesce, admission, llm, intent), so each phase is both a timer and a
+ * span under the request's trace. The llm phase timer is the total LLM latency; time to first
+ * event, prompt/answer sizes and token usage are recorded alongside it.
+ */
+@Component
+public class AgentMetrics {
+
+    public static final String BLOCKING = "blocking";
+    public static final String STREAM = "stream";
+
+    static final String PHASE_HISTORY = "history";
+    static final String PHASE_SESSION = "session";
+    static final String PHASE_CACHE = "cache";
+    static final String PHASE_COALESCE = "coalesce";
+    static final String PHASE_ADMISSION = "admission";
+    static final String PHASE_LLM = "llm";
+    static final String PHASE_INTENT = "intent";
+
+    private final ObservationRegistry observationRegistry;
+    private final Timer blockingFirstEvent;
+    private final Timer streamFirstEvent;
+    private final DistributionSummary questionSize;
+    private final DistributionSummary answerSize;
+    private final DistributionSummary instructionSize;
+    private final Counter promptTokens;
+    private final Counter responseTokens;
+    private final DistributionSummary turnTokens;
+    private final DistributionSummary compactedEvents;
+    private final Counter timeoutFallbacks;
+    private final Counter unavailableFallbacks;
+
+    AgentMetrics(MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+        this.blockingFirstEvent = firstEventTimer(meterRegistry, BLOCKING);
+        this.streamFirstEvent = firstEventTimer(meterRegistry, STREAM);
+        this.questionSize = sizeSummary(meterRegistry, "lic.agent.question.size", "User question length");
+        this.answerSize = sizeSummary(meterRegistry, "lic.agent.answer.size", "Agent answer length");
+        this.instructionSize = sizeSummary(meterRegistry, "lic.agent.instruction.size",
+            "System instruction length sent to the model, including knowledge base context");
+        this.promptTokens = tokenCounter(meterRegistry, "prompt");
+        this.responseTokens = tokenCounter(meterRegistry, "response");
+        this.turnTokens = DistributionSummary.builder("lic.agent.turn.tokens")
+            .description("Total tokens used by a turn, over all its model calls")
+            .baseUnit("tokens")
+            .register(meterRegistry);
+        this.compactedEvents = DistributionSummary.builder("lic.agent.context.compacted.events")
+            .description("Session events dropped when a session went over its context budget")
+            .baseUnit("events")
+            .register(meterRegistry);
+        this.timeoutFallbacks = fallbackCounter(meterRegistry, "timeout");
+        this.unavailableFallbacks = fallbackCounter(meterRegistry, "unavailable");
+    }
+
+    /**
+     * A not yet started observation of a whole turn; {@code mode} is {@link #BLOCKING} or {@link #STREAM}
+     */
+    public Observation turn(String mode) {
+        return Observation.createNotStarted("lic.agent.turn", observationRegistry)
+            .contextualName("agent turn")
+            .lowCardinalityKeyValue("mode", mode);
+    }
+
+    /**
+     * A not yet started observation of one phase of the current turn
+     */
+    public Observation phase(String phase) {
+        return Observation.createNotStarted("lic.agent.phase", observationRegistry)
+            .contextualName("agent " + phase)
+            .lowCardinalityKeyValue("phase", phase);
+    }
+
+    /**
+     * A not yet started observation of a background history compaction
+     */
+    public Observation compaction(boolean summarize) {
+        return Observation.createNotStarted("lic.agent.context.compaction", observationRegistry)
+            .contextualName("session compaction")
+            .lowCardinalityKeyValue("strategy", summarize ? "summary" : "truncate");
+    }
+
+    /**
+     * Starts timing an LLM call; call {@link FirstEventClock#mark()} on every event
+     */
+    public FirstEventClock firstEventClock(String mode) {
+        return new FirstEventClock(STREAM.equals(mode) ? streamFirstEvent : blockingFirstEvent);
+    }
+
+    public void recordExchange(String question, String answer) {
+        questionSize.record(question.length());
+        answerSize.record(answer.length());
+    }
+
+    public void recordInstruction(String instruction) {
+        instructionSize.record(instruction.length());
+    }
+
+    public void recordTokens(TokenUsage usage) {
+        promptTokens.increment(usage.promptTokens());
+        responseTokens.increment(usage.responseTokens());
+        turnTokens.record(usage.totalTokens());
+    }
+
+    public void recordCompaction(int droppedEvents) {
+        compactedEvents.record(droppedEvents);
+    }
+
+    /**
+     * A turn was answered with the fallback answer, because it ran past its deadline or the circuit was open
+     */
+    public void recordFallback(boolean timedOut) {
+        (timedOut ? timeoutFallbacks : unavailableFallbacks).increment();
+    }
+
+    /**
+     * {@code lic.agent.fallbacks{reason}}, reason being timeout or unavailable (circuit open)
+     */
+    private static Counter fallbackCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("lic.agent.fallbacks")
+            .description("Turns answered with the fallback answer instead of the model's")
+            .tag("reason", reason)
+            .register(registry);
+    }
+
+    private static Counter tokenCounter(MeterRegistry registry, String type) {
+        return Counter.builder("lic.agent.tokens")
+            .description("Tokens sent to and generated by the model")
+            .baseUnit("tokens")
+            .tag("type", type)
+            .register(registry);
+    }
+
+    private static Timer firstEventTimer(MeterRegistry registry, String mode) {
+        return Timer.builder("lic.agent.llm.first.event")
+            .description("Time from starting the runner to its first event")
+            .tag("mode", mode)
+            .register(registry);
+    }
+
+    private static DistributionSummary sizeSummary(MeterRegistry registry, String name, String description) {
+        return DistributionSummary.builder(name)
+            .description(description)
+            .baseUnit("characters")
+            .register(registry);
+    }
+
+    /**
+     * Records the time to the first event of one LLM call, once
+     */
+    public static final class FirstEventClock {
+
+        private final Timer timer;
+        private final long startedNanos = System.nanoTime();
+        private volatile boolean marked;
+
+        private FirstEventClock(Timer timer) {
+            this.timer = timer;
+        }
+
+        public void mark() {
+            if (!marked) {
+                marked = true;
+                timer.record(Duration.ofNanos(System.nanoTime() - startedNanos));
+            }
+        }
+    }
+}
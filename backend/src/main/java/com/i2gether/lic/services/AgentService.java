@@ -1,208 +1,520 @@
 package com.i2gether.lic.services;
 
-import java.util.Locale;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import com.google.adk.agents.BaseAgent;
-import com.google.adk.runner.InMemoryRunner;
+import com.google.adk.agents.RunConfig;
+import com.google.adk.events.Event;
+import com.google.adk.runner.Runner;
 import com.google.adk.sessions.Session;
 import com.google.genai.types.Content;
 import com.google.genai.types.Part;
+import com.i2gether.lic.llm.LlmUnavailableException;
+import com.i2gether.lic.models.AgentStreamFrame;
 import com.i2gether.lic.models.ConversationState;
+import com.i2gether.lic.models.IntentCategory;
+import com.i2gether.lic.models.ResilienceProperties;
+import com.i2gether.lic.models.SessionKey;
+import com.i2gether.lic.models.TokenUsage;
 import com.i2gether.lic.models.UserRequest;
 import com.i2gether.lic.models.UserResponse;
 
+import io.micrometer.observation.Observation;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Scheduler;
+
 @Service
 public class AgentService {
 
-    private final InMemoryRunner runner;
-    private final ConcurrentMap<String, Session> inMemorySessionCache = new ConcurrentHashMap<>();
+    private static final Logger log = LoggerFactory.getLogger(AgentService.class);
+    private static final RunConfig STREAMING_RUN_CONFIG = RunConfig.builder()
+        .setStreamingMode(RunConfig.StreamingMode.SSE)
+        .build();
+
+    private final Runner runner;
+    private final AgentSessionCache sessionCache;
     private final LeadManagementService leadManagementService;
+    private final IntentMatcher intentMatcher;
+    private final SessionContextCompactor contextCompactor;
+    private final ResponseCache responseCache;
+    private final QuestionCoalescer coalescer;
+    private final AdmissionControl admission;
+    private final ResilienceProperties resilience;
+    private final AgentMetrics metrics;
+    private final Scheduler agentScheduler;
 
-    AgentService(BaseAgent baseAgent, LeadManagementService leadManagementService) {
-        this.runner = new InMemoryRunner(baseAgent);
+    AgentService(Runner runner, AgentSessionCache sessionCache, LeadManagementService leadManagementService,
+                 IntentMatcher intentMatcher, SessionContextCompactor contextCompactor, ResponseCache responseCache,
+                 QuestionCoalescer coalescer, AdmissionControl admission, ResilienceProperties resilience,
+                 AgentMetrics metrics, Scheduler agentScheduler) {
+        this.runner = runner;
+        this.sessionCache = sessionCache;
         this.leadManagementService = leadManagementService;
+        this.intentMatcher = intentMatcher;
+        this.contextCompactor = contextCompactor;
+        this.responseCache = responseCache;
+        this.coalescer = coalescer;
+        this.admission = admission;
+        this.resilience = resilience;
+        this.metrics = metrics;
+        this.agentScheduler = agentScheduler;
     }
 
     public UserResponse interact(UserRequest request) {
+        return metrics.turn(AgentMetrics.BLOCKING).observe(() -> {
+            Turn turn = beginTurn(request);
+            try {
+                ResponseCache.CachedAnswer cached = cachedAnswer(turn);
+                if (cached != null) {
+                    return completeCachedTurn(turn, cached);
+                }
+                if (!turn.cacheable()) {
+                    return runTurn(turn);
+                }
+
+                // Identical opening questions in flight share one model call
+                QuestionCoalescer.Flight flight = coalescer.join(turn.question(), turn.knowledgeBaseVersion());
+                if (!flight.leader()) {
+                    Optional<ResponseCache.CachedAnswer> shared;
+                    try {
+                        shared = metrics.phase(AgentMetrics.PHASE_COALESCE)
+                            .observe(() -> followerAnswer(turn, flight).join());
+                    } catch (CompletionException e) {
+                        if (!isUnavailable(e)) {
+                            throw e;
+                        }
+                        return fallbackTurn(turn, e);
+                    }
+                    return shared.isPresent() ? completeCachedTurn(turn, shared.get()) : runTurn(turn);
+                }
+                try {
+                    UserResponse response = runTurn(turn);
+                    ResponseCache.CachedAnswer shared = sharedAnswer(turn, response);
+                    if (shared != null) {
+                        flight.complete(shared);
+                    }
+                    return response;
+                } finally {
+                    flight.abandon();
+                }
+            } finally {
+                turn.session().unlock();
+            }
+        });
+    }
+
+    private UserResponse runTurn(Turn turn) {
+        TokenUsageCollector usage = new TokenUsageCollector();
+        String answer;
+        try (AdmissionControl.Permit permit = metrics.phase(AgentMetrics.PHASE_ADMISSION).observe(admission::acquire)) {
+            answer = metrics.phase(AgentMetrics.PHASE_LLM).observe(() -> {
+                AgentMetrics.FirstEventClock firstEvent = metrics.firstEventClock(AgentMetrics.BLOCKING);
+                StringBuilder answerBuilder = new StringBuilder();
+                runner.runAsync(turn.userId().toString(), turn.session().id(), turn.userMessage())
+                    .compose(events -> withTurnDeadline(turn, events))
+                    .doOnError(error -> permit.failed())
+                    .blockingForEach(event -> {
+                        firstEvent.mark();
+                        usage.accept(event);
+                        String content = event.stringifyContent();
+                        if (content != null && !content.isBlank()) {
+                            answerBuilder.append(content);
+                        }
+                    });
+                return answerBuilder.toString();
+            });
+        } catch (RuntimeException e) {
+            if (!isUnavailable(e)) {
+                throw e;
+            }
+            return fallbackTurn(turn, e);
+        }
+
+        return completeTurn(turn, answer, usage);
+    }
+
+    /**
+     * Same turn as {@link #interact(UserRequest)}, but emits the answer as it is generated.
+     * Partial model output is forwarded as {@link AgentStreamFrame.Chunk}s and the turn
+     * metadata follows as a single {@link AgentStreamFrame.Done} once the runner completes.
+     */
+    public Flowable<AgentStreamFrame> interactStream(UserRequest request) {
+        return Flowable.defer(() -> {
+            Observation turnObservation = metrics.turn(AgentMetrics.STREAM).start();
+            Turn turn;
+            try (Observation.Scope scope = turnObservation.openScope()) {
+                turn = beginTurn(request);
+            } catch (RuntimeException e) {
+                turnObservation.error(e);
+                turnObservation.stop();
+                throw e;
+            }
+
+            Flowable<AgentStreamFrame> frames;
+            try (Observation.Scope scope = turnObservation.openScope()) {
+                frames = turnFrames(turn, turnObservation);
+            } catch (RuntimeException e) {
+                turn.session().unlock();
+                turnObservation.error(e);
+                turnObservation.stop();
+                throw e;
+            }
+            return frames
+                .doOnError(turnObservation::error)
+                .doFinally(() -> {
+                    turn.session().unlock();
+                    turnObservation.stop();
+                });
+        });
+    }
+
+    /**
+     * Frames of a streamed turn: from the response cache, from an identical question already in flight
+     * (delivered as a single chunk once it completes), or from the runner
+     */
+    private Flowable<AgentStreamFrame> turnFrames(Turn turn, Observation turnObservation) {
+        ResponseCache.CachedAnswer cached = cachedAnswer(turn);
+        if (cached != null) {
+            return cachedFrames(completeCachedTurn(turn, cached));
+        }
+        if (!turn.cacheable()) {
+            return streamTurn(turn, turnObservation);
+        }
+
+        QuestionCoalescer.Flight flight = coalescer.join(turn.question(), turn.knowledgeBaseVersion());
+        if (flight.leader()) {
+            return streamTurn(turn, turnObservation)
+                .doOnNext(frame -> {
+                    if (frame instanceof AgentStreamFrame.Done done) {
+                        ResponseCache.CachedAnswer shared = sharedAnswer(turn, done.response());
+                        if (shared != null) {
+                            flight.complete(shared);
+                        }
+                    }
+                })
+                .doFinally(flight::abandon);
+        }
+        Observation waitObservation = metrics.phase(AgentMetrics.PHASE_COALESCE).parentObservation(turnObservation).start();
+        return Flowable.fromCompletionStage(followerAnswer(turn, flight))
+            .doFinally(waitObservation::stop)
+            // Leave the leader's thread, which completes the answer for every follower
+            .observeOn(agentScheduler)
+            .map(shared -> {
+                try (Observation.Scope scope = turnObservation.openScope()) {
+                    return shared.isPresent()
+                        ? cachedFrames(completeCachedTurn(turn, shared.get()))
+                        : streamTurn(turn, turnObservation);
+                }
+            })
+            // The leader didn't answer within this turn's deadline
+            .onErrorResumeNext(error -> {
+                if (!isUnavailable(error)) {
+                    return Flowable.error(error);
+                }
+                try (Observation.Scope scope = turnObservation.openScope()) {
+                    return Flowable.just(cachedFrames(fallbackTurn(turn, error)));
+                }
+            })
+            .concatMap(frames -> frames);
+    }
+
+    private Flowable<AgentStreamFrame> streamTurn(Turn turn, Observation turnObservation) {
+        StreamAccumulator accumulator = new StreamAccumulator();
+        TokenUsageCollector usage = new TokenUsageCollector();
+
+        return Flowable.using(
+                () -> metrics.phase(AgentMetrics.PHASE_ADMISSION).parentObservation(turnObservation).observe(admission::acquire),
+                permit -> {
+                    Observation llmObservation = metrics.phase(AgentMetrics.PHASE_LLM).parentObservation(turnObservation).start();
+                    AgentMetrics.FirstEventClock firstEvent = metrics.firstEventClock(AgentMetrics.STREAM);
+                    return runner.runAsync(turn.userId().toString(), turn.session().id(), turn.userMessage(), STREAMING_RUN_CONFIG)
+                        .compose(events -> withTurnDeadline(turn, events))
+                        .doOnNext(event -> {
+                            firstEvent.mark();
+                            usage.accept(event);
+                        })
+                        .doOnError(error -> {
+                            permit.failed();
+                            llmObservation.error(error);
+                        })
+                        .doFinally(llmObservation::stop);
+                },
+                AdmissionControl.Permit::close)
+            .concatMapIterable(accumulator::accept)
+            .<AgentStreamFrame>map(AgentStreamFrame.Chunk::new)
+            .concatWith(Flowable.fromCallable(() -> {
+                try (Observation.Scope scope = turnObservation.openScope()) {
+                    return new AgentStreamFrame.Done(completeTurn(turn, accumulator.answer(), usage));
+                }
+            }))
+            .onErrorResumeNext(error -> {
+                // Once part of the answer went out, an apology can't replace it
+                if (!isUnavailable(error) || accumulator.started()) {
+                    return Flowable.error(error);
+                }
+                try (Observation.Scope scope = turnObservation.openScope()) {
+                    return cachedFrames(fallbackTurn(turn, error));
+                }
+            });
+    }
+
+    /**
+     * Fail the runner's events with a TimeoutException once the turn is past its deadline, which
+     * cancels the runner; the deadline counts from the start of the turn, including admission
+     */
+    private <T> Flowable<T> withTurnDeadline(Turn turn, Flowable<T> events) {
+        if (!resilience.enabled()) {
+            return events;
+        }
+        return Flowable.defer(() -> {
+            long remaining = resilience.turnTimeout().toNanos() - (System.nanoTime() - turn.startedNanos());
+            // A single timer for the whole turn rather than a timeout per event
+            Flowable<Long> deadline = Flowable.timer(Math.max(0, remaining), TimeUnit.NANOSECONDS, agentScheduler).cache();
+            return events.timeout(deadline, event -> deadline);
+        });
+    }
+
+    /**
+     * Whether the turn failed because the model is unhealthy (circuit open) or too slow (deadline)
+     */
+    private static boolean isUnavailable(Throwable error) {
+        return unavailableCause(error) != null;
+    }
+
+    private static @Nullable Throwable unavailableCause(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof LlmUnavailableException || cause instanceof TimeoutException) {
+                return cause;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Answer with the configured apology instead of an error; nothing is cached, shared with other
+     * sessions or recorded as the agent's answer. Fallback answers are the only ones without a
+     * conversation state.
+     */
+    private UserResponse fallbackTurn(Turn turn, Throwable error) {
+        metrics.recordFallback(unavailableCause(error) instanceof TimeoutException);
+        log.warn("Turn of session {} answered with the fallback: {}", turn.sessionId(), error.toString());
+        return new UserResponse(turn.userId(), turn.sessionId(), resilience.fallbackAnswer(), null, false,
+            TokenUsage.NONE, turn.session().tokens());
+    }
+
+    private static Flowable<AgentStreamFrame> cachedFrames(UserResponse response) {
+        return Flowable.just(new AgentStreamFrame.Chunk(response.answer()), new AgentStreamFrame.Done(response));
+    }
+
+    private Turn beginTurn(UserRequest request) {
+        long startedNanos = System.nanoTime();
         UUID userId = request.userId() != null ? request.userId() : UUID.randomUUID();
         UUID sessionId = request.sessionId() != null ? request.sessionId() : UUID.randomUUID();
 
         // Store user message in conversation history
-        leadManagementService.addConversationMessage(sessionId, "User: " + request.question());
+        metrics.phase(AgentMetrics.PHASE_HISTORY).observe(() ->
+            leadManagementService.addConversationMessage(sessionId, "User: " + request.question()));
 
-        String cacheKey = userId + ":" + sessionId;
-        Session session = inMemorySessionCache.computeIfAbsent(cacheKey, key ->
-            runner.sessionService()
-                .createSession(runner.appName(), userId.toString(), null, sessionId.toString())
-                .blockingGet()
-        );
+        // Turns of a session run one at a time; released once the turn completes
+        SessionHandle session = metrics.phase(AgentMetrics.PHASE_SESSION).observe(() -> {
+            SessionHandle handle = sessionCache.getOrCreate(new SessionKey(userId, sessionId));
+            handle.lock();
+            return handle;
+        });
+
+        // Only the opening question of a session can share an answer with other sessions
+        boolean cacheable = session.isNew() && responseCache.accepts(request.question());
+        long knowledgeBaseVersion = responseCache.knowledgeBaseVersion();
 
         Content userMessage = Content.fromParts(Part.fromText(request.question()));
-        StringBuilder answerBuilder = new StringBuilder();
-        runner.runAsync(userId.toString(), session.id(), userMessage)
-            .blockingForEach(event -> {
-                String content = event.stringifyContent();
-                if (content != null && !content.isBlank()) {
-                    answerBuilder.append(content);
-                }
-            });
+        return new Turn(userId, sessionId, request.question(), session, userMessage, cacheable, knowledgeBaseVersion,
+            startedNanos);
+    }
+
+    private ResponseCache.@Nullable CachedAnswer cachedAnswer(Turn turn) {
+        if (!turn.cacheable()) {
+            return null;
+        }
+        return metrics.phase(AgentMetrics.PHASE_CACHE).observe(() -> responseCache.get(turn.question()));
+    }
+
+    /**
+     * Answer the turn from the response cache. The question and answer are still added to the
+     * session, so follow-up turns see them as context exactly as if the model had answered.
+     */
+    private UserResponse completeCachedTurn(Turn turn, ResponseCache.CachedAnswer cached) {
+        metrics.phase(AgentMetrics.PHASE_SESSION).observe(() -> {
+            Session session = runner.sessionService()
+                .getSession(runner.appName(), turn.userId().toString(), turn.session().id(), Optional.empty())
+                .blockingGet();
+            String invocationId = "cached-" + UUID.randomUUID();
+            runner.sessionService().appendEvent(session, Event.builder()
+                .id(Event.generateEventId())
+                .invocationId(invocationId)
+                .author("user")
+                .content(message("user", turn.question()))
+                .build()).blockingGet();
+            runner.sessionService().appendEvent(session, Event.builder()
+                .id(Event.generateEventId())
+                .invocationId(invocationId)
+                .author(runner.agent().name())
+                .content(message("model", cached.answer()))
+                .build()).blockingGet();
+        });
+        contextCompactor.turnCompleted(turn.session(), 0);
+        metrics.recordExchange(turn.question(), cached.answer());
+
+        metrics.phase(AgentMetrics.PHASE_HISTORY).observe(() ->
+            leadManagementService.addConversationMessage(turn.sessionId(), "Agent: " + cached.answer()));
+
+        return new UserResponse(turn.userId(), turn.sessionId(), cached.answer(), cached.conversationState(),
+            cached.requiresLeadCapture(), TokenUsage.NONE, turn.session().tokens());
+    }
+
+    /**
+     * The leader's answer as handed to followers of its flight, or null if it isn't for anyone but the
+     * leader's visitor: an answer leading into lead capture depends on the visitor, like in the response
+     * cache, and a fallback answer would end up in the followers' sessions as the agent's answer
+     */
+    private static ResponseCache.@Nullable CachedAnswer sharedAnswer(Turn turn, UserResponse response) {
+        boolean fallback = response.conversationState() == null;
+        if (fallback || Boolean.TRUE.equals(response.requiresLeadCapture())) {
+            return null;
+        }
+        return new ResponseCache.CachedAnswer(response.answer(), response.conversationState(), false,
+            turn.knowledgeBaseVersion(), null);
+    }
+
+    /**
+     * A follower's wait for the leader's answer, failing with a TimeoutException once the follower's
+     * own turn is past its deadline. Times out a copy, so only this follower stops waiting. With
+     * resilience disabled turns have no deadline, so the follower waits as long as the leader takes.
+     */
+    private CompletableFuture<Optional<ResponseCache.CachedAnswer>> followerAnswer(Turn turn,
+                                                                                   QuestionCoalescer.Flight flight) {
+        if (!resilience.enabled()) {
+            return flight.answer().copy();
+        }
+        long remaining = resilience.turnTimeout().toNanos() - (System.nanoTime() - turn.startedNanos());
+        return flight.answer().copy().orTimeout(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+    }
+
+    private static Content message(String role, String text) {
+        return Content.builder().role(role).parts(List.of(Part.fromText(text))).build();
+    }
+
+    private UserResponse completeTurn(Turn turn, String answer, TokenUsageCollector usage) {
+        metrics.recordExchange(turn.question(), answer);
+
+        TokenUsage tokenUsage = usage.total();
+        metrics.recordTokens(tokenUsage);
+        long sessionTokens = turn.session().addTokens(tokenUsage.totalTokens());
+        contextCompactor.turnCompleted(turn.session(), usage.lastPromptTokens());
 
-        String answer = answerBuilder.toString();
-        
         // Store agent response in conversation history
-        leadManagementService.addConversationMessage(sessionId, "Agent: " + answer);
+        metrics.phase(AgentMetrics.PHASE_HISTORY).observe(() ->
+            leadManagementService.addConversationMessage(turn.sessionId(), "Agent: " + answer));
 
-        // Detect interest signals and determine if lead capture is needed
-        boolean requiresLeadCapture = detectInterestSignal(request.question(), answer);
-        
-        // Determine conversation state based on content
-        ConversationState conversationState = determineConversationState(request.question(), answer);
+        // Single scan for interest signals and conversation state
+        return metrics.phase(AgentMetrics.PHASE_INTENT).observe(() -> {
+            IntentMatcher.Match match = intentMatcher.match(turn.question(), answer);
+            boolean requiresLeadCapture = detectInterestSignal(match);
+            ConversationState conversationState = determineConversationState(match);
+            // Answers that lead into lead capture depend on the visitor, not just the question
+            if (turn.cacheable() && !requiresLeadCapture) {
+                responseCache.put(turn.question(), answer, conversationState, requiresLeadCapture,
+                    turn.knowledgeBaseVersion());
+            }
 
-        return new UserResponse(userId, sessionId, answer, conversationState, requiresLeadCapture);
+            return new UserResponse(turn.userId(), turn.sessionId(), answer, conversationState, requiresLeadCapture,
+                tokenUsage, sessionTokens);
+        });
     }
 
+    private record Turn(UUID userId, UUID sessionId, String question, SessionHandle session, Content userMessage,
+                        boolean cacheable, long knowledgeBaseVersion, long startedNanos) {}
+
     /**
-     * Detect if customer is showing CLEAR PURCHASE INTENT and lead capture should be initiated.
-     * Only triggers on explicit purchase/subscription intent, not general information requests.
+     * Collects the final answer of a streamed turn and decides which text to forward.
+     * In SSE mode the runner emits partial events followed by an aggregated final event
+     * repeating the same text, so the final event is only forwarded when nothing was
+     * streamed for it (e.g. tool call results).
      */
-    private boolean detectInterestSignal(String userQuestion, String agentAnswer) {
-        String userLower = userQuestion.toLowerCase(Locale.ROOT);
-        String agentLower = agentAnswer.toLowerCase(Locale.ROOT);
-        String combined = (userQuestion + " " + agentAnswer).toLowerCase(Locale.ROOT);
-        
-        // STRONG purchase intent signals - only these should trigger lead capture
-        String[] strongPurchaseIntent = {
-            "i want to sign up",
-            "i want to apply",
-            "i want to purchase",
-            "i want to buy",
-            "i want to subscribe",
-            "i'd like to sign up",
-            "i'd like to apply",
-            "i'd like to purchase",
-            "i'd like to buy",
-            "i'd like to subscribe",
-            "i would like to sign up",
-            "i would like to apply",
-            "i would like to purchase",
-            "i would like to buy",
-            "i would like to subscribe",
-            "sign me up",
-            "i'm ready to apply",
-            "i'm ready to purchase",
-            "i'm ready to buy",
-            "i'm ready to sign up",
-            "i'm ready to subscribe",
-            "let's proceed",
-            "let's move forward",
-            "i'll take it",
-            "i'll take this",
-            "i want this policy",
-            "i want this insurance",
-            "how do i apply",
-            "how do i sign up",
-            "how do i purchase",
-            "how do i buy",
-            "how can i apply",
-            "how can i sign up",
-            "how can i purchase",
-            "how can i buy",
-            "i'm ready",
-            "ready to apply",
-            "ready to purchase",
-            "ready to buy",
-            "ready to sign up"
-        };
-        
-        // Check for strong purchase intent in user's question
-        for (String intent : strongPurchaseIntent) {
-            if (userLower.contains(intent)) {
-                return true;
+    private static final class StreamAccumulator {
+
+        private final StringBuilder answerBuilder = new StringBuilder();
+        private boolean streamedPartial;
+
+        List<String> accept(Event event) {
+            String content = event.stringifyContent();
+            if (content == null || content.isBlank()) {
+                return List.of();
             }
-        }
-        
-        // Check if agent is explicitly asking for contact information (only if user showed purchase intent first)
-        // This is a secondary check - agent should only ask after user shows intent
-        String[] leadCaptureKeywords = {
-            "could i get your name",
-            "can i get your name",
-            "may i have your name",
-            "could i get your phone",
-            "can i get your phone",
-            "may i have your phone",
-            "could i get your email",
-            "can i get your email",
-            "may i have your email",
-            "contact information",
-            "phone number",
-            "email address"
-        };
-        
-        // Only trigger if agent is asking AND user showed some purchase intent
-        boolean agentAsking = false;
-        for (String keyword : leadCaptureKeywords) {
-            if (agentLower.contains(keyword)) {
-                agentAsking = true;
-                break;
+            if (event.partial().orElse(false)) {
+                streamedPartial = true;
+                return List.of(content);
             }
+            answerBuilder.append(content);
+            boolean alreadyStreamed = streamedPartial;
+            streamedPartial = false;
+            return alreadyStreamed ? List.of() : List.of(content);
         }
-        
-        // If agent is asking, check if user showed any purchase intent
-        if (agentAsking) {
-            String[] anyPurchaseHint = {
-                "sign up", "apply", "purchase", "buy", "subscribe", "get started", 
-                "proceed", "move forward", "ready", "interested in getting"
-            };
-            for (String hint : anyPurchaseHint) {
-                if (userLower.contains(hint)) {
-                    return true;
-                }
-            }
+
+        String answer() {
+            return answerBuilder.toString();
+        }
+
+        /**
+         * Whether any text has been forwarded yet
+         */
+        boolean started() {
+            return streamedPartial || !answerBuilder.isEmpty();
         }
-        
-        return false;
+    }
+
+    /**
+     * Detect if customer is showing CLEAR PURCHASE INTENT and lead capture should be initiated.
+     * Only triggers on explicit purchase/subscription intent, not general information requests.
+     */
+    static boolean detectInterestSignal(IntentMatcher.Match match) {
+        // Check for strong purchase intent in user's question
+        if (match.inQuestion(IntentCategory.STRONG_PURCHASE_INTENT)) {
+            return true;
+        }
+
+        // Agent asking for contact information only counts if the user showed some purchase intent
+        return match.inAnswer(IntentCategory.LEAD_CAPTURE_REQUEST)
+            && match.inQuestion(IntentCategory.PURCHASE_HINT);
     }
 
     /**
      * Determine conversation state based on content
      */
-    private ConversationState determineConversationState(String userQuestion, String agentAnswer) {
-        String combined = (userQuestion + " " + agentAnswer).toLowerCase(Locale.ROOT);
-        
-        // Check for greeting patterns
-        if (combined.contains("hello") || combined.contains("hi") || 
-            combined.contains("greeting") || combined.contains("welcome")) {
+    static ConversationState determineConversationState(IntentMatcher.Match match) {
+        if (match.inConversation(IntentCategory.GREETING)) {
             return ConversationState.GREETING;
         }
-        
-        // Check for needs assessment
-        if (combined.contains("need") || combined.contains("looking for") ||
-            combined.contains("situation") || combined.contains("family") ||
-            combined.contains("dependents") || combined.contains("budget")) {
+        if (match.inConversation(IntentCategory.NEEDS_ASSESSMENT)) {
             return ConversationState.NEEDS_ASSESSMENT;
         }
-        
-        // Check for product recommendation
-        if (combined.contains("term life") || combined.contains("whole life") ||
-            combined.contains("universal life") || combined.contains("variable life") ||
-            combined.contains("recommend") || combined.contains("suitable") ||
-            combined.contains("product") || combined.contains("policy")) {
+        if (match.inConversation(IntentCategory.PRODUCT_RECOMMENDATION)) {
             return ConversationState.PRODUCT_RECOMMENDATION;
         }
-        
-        // Check for lead capture
-        if (combined.contains("name") || combined.contains("phone") ||
-            combined.contains("email") || combined.contains("contact")) {
+        if (match.inConversation(IntentCategory.CONTACT_DETAILS)) {
             return ConversationState.LEAD_CAPTURE;
         }
-        
+
         // Default to needs assessment if unclear
         return ConversationState.NEEDS_ASSESSMENT;
     }
 }
-
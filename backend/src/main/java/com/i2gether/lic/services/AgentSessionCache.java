@@ -0,0 +1,132 @@
+package com.i2gether.lic.services;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.google.adk.events.Event;
+import com.google.adk.runner.Runner;
+import com.google.adk.sessions.Session;
+import com.i2gether.lic.models.SessionCacheProperties;
+import com.i2gether.lic.models.SessionCacheStats;
+import com.i2gether.lic.models.SessionKey;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded cache of live ADK sessions (W-TinyLFU, size and idle-time bound).
+ * Evicted sessions are also deleted from the runner's session service so the
+ * runner does not keep its own copy of every session forever; with a
+ * {@link DurableSessionService} they are only released from memory and pick up
+ * where they left off when the visitor returns.
+ */
+@Component
+public class AgentSessionCache implements MeterBinder {
+
+    private final Runner runner;
+    private final Cache<SessionKey, SessionHandle> sessions;
+
+    AgentSessionCache(Runner runner, SessionCacheProperties properties) {
+        this.runner = runner;
+        this.sessions = Caffeine.newBuilder()
+            .maximumSize(properties.maximumSize())
+            .expireAfterAccess(properties.expireAfterAccess())
+            .removalListener(this::onRemoval)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Get the live session for the key; a session the runner's session service still has (e.g. from
+     * before a restart) is resumed, otherwise it is created there on first use
+     */
+    public SessionHandle getOrCreate(SessionKey key) {
+        return sessions.get(key, k -> {
+            String userId = k.userId().toString();
+            String sessionId = k.sessionId().toString();
+            Session stored = runner.sessionService()
+                .getSession(runner.appName(), userId, sessionId, Optional.empty())
+                .blockingGet();
+            if (stored == null) {
+                runner.sessionService().createSession(runner.appName(), userId, null, sessionId).blockingGet();
+                return new SessionHandle(k);
+            }
+            return resumed(k, List.copyOf(stored.events()));
+        });
+    }
+
+    /**
+     * Drop a session from the cache (and therefore from the runner)
+     */
+    public void invalidate(SessionKey key) {
+        sessions.invalidate(key);
+    }
+
+    public long size() {
+        return sessions.estimatedSize();
+    }
+
+    public SessionCacheStats stats() {
+        CacheStats stats = sessions.stats();
+        return new SessionCacheStats(
+            sessions.estimatedSize(),
+            stats.hitCount(),
+            stats.missCount(),
+            stats.hitRate(),
+            stats.evictionCount()
+        );
+    }
+
+    /**
+     * Size (active sessions), hit/miss and eviction meters under cache=agent.sessions
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, sessions, "agent.sessions");
+    }
+
+    private void onRemoval(SessionKey key, SessionHandle session, RemovalCause cause) {
+        if (key == null || cause == RemovalCause.REPLACED) {
+            return;
+        }
+        if (runner.sessionService() instanceof DurableSessionService durable) {
+            durable.release(runner.appName(), key.userId().toString(), key.sessionId().toString());
+            return;
+        }
+        runner.sessionService()
+            .deleteSession(runner.appName(), key.userId().toString(), key.sessionId().toString())
+            .onErrorComplete()
+            .subscribe();
+    }
+
+    /**
+     * Handle of a stored session, with its turn and token counts recovered from its events
+     */
+    static SessionHandle resumed(SessionKey key, List<Event> events) {
+        TokenUsageCollector usage = new TokenUsageCollector();
+        int turns = 0;
+        for (Event event : events) {
+            usage.accept(event);
+            // The compaction summary is stored as a user event but isn't a turn
+            if ("user".equals(event.author()) && !isSummary(event)) {
+                turns++;
+            }
+        }
+        SessionHandle handle = new SessionHandle(key);
+        handle.addTokens(usage.total().totalTokens());
+        handle.resume(turns);
+        return handle;
+    }
+
+    private static boolean isSummary(Event event) {
+        String text = event.stringifyContent();
+        return text != null && text.startsWith(SessionContextCompactor.SUMMARY_PREFIX);
+    }
+}
@@ -0,0 +1,160 @@
+package com.i2gether.lic.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable in-memory inverted index with Okapi BM25 ranking.
+ *
+ * Documents are analyzed separately ({@link #analyze(String)}) so callers that update a few
+ * documents at a time can keep the analyzed form and only re-tokenize what changed.
+ *
+ * @param <K> document key type
+ */
+public final class Bm25Index<K> {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_WEIGHT = 0.5; // Prefix expansions count less than exact terms
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final List<K> keys;
+    private final int[] documentLengths;
+    private final double averageDocumentLength;
+    private final Map<String, int[][]> postings; // term -> {documentIndexes, termFrequencies}
+    private final String[] sortedTerms; // For prefix lookups
+
+    private Bm25Index(List<K> keys, int[] documentLengths, Map<String, int[][]> postings) {
+        this.keys = keys;
+        this.documentLengths = documentLengths;
+        this.postings = postings;
+        this.sortedTerms = postings.keySet().toArray(String[]::new);
+        Arrays.sort(sortedTerms);
+        long total = 0;
+        for (int length : documentLengths) {
+            total += length;
+        }
+        this.averageDocumentLength = documentLengths.length == 0 ? 0 : (double) total / documentLengths.length;
+    }
+
+    public static <K> Bm25Index<K> build(Map<K, String> documents) {
+        Map<K, AnalyzedDocument> analyzed = new LinkedHashMap<>();
+        documents.forEach((key, text) -> analyzed.put(key, analyze(text)));
+        return fromAnalyzed(analyzed);
+    }
+
+    /**
+     * Tokenize a document once; the result can be reused across index rebuilds
+     */
+    public static AnalyzedDocument analyze(String text) {
+        List<String> tokens = TextTokenizer.tokenize(text);
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        return new AnalyzedDocument(Map.copyOf(frequencies), tokens.size());
+    }
+
+    public static <K> Bm25Index<K> fromAnalyzed(Map<K, AnalyzedDocument> documents) {
+        List<K> keys = new ArrayList<>(documents.size());
+        int[] lengths = new int[documents.size()];
+        Map<String, Map<Integer, Integer>> frequencies = new HashMap<>();
+
+        int index = 0;
+        for (Map.Entry<K, AnalyzedDocument> document : documents.entrySet()) {
+            keys.add(document.getKey());
+            lengths[index] = document.getValue().length();
+            int documentIndex = index;
+            document.getValue().termFrequencies().forEach((term, tf) ->
+                frequencies.computeIfAbsent(term, t -> new HashMap<>()).put(documentIndex, tf));
+            index++;
+        }
+
+        Map<String, int[][]> postings = new HashMap<>(frequencies.size() * 2);
+        frequencies.forEach((term, byDocument) -> {
+            int[] documentIndexes = new int[byDocument.size()];
+            int[] termFrequencies = new int[byDocument.size()];
+            int i = 0;
+            for (Map.Entry<Integer, Integer> entry : byDocument.entrySet()) {
+                documentIndexes[i] = entry.getKey();
+                termFrequencies[i] = entry.getValue();
+                i++;
+            }
+            postings.put(term, new int[][] {documentIndexes, termFrequencies});
+        });
+
+        return new Bm25Index<>(List.copyOf(keys), lengths, postings);
+    }
+
+    /**
+     * Rank documents against the query, best first
+     */
+    public List<ScoredDocument<K>> search(String query, int limit) {
+        return search(query, 0, limit, false).results();
+    }
+
+    /**
+     * Rank documents against the query and return one page of results.
+     * With prefix matching, each query term also matches longer indexed terms starting with it.
+     */
+    public Page<K> search(String query, int offset, int limit, boolean prefix) {
+        double[] scores = new double[keys.size()];
+        for (String term : TextTokenizer.tokenize(query)) {
+            score(scores, term, 1.0);
+            if (prefix) {
+                int expansions = 0;
+                int from = Arrays.binarySearch(sortedTerms, term);
+                for (int i = from < 0 ? -from - 1 : from + 1;
+                     i < sortedTerms.length && sortedTerms[i].startsWith(term) && expansions < MAX_PREFIX_EXPANSIONS;
+                     i++, expansions++) {
+                    score(scores, sortedTerms[i], PREFIX_WEIGHT);
+                }
+            }
+        }
+
+        List<ScoredDocument<K>> results = new ArrayList<>();
+        for (int document = 0; document < scores.length; document++) {
+            if (scores[document] > 0) {
+                results.add(new ScoredDocument<>(keys.get(document), scores[document]));
+            }
+        }
+        results.sort(Comparator.comparingDouble(ScoredDocument<K>::score).reversed());
+
+        int from = Math.min(Math.max(offset, 0), results.size());
+        int to = (int) Math.min((long) from + Math.max(limit, 0), results.size());
+        return new Page<>(results.size(), List.copyOf(results.subList(from, to)));
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    private void score(double[] scores, String term, double weight) {
+        int[][] posting = postings.get(term);
+        if (posting == null) {
+            return;
+        }
+        double idf = idf(posting[0].length);
+        for (int i = 0; i < posting[0].length; i++) {
+            int document = posting[0][i];
+            int tf = posting[1][i];
+            double norm = K1 * (1 - B + B * documentLengths[document] / averageDocumentLength);
+            scores[document] += weight * idf * (tf * (K1 + 1)) / (tf + norm);
+        }
+    }
+
+    private double idf(int documentFrequency) {
+        return Math.log(1 + (keys.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    public record AnalyzedDocument(Map<String, Integer> termFrequencies, int length) {}
+
+    public record ScoredDocument<K>(K key, double score) {}
+
+    public record Page<K>(int total, List<ScoredDocument<K>> results) {}
+}
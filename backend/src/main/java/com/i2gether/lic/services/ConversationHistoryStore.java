@@ -0,0 +1,125 @@
+package com.i2gether.lic.services;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.i2gether.lic.models.ConversationHistoryProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Per-session conversation history, bounded by message count and UTF-8 size.
+ *
+ * Each session holds an immutable {@link Transcript} behind an AtomicReference; appends
+ * publish a new transcript with compare-and-set, so concurrent turns on the same session
+ * never lose or corrupt messages and readers get a consistent snapshot without copying.
+ * Idle sessions expire after the configured TTL.
+ */
+@Component
+public class ConversationHistoryStore implements MeterBinder {
+
+    private final int maxMessages;
+    private final long maxBytes;
+    private final Cache<UUID, AtomicReference<Transcript>> sessions;
+
+    ConversationHistoryStore(ConversationHistoryProperties properties) {
+        this.maxMessages = properties.maxMessages();
+        this.maxBytes = properties.maxBytes();
+        this.sessions = Caffeine.newBuilder()
+            .maximumSize(properties.maxSessions())
+            .expireAfterAccess(properties.idleTtl())
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Append a message to the session, dropping the oldest messages once a bound is exceeded
+     */
+    public void append(UUID sessionId, String message) {
+        sessions.get(sessionId, k -> new AtomicReference<>(Transcript.EMPTY))
+            .updateAndGet(transcript -> transcript.append(message, maxMessages, maxBytes));
+    }
+
+    /**
+     * Immutable snapshot of the session's messages, oldest first
+     */
+    public List<String> snapshot(UUID sessionId) {
+        AtomicReference<Transcript> transcript = sessions.getIfPresent(sessionId);
+        return transcript == null ? List.of() : transcript.get().messages();
+    }
+
+    public void remove(UUID sessionId) {
+        sessions.invalidate(sessionId);
+    }
+
+    /**
+     * Size, hit/miss and eviction meters under cache=conversation.history
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, sessions, "conversation.history");
+    }
+
+    public long sessionCount() {
+        return sessions.estimatedSize();
+    }
+
+    /**
+     * Immutable message window. The backing array is never written after publication,
+     * which is what makes {@link #messages()} safe to hand out without copying.
+     */
+    record Transcript(String[] window, long bytes) {
+
+        static final Transcript EMPTY = new Transcript(new String[0], 0);
+
+        Transcript append(String message, int maxMessages, long maxBytes) {
+            long messageBytes = utf8Length(message);
+
+            // Drop from the head until the new message fits both bounds
+            int drop = Math.max(0, window.length + 1 - maxMessages);
+            long remainingBytes = bytes;
+            for (int i = 0; i < drop; i++) {
+                remainingBytes -= utf8Length(window[i]);
+            }
+            while (drop < window.length && remainingBytes + messageBytes > maxBytes) {
+                remainingBytes -= utf8Length(window[drop]);
+                drop++;
+            }
+
+            String[] next = Arrays.copyOfRange(window, drop, window.length + 1);
+            next[next.length - 1] = message;
+            return new Transcript(next, remainingBytes + messageBytes);
+        }
+
+        List<String> messages() {
+            return Collections.unmodifiableList(Arrays.asList(window));
+        }
+
+        private static long utf8Length(String s) {
+            long length = 0;
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c < 0x80) {
+                    length++;
+                } else if (c < 0x800) {
+                    length += 2;
+                } else if (Character.isHighSurrogate(c)) {
+                    length += 4;
+                    i++;
+                } else {
+                    length += 3;
+                }
+            }
+            return length;
+        }
+    }
+}
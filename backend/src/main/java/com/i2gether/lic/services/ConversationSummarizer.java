@@ -0,0 +1,92 @@
+package com.i2gether.lic.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.google.adk.agents.LlmAgent;
+import com.google.adk.events.Event;
+import com.google.adk.models.BaseLlm;
+import com.google.adk.models.LlmRegistry;
+import com.google.adk.runner.InMemoryRunner;
+import com.google.adk.runner.Runner;
+import com.google.genai.types.Content;
+import com.google.genai.types.Part;
+import com.i2gether.lic.llm.ResilientLlm;
+import com.i2gether.lic.models.ContextBudgetProperties;
+import com.i2gether.lic.models.ResilienceProperties;
+
+import io.reactivex.rxjava3.core.Scheduler;
+
+/**
+ * Condenses conversation history into a summary with a dedicated, tool-less agent.
+ * It runs on its own runner so summary calls never show up in customer sessions. Its model calls get
+ * the same timeouts, retries and circuit breaking as the agent's, and a whole summary is bounded by
+ * {@code summary-timeout}, so a hung model can't hold up compaction of the session for good.
+ */
+@Component
+public class ConversationSummarizer {
+
+    private static final String USER_ID = "compaction";
+
+    private final Runner runner;
+    private final ContextBudgetProperties properties;
+    private final Scheduler agentScheduler;
+
+    ConversationSummarizer(ContextBudgetProperties properties, ResilientLlm agentModel,
+                           ResilienceProperties resilienceProperties, Scheduler agentScheduler) {
+        this.properties = properties;
+        this.agentScheduler = agentScheduler;
+        // The agent's model shares its circuit breaker; another model gets its own
+        BaseLlm model = properties.summaryModel() == null || properties.summaryModel().equals(agentModel.model())
+            ? agentModel
+            : new ResilientLlm(LlmRegistry.getLlm(properties.summaryModel()), resilienceProperties, agentScheduler);
+        LlmAgent agent = LlmAgent.builder()
+            .name("conversation_summarizer")
+            .description("Summarizes earlier turns of a sales conversation")
+            .model(model)
+            .instruction(prompt(properties))
+            .build();
+        this.runner = new InMemoryRunner(agent);
+    }
+
+    /**
+     * Summarize a rendered conversation; blocks until the model has answered
+     *
+     * @throws RuntimeException if the model fails or takes longer than the summary timeout
+     */
+    public String summarize(String conversation) {
+        String sessionId = UUID.randomUUID().toString();
+        runner.sessionService().createSession(runner.appName(), USER_ID, null, sessionId).blockingGet();
+        try {
+            // Bounds the whole run, not just the wait for each event
+            List<Event> events = runner.runAsync(USER_ID, sessionId, Content.fromParts(Part.fromText(conversation)))
+                .toList()
+                .timeout(properties.summaryTimeout().toMillis(), TimeUnit.MILLISECONDS, agentScheduler)
+                .blockingGet();
+            StringBuilder summary = new StringBuilder();
+            for (Event event : events) {
+                String content = event.stringifyContent();
+                if (content != null && !content.isBlank()) {
+                    summary.append(content);
+                }
+            }
+            return summary.toString().strip();
+        } finally {
+            runner.sessionService().deleteSession(runner.appName(), USER_ID, sessionId).blockingAwait();
+        }
+    }
+
+    private static String prompt(ContextBudgetProperties properties) {
+        try {
+            return properties.summaryPrompt().getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read summary prompt " + properties.summaryPrompt(), e);
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.i2gether.lic.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.adk.events.Event;
+import com.google.adk.sessions.BaseSessionService;
+import com.google.adk.sessions.GetSessionConfig;
+import com.google.adk.sessions.ListEventsResponse;
+import com.google.adk.sessions.ListSessionsResponse;
+import com.google.adk.sessions.Session;
+import com.i2gether.lic.models.SessionStoreProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * ADK session service that keeps every session in a JSON-lines file and only recent ones in memory.
+ *
+ * A session's file starts with a header (app, user, initial state) followed by one line per event,
+ * appended as the event is added, so the file is always the full session and a restart or deploy
+ * loses nothing. The most recently used sessions are held in memory (size bound); a
+ * session that dropped out is read back from its file on its next turn. State deltas of events are
+ * replayed on load; app: and user: state is kept per session like any other key.
+ *
+ * Files are named by app, user and session ID, so two users that present the same session ID get
+ * separate sessions, as with the in-memory session service. Files from before that, named by
+ * session ID alone, are renamed when their session is next used.
+ */
+public class DurableSessionService implements BaseSessionService, MeterBinder, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DurableSessionService.class);
+    private static final String SUFFIX = ".jsonl";
+    private static final String TEMP_PREFIX = "temp:";
+    private static final char KEY_SEPARATOR = '~'; // Encoded by URLEncoder, so never part of a key segment
+
+    private final Path directory;
+    private final JsonMapper jsonMapper;
+    private final Cache<String, Session> hot;
+    private final Disposable sweeper;
+    private final long retentionMillis;
+
+    public DurableSessionService(SessionStoreProperties properties, JsonMapper jsonMapper, Scheduler scheduler)
+            throws IOException {
+        this.directory = properties.directory();
+        this.jsonMapper = jsonMapper;
+        this.retentionMillis = properties.retention().toMillis();
+        this.hot = Caffeine.newBuilder()
+            .maximumSize(properties.hotSessions())
+            .recordStats()
+            .build();
+        Files.createDirectories(directory);
+        this.sweeper = scheduler.schedulePeriodicallyDirect(this::deleteExpired, 0, 1, TimeUnit.HOURS);
+    }
+
+    @Override
+    public Single<Session> createSession(String appName, String userId, @Nullable ConcurrentMap<String, Object> state,
+                                         @Nullable String sessionId) {
+        return Single.fromCallable(() -> {
+            String id = sessionId != null && !sessionId.isBlank() ? sessionId : UUID.randomUUID().toString();
+            ConcurrentMap<String, Object> initialState = state != null ? new ConcurrentHashMap<>(state) : new ConcurrentHashMap<>();
+            Instant now = Instant.now();
+
+            // Written to a temporary file first, so re-creating a session replaces it in one step
+            writeAtomically(file(key(appName, userId, id)),
+                jsonMapper.writeValueAsString(new Header(appName, userId, initialState)) + "\n");
+
+            Session session = Session.builder(id)
+                .appName(appName)
+                .userId(userId)
+                .state(initialState)
+                .events(Collections.synchronizedList(new ArrayList<>()))
+                .lastUpdateTime(now)
+                .build();
+            hot.put(key(appName, userId, id), session);
+            return session;
+        });
+    }
+
+    @Override
+    public Maybe<Session> getSession(String appName, String userId, String sessionId, Optional<GetSessionConfig> config) {
+        return Maybe.fromCallable(() -> {
+            Session session = hot.get(key(appName, userId, sessionId), key -> load(key, appName, userId, sessionId));
+            if (session == null) {
+                return null;
+            }
+            return config.isPresent() ? filtered(session, config.get()) : session;
+        });
+    }
+
+    @Override
+    public Single<ListSessionsResponse> listSessions(String appName, String userId) {
+        return Single.fromCallable(() -> {
+            List<Session> sessions = new ArrayList<>();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+                for (Path file : files) {
+                    Header header = readHeader(file);
+                    if (header != null && header.appName().equals(appName) && header.userId().equals(userId)) {
+                        sessions.add(Session.builder(sessionId(file))
+                            .appName(appName)
+                            .userId(userId)
+                            .state(new ConcurrentHashMap<>(header.state()))
+                            .lastUpdateTime(Files.getLastModifiedTime(file).toInstant())
+                            .build());
+                    }
+                }
+            }
+            return ListSessionsResponse.builder().sessions(sessions).build();
+        });
+    }
+
+    @Override
+    public Single<ListEventsResponse> listEvents(String appName, String userId, String sessionId) {
+        return getSession(appName, userId, sessionId, Optional.empty())
+            .map(session -> ListEventsResponse.builder().events(List.copyOf(session.events())).build())
+            .defaultIfEmpty(ListEventsResponse.builder().events(List.of()).build());
+    }
+
+    @Override
+    public Completable deleteSession(String appName, String userId, String sessionId) {
+        return Completable.fromAction(() -> {
+            String key = key(appName, userId, sessionId);
+            hot.invalidate(key);
+            Files.deleteIfExists(file(key));
+        });
+    }
+
+    @Override
+    public Single<Event> appendEvent(Session session, Event event) {
+        return BaseSessionService.super.appendEvent(session, event).map(appended -> {
+            if (appended.partial().orElse(false)) {
+                return appended;
+            }
+            String key = key(session.appName(), session.userId(), session.id());
+            try {
+                Files.writeString(file(key), appended.toJson() + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            } catch (NoSuchFileException e) {
+                // Swept while still in use (idle past the retention, then resumed): write it again in full
+                writeAtomically(file(key), content(session, session.state(), List.copyOf(session.events())));
+            }
+            session.lastUpdateTime(Instant.ofEpochMilli(appended.timestamp()));
+            // The caller's copy got the event; a different in-memory copy would be stale now
+            Session current = hot.getIfPresent(key);
+            if (current != null && current != session) {
+                hot.invalidate(key);
+            }
+            return appended;
+        });
+    }
+
+    /**
+     * Replace the session's events with the given ones, keeping its current state. The new file is
+     * written in full next to the old one and renamed over it, so a crash leaves either the old or
+     * the new session, never a partly written one.
+     */
+    public Session replaceEvents(Session session, List<Event> events) {
+        ConcurrentMap<String, Object> state = new ConcurrentHashMap<>(session.state());
+        try {
+            writeAtomically(file(key(session.appName(), session.userId(), session.id())), content(session, state, events));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replace session " + session.id(), e);
+        }
+
+        Session replaced = Session.builder(session.id())
+            .appName(session.appName())
+            .userId(session.userId())
+            .state(state)
+            .events(Collections.synchronizedList(new ArrayList<>(events)))
+            .lastUpdateTime(Instant.now())
+            .build();
+        hot.put(key(session.appName(), session.userId(), session.id()), replaced);
+        return replaced;
+    }
+
+    /**
+     * Drop a session from memory; it stays on disk and is reloaded when used again
+     */
+    public void release(String appName, String userId, String sessionId) {
+        hot.invalidate(key(appName, userId, sessionId));
+    }
+
+    /**
+     * Hot set meters under cache=adk.sessions; misses are sessions read back from disk
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, hot, "adk.sessions");
+    }
+
+    @Override
+    public void close() {
+        sweeper.dispose();
+    }
+
+    /**
+     * Read a session from its file; only a torn last line is dropped (and cut off, so the next event
+     * isn't appended onto it), an unreadable line before the end fails the load
+     */
+    private @Nullable Session load(String key, String appName, String userId, String sessionId) {
+        Path file = file(key);
+        try {
+            Path legacy = directory.resolve(encode(sessionId) + SUFFIX);
+            if (!Files.exists(file) && Files.exists(legacy)) {
+                Header header = readHeader(legacy);
+                if (header == null || !header.appName().equals(appName) || !header.userId().equals(userId)) {
+                    return null;
+                }
+                Files.move(legacy, file, StandardCopyOption.ATOMIC_MOVE);
+            }
+
+            Header[] header = new Header[1];
+            ConcurrentMap<String, Object> state = new ConcurrentHashMap<>();
+            List<Event> events = Collections.synchronizedList(new ArrayList<>());
+            long validLength = JsonLines.replay(file, line -> {
+                try {
+                    if (header[0] == null) {
+                        header[0] = jsonMapper.readValue(line, Header.class);
+                        state.putAll(header[0].state());
+                    } else {
+                        Event event = Event.fromJson(line);
+                        applyStateDelta(state, event);
+                        events.add(event);
+                    }
+                    return true;
+                } catch (RuntimeException e) {
+                    return false;
+                }
+            });
+            if (header[0] == null) {
+                return null;
+            }
+            if (Files.size(file) > validLength) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(validLength);
+                }
+            }
+            return Session.builder(sessionId)
+                .appName(header[0].appName())
+                .userId(header[0].userId())
+                .state(state)
+                .events(events)
+                .lastUpdateTime(Files.getLastModifiedTime(file).toInstant())
+                .build();
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read session " + sessionId, e);
+        }
+    }
+
+    private String content(Session session, Map<String, Object> state, List<Event> events) {
+        StringBuilder content = new StringBuilder()
+            .append(jsonMapper.writeValueAsString(new Header(session.appName(), session.userId(), state))).append('\n');
+        for (Event event : events) {
+            content.append(event.toJson()).append('\n');
+        }
+        return content.toString();
+    }
+
+    private static void writeAtomically(Path file, String content) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = StandardCharsets.UTF_8.encode(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void applyStateDelta(Map<String, Object> state, Event event) {
+        if (event.actions() == null || event.actions().stateDelta() == null) {
+            return;
+        }
+        event.actions().stateDelta().forEach((key, value) -> {
+            if (!key.startsWith(TEMP_PREFIX)) {
+                state.put(key, value);
+            }
+        });
+    }
+
+    private static Session filtered(Session session, GetSessionConfig config) {
+        List<Event> events = List.copyOf(session.events());
+        if (config.afterTimestamp().isPresent()) {
+            long after = config.afterTimestamp().get().toEpochMilli();
+            events = events.stream().filter(event -> event.timestamp() > after).toList();
+        }
+        if (config.numRecentEvents().isPresent()) {
+            int recent = config.numRecentEvents().get();
+            events = events.subList(Math.max(0, events.size() - recent), events.size());
+        }
+        return Session.builder(session.id())
+            .appName(session.appName())
+            .userId(session.userId())
+            .state(session.state())
+            .events(new ArrayList<>(events))
+            .lastUpdateTime(session.lastUpdateTime())
+            .build();
+    }
+
+    private @Nullable Header readHeader(Path file) {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String headerLine = reader.readLine();
+            return headerLine != null ? jsonMapper.readValue(headerLine, Header.class) : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void deleteExpired() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toMillis() < cutoff) {
+                    hot.invalidate(key(file));
+                    Files.deleteIfExists(file);
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete expired sessions in {}: {}", directory, e.toString());
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} sessions idle for longer than the retention", deleted);
+        }
+    }
+
+    private static String key(String appName, String userId, String sessionId) {
+        return encode(appName) + KEY_SEPARATOR + encode(userId) + KEY_SEPARATOR + encode(sessionId);
+    }
+
+    private static String key(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(0, name.length() - SUFFIX.length());
+    }
+
+    private static String encode(String segment) {
+        return URLEncoder.encode(segment, StandardCharsets.UTF_8);
+    }
+
+    private Path file(String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+
+    private static String sessionId(Path file) {
+        String key = key(file);
+        return URLDecoder.decode(key.substring(key.lastIndexOf(KEY_SEPARATOR) + 1), StandardCharsets.UTF_8);
+    }
+
+    private record Header(String appName, String userId, Map<String, Object> state) {}
+}
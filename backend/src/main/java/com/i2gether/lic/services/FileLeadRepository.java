@@ -0,0 +1,258 @@
+package com.i2gether.lic.services;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.i2gether.lic.models.Lead;
+import com.i2gether.lic.models.LeadStoreProperties;
+import com.i2gether.lic.models.LeadStoreProperties.Durability;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Lead repository backed by an append-only JSON-lines log with snapshot compaction.
+ *
+ * Writes are queued and a single writer thread appends them in batches, so a request never
+ * pays an fsync of its own: with {@link Durability#ASYNC} it doesn't wait at all and with
+ * {@link Durability#SYNC} it waits for the group commit of its batch. Every log entry is a
+ * full version of a lead and replay keeps the highest version, so it is an idempotent upsert.
+ * Once the log reaches the compaction threshold the current state is written to a snapshot and
+ * the log is truncated.
+ *
+ * On startup a torn last line, left by a crash mid-write, is dropped and cut off the log; an
+ * unreadable line anywhere else fails startup (see {@link JsonLines}). A batch that fails partway
+ * is cut off the log before the next batch is appended, so its partial line never ends up in the
+ * middle of the log.
+ *
+ * Entries written before leads were versioned are upgraded on replay (see {@link LegacyLeadFormat})
+ * and then compacted right away, so they are upgraded only once.
+ */
+public class FileLeadRepository implements LeadRepository, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(FileLeadRepository.class);
+    private static final String LOG_FILE = "leads.log";
+    private static final String SNAPSHOT_FILE = "leads.snapshot";
+
+    private final LeadStoreProperties properties;
+    private final JsonMapper jsonMapper;
+    private final TranscriptStore transcriptStore;
+    private final Path logPath;
+    private final Path snapshotPath;
+    private final Map<UUID, Lead> state = new ConcurrentHashMap<>(); // Latest written version of each lead
+    private final BlockingQueue<PendingWrite> queue;
+    private final FileChannel logChannel;
+    private final Thread writer;
+    private long logEntries;
+    private int upgradedEntries;
+    private long logSize; // Length of the log up to the end of its last complete entry
+    private boolean logTorn; // A failed batch may have left a partial line past logSize
+    private volatile boolean running = true;
+
+    public FileLeadRepository(LeadStoreProperties properties, JsonMapper jsonMapper, TranscriptStore transcriptStore)
+            throws IOException {
+        this.properties = properties;
+        this.jsonMapper = jsonMapper;
+        this.transcriptStore = transcriptStore;
+        this.logPath = properties.directory().resolve(LOG_FILE);
+        this.snapshotPath = properties.directory().resolve(SNAPSHOT_FILE);
+        this.queue = new LinkedBlockingQueue<>(properties.queueCapacity());
+
+        Files.createDirectories(properties.directory());
+        readLeads(snapshotPath);
+        Replay replay = readLeads(logPath);
+        this.logEntries = replay.entries();
+        this.logSize = replay.validLength();
+        log.info("Loaded {} leads from {}", state.size(), properties.directory());
+
+        this.logChannel = FileChannel.open(logPath,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (logChannel.size() > logSize) {
+            logChannel.truncate(logSize);
+        }
+        if (upgradedEntries > 0) {
+            log.info("Upgraded {} lead entries from the unversioned format", upgradedEntries);
+            compact();
+        }
+        this.writer = Thread.ofPlatform().name("lead-writer").start(this::writeLoop);
+    }
+
+    @Override
+    public void save(Lead lead) {
+        PendingWrite write = new PendingWrite(lead, new CompletableFuture<>());
+        try {
+            // Blocks only when the writer is a full queue behind, which pushes back on callers
+            queue.put(write);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing lead " + lead.leadId(), e);
+        }
+        if (properties.durability() == Durability.SYNC) {
+            try {
+                write.written().join();
+            } catch (CompletionException e) {
+                throw new IllegalStateException("Could not persist lead " + lead.leadId(), e.getCause());
+            }
+        }
+    }
+
+    @Override
+    public Collection<Lead> findAll() {
+        return List.copyOf(state.values());
+    }
+
+    /**
+     * Drain the queue, write what is left and close the log
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logChannel.close();
+    }
+
+    private void writeLoop() {
+        List<PendingWrite> batch = new ArrayList<>(properties.batchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(properties.flushInterval().toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.batchSize() - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                // Keep draining; close() stops the loop through the running flag
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to persist {} leads", batch.size(), e);
+                batch.forEach(write -> write.written().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingWrite> batch) throws IOException {
+        if (logTorn) {
+            logChannel.truncate(logSize);
+            logTorn = false;
+        }
+        StringBuilder lines = new StringBuilder();
+        for (PendingWrite write : batch) {
+            lines.append(jsonMapper.writeValueAsString(write.lead())).append('\n');
+        }
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(lines.toString());
+        try {
+            while (buffer.hasRemaining()) {
+                logChannel.write(buffer);
+            }
+            if (properties.durability() != Durability.NONE) {
+                logChannel.force(false);
+            }
+        } catch (IOException | RuntimeException e) {
+            logTorn = true;
+            throw e;
+        }
+        logSize += buffer.limit();
+
+        for (PendingWrite write : batch) {
+            keepLatest(write.lead());
+            write.written().complete(null);
+        }
+        logEntries += batch.size();
+        if (logEntries >= properties.compactionThreshold()) {
+            compact();
+        }
+    }
+
+    /**
+     * Write the current state as a snapshot and start a fresh log. A crash between the two
+     * steps only leaves log entries that replay onto the snapshot as no-ops.
+     */
+    private void compact() throws IOException {
+        Path temporary = snapshotPath.resolveSibling(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel snapshot = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Lead lead : state.values()) {
+                ByteBuffer buffer = StandardCharsets.UTF_8.encode(jsonMapper.writeValueAsString(lead) + "\n");
+                while (buffer.hasRemaining()) {
+                    snapshot.write(buffer);
+                }
+            }
+            snapshot.force(true);
+        }
+        Files.move(temporary, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logChannel.truncate(0);
+        logChannel.force(true);
+        logSize = 0;
+        log.info("Compacted lead log into a snapshot of {} leads", state.size());
+        logEntries = 0;
+    }
+
+    private Replay readLeads(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return new Replay(0, 0);
+        }
+        long[] entries = new long[1];
+        long validLength = JsonLines.replay(file, line -> {
+            try {
+                keepLatest(readLead(line));
+                entries[0]++;
+                return true;
+            } catch (JacksonException e) {
+                return false;
+            }
+        });
+        return new Replay(entries[0], validLength);
+    }
+
+    private Lead readLead(String line) {
+        JsonNode entry = jsonMapper.readTree(line);
+        if (LegacyLeadFormat.isLegacy(entry)) {
+            entry = LegacyLeadFormat.upgrade((ObjectNode) entry, transcriptStore);
+            upgradedEntries++;
+        }
+        return jsonMapper.treeToValue(entry, Lead.class);
+    }
+
+    /**
+     * Concurrent updates may be queued out of order; the highest version of a lead wins
+     */
+    private void keepLatest(Lead lead) {
+        state.merge(lead.leadId(), lead, (stored, candidate) -> candidate.version() >= stored.version() ? candidate : stored);
+    }
+
+    private record PendingWrite(Lead lead, CompletableFuture<Void> written) {}
+
+    /**
+     * Entries read from a file and the length of the file up to the end of its last complete entry
+     */
+    private record Replay(long entries, long validLength) {}
+}
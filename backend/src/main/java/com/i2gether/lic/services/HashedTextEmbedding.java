@@ -0,0 +1,52 @@
+package com.i2gether.lic.services;
+
+import java.util.List;
+
+/**
+ * Local, model-free text embedding: unigrams and bigrams of the tokenized text are hashed into a
+ * fixed number of dimensions and the vector is L2-normalised, so the dot product of two embeddings
+ * is their cosine similarity. Good enough to match rephrasings of the same short question.
+ */
+final class HashedTextEmbedding {
+
+    static final int DIMENSIONS = 512;
+
+    private HashedTextEmbedding() {
+    }
+
+    static float[] embed(String text) {
+        float[] vector = new float[DIMENSIONS];
+        List<String> tokens = TextTokenizer.tokenize(text);
+        for (int i = 0; i < tokens.size(); i++) {
+            add(vector, tokens.get(i), 1f);
+            if (i > 0) {
+                add(vector, tokens.get(i - 1) + ' ' + tokens.get(i), 0.5f);
+            }
+        }
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= scale;
+            }
+        }
+        return vector;
+    }
+
+    static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return dot;
+    }
+
+    private static void add(float[] vector, String feature, float weight) {
+        int hash = feature.hashCode() * 0x9E3779B9; // Spread String.hashCode over the index bits
+        // The sign bit picks the direction so colliding features tend to cancel rather than add up
+        vector[(hash >>> 1) % DIMENSIONS] += hash < 0 ? -weight : weight;
+    }
+}
@@ -0,0 +1,15 @@
+package com.i2gether.lic.services;
+
+import java.util.UUID;
+
+import com.i2gether.lic.models.LeadStatus;
+
+/**
+ * A lead's status can't move to the requested status (see {@link LeadStatus#nextStatuses()})
+ */
+public class IllegalLeadTransitionException extends RuntimeException {
+
+    public IllegalLeadTransitionException(UUID leadId, LeadStatus from, LeadStatus to) {
+        super("Lead " + leadId + " can't move from " + from + " to " + to);
+    }
+}
@@ -0,0 +1,27 @@
+package com.i2gether.lic.services;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.i2gether.lic.models.Lead;
+
+/**
+ * Non-durable repository; leads live only as long as the process
+ */
+public class InMemoryLeadRepository implements LeadRepository {
+
+    private final Map<UUID, Lead> leads = new ConcurrentHashMap<>();
+
+    @Override
+    public void save(Lead lead) {
+        leads.merge(lead.leadId(), lead, (stored, candidate) -> candidate.version() >= stored.version() ? candidate : stored);
+    }
+
+    @Override
+    public Collection<Lead> findAll() {
+        return List.copyOf(leads.values());
+    }
+}
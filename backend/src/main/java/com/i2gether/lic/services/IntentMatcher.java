@@ -0,0 +1,187 @@
+package com.i2gether.lic.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.i2gether.lic.models.IntentCategory;
+import com.i2gether.lic.models.IntentProperties;
+
+/**
+ * Finds every {@link IntentCategory} mentioned in a turn with a single pass over the
+ * question and answer.
+ *
+ * The phrase lists are compiled once into a {@link PhraseAutomaton}. The turn is scanned as
+ * "question + ' ' + answer", and each match is attributed to the question, the answer, or
+ * (always) the combined text, depending on where it starts and ends.
+ */
+@Component
+public class IntentMatcher {
+
+    static final Map<IntentCategory, List<String>> DEFAULT_PHRASES = defaultPhrases();
+
+    private final PhraseAutomaton automaton;
+
+    IntentMatcher(IntentProperties properties) {
+        Map<IntentCategory, List<String>> phrases = new EnumMap<>(DEFAULT_PHRASES);
+        if (properties.phrases() != null) {
+            phrases.putAll(properties.phrases());
+        }
+        this.automaton = compile(phrases);
+    }
+
+    /**
+     * Scan a turn and report the categories found in each part of it
+     */
+    public Match match(String question, String answer) {
+        long inQuestion = 0;
+        long inAnswer = 0;
+        long inConversation = 0;
+        int questionEnd = question.length(); // Index of the separator in the combined text
+        int state = automaton.initialState();
+        int total = question.length() + 1 + answer.length();
+
+        for (int position = 0; position < total; position++) {
+            char c;
+            if (position < questionEnd) {
+                c = question.charAt(position);
+            } else if (position == questionEnd) {
+                c = ' ';
+            } else {
+                c = answer.charAt(position - questionEnd - 1);
+            }
+            state = automaton.step(state, c);
+
+            for (int phrase : automaton.matches(state)) {
+                long bit = 1L << automaton.phraseLabel(phrase);
+                inConversation |= bit;
+                int start = position - automaton.phraseLength(phrase) + 1;
+                if (position < questionEnd) {
+                    inQuestion |= bit;
+                } else if (start > questionEnd) {
+                    inAnswer |= bit;
+                }
+            }
+        }
+        return new Match(inQuestion, inAnswer, inConversation);
+    }
+
+    private static PhraseAutomaton compile(Map<IntentCategory, List<String>> phrases) {
+        List<String> all = new ArrayList<>();
+        List<Integer> labels = new ArrayList<>();
+        phrases.forEach((category, list) -> list.forEach(phrase -> {
+            all.add(phrase);
+            labels.add(category.ordinal());
+        }));
+        return PhraseAutomaton.compile(all, labels.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Categories found in a turn, as bit sets over {@link IntentCategory#ordinal()}
+     */
+    public record Match(long questionMask, long answerMask, long conversationMask) {
+
+        public boolean inQuestion(IntentCategory category) {
+            return (questionMask & (1L << category.ordinal())) != 0;
+        }
+
+        public boolean inAnswer(IntentCategory category) {
+            return (answerMask & (1L << category.ordinal())) != 0;
+        }
+
+        /**
+         * Anywhere in "question + ' ' + answer"
+         */
+        public boolean inConversation(IntentCategory category) {
+            return (conversationMask & (1L << category.ordinal())) != 0;
+        }
+    }
+
+    private static Map<IntentCategory, List<String>> defaultPhrases() {
+        Map<IntentCategory, List<String>> phrases = new EnumMap<>(IntentCategory.class);
+
+        // STRONG purchase intent signals - only these should trigger lead capture
+        phrases.put(IntentCategory.STRONG_PURCHASE_INTENT, List.of(
+            "i want to sign up",
+            "i want to apply",
+            "i want to purchase",
+            "i want to buy",
+            "i want to subscribe",
+            "i'd like to sign up",
+            "i'd like to apply",
+            "i'd like to purchase",
+            "i'd like to buy",
+            "i'd like to subscribe",
+            "i would like to sign up",
+            "i would like to apply",
+            "i would like to purchase",
+            "i would like to buy",
+            "i would like to subscribe",
+            "sign me up",
+            "i'm ready to apply",
+            "i'm ready to purchase",
+            "i'm ready to buy",
+            "i'm ready to sign up",
+            "i'm ready to subscribe",
+            "let's proceed",
+            "let's move forward",
+            "i'll take it",
+            "i'll take this",
+            "i want this policy",
+            "i want this insurance",
+            "how do i apply",
+            "how do i sign up",
+            "how do i purchase",
+            "how do i buy",
+            "how can i apply",
+            "how can i sign up",
+            "how can i purchase",
+            "how can i buy",
+            "i'm ready",
+            "ready to apply",
+            "ready to purchase",
+            "ready to buy",
+            "ready to sign up"
+        ));
+
+        // Agent explicitly asking for contact information
+        phrases.put(IntentCategory.LEAD_CAPTURE_REQUEST, List.of(
+            "could i get your name",
+            "can i get your name",
+            "may i have your name",
+            "could i get your phone",
+            "can i get your phone",
+            "may i have your phone",
+            "could i get your email",
+            "can i get your email",
+            "may i have your email",
+            "contact information",
+            "phone number",
+            "email address"
+        ));
+
+        phrases.put(IntentCategory.PURCHASE_HINT, List.of(
+            "sign up", "apply", "purchase", "buy", "subscribe", "get started",
+            "proceed", "move forward", "ready", "interested in getting"
+        ));
+
+        phrases.put(IntentCategory.GREETING, List.of("hello", "hi", "greeting", "welcome"));
+
+        phrases.put(IntentCategory.NEEDS_ASSESSMENT, List.of(
+            "need", "looking for", "situation", "family", "dependents", "budget"
+        ));
+
+        phrases.put(IntentCategory.PRODUCT_RECOMMENDATION, List.of(
+            "term life", "whole life", "universal life", "variable life",
+            "recommend", "suitable", "product", "policy"
+        ));
+
+        phrases.put(IntentCategory.CONTACT_DETAILS, List.of("name", "phone", "email", "contact"));
+
+        return Collections.unmodifiableMap(phrases);
+    }
+}
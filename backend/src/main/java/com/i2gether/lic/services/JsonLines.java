@@ -0,0 +1,85 @@
+package com.i2gether.lic.services;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Replay of append-only JSON-lines files.
+ *
+ * Every append writes whole lines, newline included, so a crash mid-write can only leave an
+ * incomplete last line. Such a line is dropped. An unreadable line followed by more lines can't
+ * come from a crash; it is corruption and fails the replay rather than silently losing what it held.
+ */
+final class JsonLines {
+
+    private static final Logger log = LoggerFactory.getLogger(JsonLines.class);
+
+    private JsonLines() {
+    }
+
+    @FunctionalInterface
+    interface LineHandler {
+
+        /**
+         * Apply a non-blank line
+         *
+         * @return false if the line is unreadable
+         */
+        boolean accept(String line);
+    }
+
+    /**
+     * Pass each complete, non-blank line of the file to the handler
+     *
+     * @return length of the file up to the end of its last complete line; anything past it is a torn
+     *     write to cut off before appending again
+     * @throws IOException if the file can't be read or an unreadable line is followed by more lines
+     */
+    static long replay(Path file, LineHandler handler) throws IOException {
+        long offset = 0;
+        long validLength = 0;
+        int lineNumber = 0;
+        int unreadableLine = 0;
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            int next;
+            while ((next = in.read()) != -1) {
+                offset++;
+                if (next != '\n') {
+                    line.write(next);
+                    continue;
+                }
+                lineNumber++;
+                String text = line.toString(StandardCharsets.UTF_8);
+                line.reset();
+                if (text.isBlank()) {
+                    if (unreadableLine == 0) {
+                        validLength = offset;
+                    }
+                    continue;
+                }
+                if (unreadableLine != 0) {
+                    throw new IOException("Unreadable line " + unreadableLine + " of " + file + " is followed by more lines");
+                }
+                if (handler.accept(text)) {
+                    validLength = offset;
+                } else {
+                    unreadableLine = lineNumber; // Fine only if it turns out to be the last line
+                }
+            }
+        }
+        if (validLength < offset) {
+            // A torn last line from a crash mid-write; everything before it is intact
+            log.warn("Dropping the incomplete last {} bytes of {}", offset - validLength, file);
+        }
+        return validLength;
+    }
+}
@@ -0,0 +1,166 @@
+package com.i2gether.lic.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import com.i2gether.lic.models.KnowledgeBaseChangedEvent;
+import com.i2gether.lic.models.KnowledgeBaseProperties;
+
+/**
+ * Loads each knowledge base file once and serves it from memory.
+ *
+ * Files come from the optional external directory when present there, otherwise from the
+ * bundled classpath. The decoded text is kept per file.
+ * When the external directory is watched, changed files are reloaded in place and a
+ * {@link KnowledgeBaseChangedEvent} is published so dependent indexes can refresh without a
+ * restart.
+ */
+@Component
+public class KnowledgeBaseCache implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(KnowledgeBaseCache.class);
+    private static final String KNOWLEDGE_BASE_PATH = "knowledgebase/";
+    private static final long DEBOUNCE_MILLIS = 200;
+
+    private final Path directory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<String, Document> documents = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong(1);
+    private final WatchService watchService;
+
+    KnowledgeBaseCache(KnowledgeBaseProperties properties, ApplicationEventPublisher eventPublisher) {
+        this.directory = properties.directory();
+        this.eventPublisher = eventPublisher;
+        this.watchService = directory != null && properties.watch() && Files.isDirectory(directory)
+            ? startWatching(directory)
+            : null;
+    }
+
+    /**
+     * Decoded file content, or null if the file does not exist
+     */
+    public String text(String fileName) {
+        Document document = documents.computeIfAbsent(fileName, this::load);
+        return document.exists() ? document.text() : null;
+    }
+
+    /**
+     * Incremented on every reload; lets callers key derived data on the knowledge base version
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Reload the given files and notify listeners
+     */
+    public void reload(Set<String> fileNames) {
+        fileNames.forEach(fileName -> documents.put(fileName, load(fileName)));
+        long newVersion = version.incrementAndGet();
+        log.info("Reloaded knowledge base files {} (version {})", fileNames, newVersion);
+        eventPublisher.publishEvent(new KnowledgeBaseChangedEvent(Set.copyOf(fileNames), newVersion));
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private WatchService startWatching(Path directory) {
+        try {
+            WatchService service = directory.getFileSystem().newWatchService();
+            directory.register(service,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+            Thread.ofPlatform().daemon().name("knowledge-base-watcher").start(() -> watch(service));
+            log.info("Watching {} for knowledge base changes", directory);
+            return service;
+        } catch (IOException e) {
+            log.warn("Could not watch {} for knowledge base changes: {}", directory, e.getMessage());
+            return null;
+        }
+    }
+
+    private Document load(String fileName) {
+        try {
+            if (directory != null) {
+                Path file = directory.resolve(fileName);
+                if (Files.isRegularFile(file)) {
+                    return Document.of(Files.readAllBytes(file));
+                }
+            }
+            ClassPathResource resource = new ClassPathResource(KNOWLEDGE_BASE_PATH + fileName);
+            if (resource.exists()) {
+                try (InputStream in = resource.getInputStream()) {
+                    return Document.of(in.readAllBytes());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not load knowledge base file {}: {}", fileName, e.getMessage());
+        }
+        return Document.MISSING;
+    }
+
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                // Editors emit bursts of events per save; collect them before reloading
+                Thread.sleep(DEBOUNCE_MILLIS);
+                Set<String> changed = new HashSet<>();
+                do {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.context() instanceof Path path && path.toString().endsWith(".md")) {
+                            changed.add(path.toString());
+                        }
+                    }
+                    key.reset();
+                    key = service.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                } while (key != null);
+
+                if (!changed.isEmpty()) {
+                    try {
+                        reload(changed);
+                    } catch (RuntimeException e) {
+                        log.error("Knowledge base reload failed for {}", changed, e);
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+
+    private record Document(boolean exists, String text) {
+
+        static final Document MISSING = new Document(false, null);
+
+        static Document of(byte[] content) {
+            return new Document(true, new String(content, StandardCharsets.UTF_8));
+        }
+    }
+}
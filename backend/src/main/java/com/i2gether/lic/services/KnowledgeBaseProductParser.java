@@ -0,0 +1,160 @@
+package com.i2gether.lic.services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.i2gether.lic.models.InsuranceProduct;
+import com.i2gether.lic.models.InsuranceProduct.EligibilityCriteria;
+import com.i2gether.lic.models.InsuranceProduct.PricingInfo;
+import com.i2gether.lic.models.InsuranceProduct.ProductType;
+
+/**
+ * Builds an {@link InsuranceProduct} from a knowledge base markdown file.
+ *
+ * The files share a loose layout: a "# Title", an "## Overview" paragraph, "## Key Features"
+ * and "## Benefits..." bullet lists, an "## Eligibility" list and optionally "## Common Questions"
+ * with "**Q: ...**" lines. Sections that are missing simply leave the field empty.
+ */
+final class KnowledgeBaseProductParser {
+
+    private static final Pattern AGE_RANGE = Pattern.compile("(\\d+)\\s*-\\s*(\\d+)\\s*years");
+    private static final Pattern MIN_AGE = Pattern.compile("minimum\\s+(\\d+)\\s*years");
+    private static final Pattern MAX_AGE = Pattern.compile("maximum\\s+(\\d+)\\s*years");
+    private static final Pattern QUESTION = Pattern.compile("^\\*\\*Q:\\s*(.+?)\\*\\*$");
+
+    private KnowledgeBaseProductParser() {
+    }
+
+    static InsuranceProduct parse(ProductType productType, String markdown) {
+        String fileName = productType.knowledgeBaseFile();
+        String title = fileName;
+        Map<String, List<String>> sections = new LinkedHashMap<>();
+        List<String> current = null;
+
+        for (String line : markdown.split("\n")) {
+            String trimmed = line.strip();
+            if (trimmed.startsWith("# ")) {
+                title = trimmed.substring(2).strip();
+            } else if (trimmed.startsWith("## ")) {
+                current = sections.computeIfAbsent(trimmed.substring(3).strip(), k -> new ArrayList<>());
+            } else if (current != null && !trimmed.isEmpty()) {
+                current.add(trimmed);
+            }
+        }
+
+        List<String> eligibility = bullets(section(sections, "Eligibility"));
+        return new InsuranceProduct(
+            fileName.substring(0, fileName.length() - ".md".length()),
+            title,
+            productType,
+            String.join(" ", text(section(sections, "Overview"))),
+            bullets(section(sections, "Key Features")),
+            benefits(sections),
+            pricing(sections),
+            eligibility(eligibility),
+            faqs(section(sections, "Common Questions"))
+        );
+    }
+
+    private static List<String> section(Map<String, List<String>> sections, String heading) {
+        return sections.getOrDefault(heading, List.of());
+    }
+
+    private static List<String> benefits(Map<String, List<String>> sections) {
+        List<String> benefits = new ArrayList<>();
+        sections.forEach((heading, lines) -> {
+            if (heading.startsWith("Benefits")) {
+                benefits.addAll(bullets(lines));
+            }
+        });
+        return benefits;
+    }
+
+    private static PricingInfo pricing(Map<String, List<String>> sections) {
+        String premiumRange = null;
+        String paymentFrequency = null;
+        for (Map.Entry<String, List<String>> section : sections.entrySet()) {
+            for (String bullet : bullets(section.getValue())) {
+                String lower = bullet.toLowerCase(Locale.ROOT);
+                if (paymentFrequency == null && lower.startsWith("premium payment")) {
+                    paymentFrequency = value(bullet);
+                } else if (premiumRange == null && (lower.startsWith("monthly premium") || lower.startsWith("premium:"))) {
+                    premiumRange = value(bullet);
+                }
+            }
+            if (premiumRange == null && section.getKey().startsWith("Premium")) {
+                List<String> text = text(section.getValue());
+                premiumRange = text.isEmpty() ? null : text.getFirst();
+            }
+        }
+        return new PricingInfo(premiumRange, paymentFrequency, null);
+    }
+
+    private static EligibilityCriteria eligibility(List<String> bullets) {
+        Integer minAge = null;
+        Integer maxAge = null;
+        String health = null;
+        List<String> other = new ArrayList<>();
+        for (String bullet : bullets) {
+            String lower = bullet.toLowerCase(Locale.ROOT);
+            if (minAge == null && lower.contains("age") && !lower.contains("maturity")) {
+                Matcher range = AGE_RANGE.matcher(lower);
+                if (range.find()) {
+                    minAge = Integer.valueOf(range.group(1));
+                    maxAge = Integer.valueOf(range.group(2));
+                    continue;
+                }
+                Matcher min = MIN_AGE.matcher(lower);
+                Matcher max = MAX_AGE.matcher(lower);
+                if (min.find()) {
+                    minAge = Integer.valueOf(min.group(1));
+                    maxAge = max.find() ? Integer.valueOf(max.group(1)) : null;
+                    continue;
+                }
+            }
+            if (health == null && lower.contains("medical")) {
+                health = value(bullet);
+                continue;
+            }
+            other.add(bullet);
+        }
+        return new EligibilityCriteria(minAge, maxAge, health, other.isEmpty() ? null : String.join("; ", other));
+    }
+
+    private static List<String> faqs(List<String> lines) {
+        List<String> faqs = new ArrayList<>();
+        for (String line : lines) {
+            Matcher question = QUESTION.matcher(line);
+            if (question.matches()) {
+                faqs.add(question.group(1).strip());
+            }
+        }
+        return faqs;
+    }
+
+    private static List<String> bullets(List<String> lines) {
+        List<String> bullets = new ArrayList<>();
+        for (String line : lines) {
+            if (line.startsWith("- ") || line.startsWith("* ")) {
+                bullets.add(line.substring(2).replace("**", "").strip());
+            }
+        }
+        return bullets;
+    }
+
+    private static List<String> text(List<String> lines) {
+        return lines.stream()
+            .filter(line -> !line.startsWith("- ") && !line.startsWith("|") && !line.startsWith("#"))
+            .toList();
+    }
+
+    private static String value(String bullet) {
+        int colon = bullet.indexOf(':');
+        return colon < 0 ? bullet : bullet.substring(colon + 1).strip();
+    }
+}
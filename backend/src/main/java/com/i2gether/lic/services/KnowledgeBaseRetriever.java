@@ -0,0 +1,131 @@
+package com.i2gether.lic.services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.i2gether.lic.models.KnowledgeBaseChangedEvent;
+import com.i2gether.lic.models.KnowledgeChunk;
+import com.i2gether.lic.models.RetrievalProperties;
+
+/**
+ * Retrieval layer over the product knowledge base.
+ *
+ * Each markdown file is split into sections at its "##"/"###" headings and indexed with BM25,
+ * so a turn only carries the few sections relevant to the question instead of all files.
+ */
+@Component
+public class KnowledgeBaseRetriever {
+
+    private final ProductService productService;
+    private final int topK;
+    private volatile Snapshot snapshot;
+
+    KnowledgeBaseRetriever(ProductService productService, RetrievalProperties properties) {
+        this.productService = productService;
+        this.topK = properties.topK();
+        this.snapshot = buildSnapshot();
+    }
+
+    /**
+     * Get the knowledge base sections most relevant to the query, best first
+     */
+    public List<KnowledgeChunk> retrieve(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        return snapshot.index().search(query, limit).stream()
+            .map(Bm25Index.ScoredDocument::key)
+            .toList();
+    }
+
+    /**
+     * Render the product overview plus the top-k sections for the query as prompt context
+     */
+    public String renderContext(String query) {
+        Snapshot current = snapshot;
+        StringBuilder context = new StringBuilder(current.overview());
+        List<KnowledgeChunk> chunks = retrieve(query, topK);
+        if (chunks.isEmpty()) {
+            context.append("\nNo specific section matched the question; ask the customer which product they are interested in if needed.\n");
+            return context.toString();
+        }
+        for (KnowledgeChunk chunk : chunks) {
+            context.append("\n### ").append(chunk.productTitle());
+            if (!chunk.heading().equals(chunk.productTitle())) {
+                context.append(" - ").append(chunk.heading());
+            }
+            context.append("\n\n").append(chunk.content().strip()).append("\n");
+        }
+        return context.toString();
+    }
+
+    /**
+     * Re-read the knowledge base files and rebuild the index
+     */
+    @EventListener(KnowledgeBaseChangedEvent.class)
+    public void reload() {
+        this.snapshot = buildSnapshot();
+    }
+
+    public int chunkCount() {
+        return snapshot.index().size();
+    }
+
+    private Snapshot buildSnapshot() {
+        Map<KnowledgeChunk, String> documents = new LinkedHashMap<>();
+        StringBuilder overview = new StringBuilder("Available products:\n");
+        for (String fileName : productService.getKnowledgeBaseFiles()) {
+            String content = productService.getProductKnowledgeBase(fileName);
+            if (content == null || content.equals(ProductService.NOT_AVAILABLE)) {
+                continue;
+            }
+            List<KnowledgeChunk> chunks = chunk(fileName, content);
+            if (!chunks.isEmpty()) {
+                overview.append("- ").append(chunks.getFirst().productTitle()).append("\n");
+            }
+            for (KnowledgeChunk chunk : chunks) {
+                // Title and heading are indexed with the body so "eligibility" finds the right product section
+                documents.put(chunk, chunk.productTitle() + "\n" + chunk.heading() + "\n" + chunk.content());
+            }
+        }
+        return new Snapshot(Bm25Index.build(documents), overview.toString());
+    }
+
+    static List<KnowledgeChunk> chunk(String fileName, String markdown) {
+        List<KnowledgeChunk> chunks = new ArrayList<>();
+        String productTitle = fileName;
+        String heading = null;
+        StringBuilder body = new StringBuilder();
+
+        for (String line : markdown.split("\n")) {
+            if (line.startsWith("# ")) {
+                productTitle = line.substring(2).strip();
+                continue;
+            }
+            if (line.startsWith("## ") || line.startsWith("### ")) {
+                addChunk(chunks, fileName, productTitle, heading, body);
+                heading = line.substring(line.indexOf(' ') + 1).strip();
+                body.setLength(0);
+                continue;
+            }
+            body.append(line).append('\n');
+        }
+        addChunk(chunks, fileName, productTitle, heading, body);
+        return chunks;
+    }
+
+    private static void addChunk(List<KnowledgeChunk> chunks, String fileName, String productTitle,
+                                 String heading, StringBuilder body) {
+        if (body.toString().isBlank()) {
+            return;
+        }
+        chunks.add(new KnowledgeChunk(fileName, productTitle, heading == null ? productTitle : heading, body.toString()));
+    }
+
+    private record Snapshot(Bm25Index<KnowledgeChunk> index, String overview) {}
+}
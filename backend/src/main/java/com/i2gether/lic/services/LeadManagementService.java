@@ -1,57 +1,107 @@
 package com.i2gether.lic.services;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.springframework.stereotype.Service;
 
 import com.i2gether.lic.models.CustomerInfo;
 import com.i2gether.lic.models.Lead;
+import com.i2gether.lic.models.LeadNote;
+import com.i2gether.lic.models.LeadPage;
+import com.i2gether.lic.models.LeadQuery;
+import com.i2gether.lic.models.LeadStatus;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 
 @Service
-public class LeadManagementService {
+public class LeadManagementService implements MeterBinder {
+
+    private static final Comparator<LeadKey> NEWEST_FIRST =
+        Comparator.comparing(LeadKey::createdAt).thenComparing(LeadKey::leadId).reversed();
+    private static final UUID LOWEST_UUID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
 
     private final Map<UUID, Lead> leads = new ConcurrentHashMap<>();
-    private final Map<UUID, List<String>> conversationHistory = new ConcurrentHashMap<>();
+    private final NavigableSet<LeadKey> leadsByCreation = new ConcurrentSkipListSet<>(NEWEST_FIRST);
+    private final Map<LeadStatus, NavigableSet<LeadKey>> leadsByStatus = new EnumMap<>(LeadStatus.class);
+    private final LongAdder leadsCreated = new LongAdder();
+    private final Map<LeadStatus, LongAdder> statusChanges = new EnumMap<>(LeadStatus.class);
+    private final ConversationHistoryStore conversationHistory;
+    private final LeadRepository leadRepository;
+    private final TranscriptStore transcriptStore;
+
+    LeadManagementService(ConversationHistoryStore conversationHistory, LeadRepository leadRepository,
+            TranscriptStore transcriptStore) {
+        this.conversationHistory = conversationHistory;
+        this.leadRepository = leadRepository;
+        this.transcriptStore = transcriptStore;
+        for (LeadStatus status : LeadStatus.values()) {
+            leadsByStatus.put(status, new ConcurrentSkipListSet<>(NEWEST_FIRST));
+            statusChanges.put(status, new LongAdder());
+        }
+        for (Lead lead : leadRepository.findAll()) {
+            leads.put(lead.leadId(), lead);
+            index(null, lead);
+        }
+    }
 
     /**
      * Store a conversation message for a session
      */
     public void addConversationMessage(UUID sessionId, String message) {
-        conversationHistory.computeIfAbsent(sessionId, k -> new ArrayList<>()).add(message);
+        conversationHistory.append(sessionId, message);
     }
 
     /**
-     * Get full conversation history for a session
+     * Get conversation history for a session (immutable snapshot, bounded by the history limits)
      */
     public List<String> getConversationHistory(UUID sessionId) {
-        return conversationHistory.getOrDefault(sessionId, new ArrayList<>());
+        return conversationHistory.snapshot(sessionId);
     }
 
     /**
-     * Create a lead from customer information and conversation history
+     * Create a lead from customer information, freezing the conversation history so far as its transcript
      */
     public Lead createLead(UUID sessionId, UUID userId, CustomerInfo customerInfo) {
         UUID leadId = UUID.randomUUID();
-        List<String> history = getConversationHistory(sessionId);
-        String fullConversation = String.join("\n", history);
+        UUID transcriptId = transcriptStore.freeze(getConversationHistory(sessionId));
         
         Lead lead = new Lead(
             leadId,
             sessionId,
             userId,
             customerInfo,
-            fullConversation,
+            transcriptId,
             LocalDateTime.now(),
-            "NEW",
-            null
+            LeadStatus.NEW,
+            List.of(),
+            1
         );
         
         leads.put(leadId, lead);
+        index(null, lead);
+        leadRepository.save(lead);
+        leadsCreated.increment();
         return lead;
     }
 
@@ -63,46 +113,186 @@ public class LeadManagementService {
     }
 
     /**
-     * Get all leads (for human agent review)
+     * The conversation transcript a lead was created from, or null if the lead has none
+     */
+    public @Nullable List<String> getTranscript(Lead lead) {
+        return lead.transcriptId() == null ? null : transcriptStore.get(lead.transcriptId());
+    }
+
+    /**
+     * Get all leads, newest first (for human agent review)
      */
     public List<Lead> getAllLeads() {
-        return new ArrayList<>(leads.values());
+        return streamLeads(LeadQuery.ALL).toList();
+    }
+
+    /**
+     * Get leads by status, newest first
+     */
+    public List<Lead> getLeadsByStatus(LeadStatus status) {
+        return streamLeads(new LeadQuery(status, null, null)).toList();
+    }
+
+    /**
+     * One page of matching leads, newest first. {@code cursor} is the {@link LeadPage#nextCursor()} of the
+     * previous page, or null for the first page; pages stay stable while new leads arrive.
+     */
+    public LeadPage getLeads(LeadQuery query, @Nullable String cursor, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        Iterator<Lead> matches = streamLeads(query, cursor == null ? null : LeadKey.decode(cursor)).iterator();
+        List<Lead> page = new ArrayList<>(Math.min(limit, 256));
+        while (page.size() < limit && matches.hasNext()) {
+            page.add(matches.next());
+        }
+        String nextCursor = matches.hasNext() ? LeadKey.of(page.getLast()).encode() : null;
+        return new LeadPage(List.copyOf(page), nextCursor);
+    }
+
+    /**
+     * Lazily walk all matching leads, newest first, without copying the lead table
+     */
+    public Stream<Lead> streamLeads(LeadQuery query) {
+        return streamLeads(query, null);
+    }
+
+    private Stream<Lead> streamLeads(LeadQuery query, @Nullable LeadKey after) {
+        NavigableSet<LeadKey> index = query.status() == null ? leadsByCreation : leadsByStatus.get(query.status());
+
+        LeadKey start = after;
+        if (query.createdTo() != null) {
+            // Every key created before createdTo sorts after this one
+            LeadKey upperBound = new LeadKey(query.createdTo(), LOWEST_UUID);
+            if (start == null || NEWEST_FIRST.compare(upperBound, start) > 0) {
+                start = upperBound;
+            }
+        }
+
+        Stream<LeadKey> keys = (start == null ? index : index.tailSet(start, false)).stream();
+        if (query.createdFrom() != null) {
+            keys = keys.takeWhile(key -> !key.createdAt().isBefore(query.createdFrom()));
+        }
+        return keys
+            .map(key -> leads.get(key.leadId()))
+            .filter(Objects::nonNull)
+            .filter(lead -> query.status() == null || query.status() == lead.status());
+    }
+
+    /**
+     * Move a lead to a new status (for human agents). Setting the current status again is a no-op.
+     *
+     * @param expectedVersion version the caller last saw, or null to update unconditionally
+     * @throws LeadVersionConflictException if the lead has changed since {@code expectedVersion}
+     * @throws IllegalLeadTransitionException if the lead's status can't move to {@code newStatus}
+     */
+    public Lead updateLeadStatus(UUID leadId, LeadStatus newStatus, @Nullable Long expectedVersion) {
+        return update(leadId, expectedVersion, lead -> {
+            if (lead.status() == newStatus) {
+                return lead;
+            }
+            if (!lead.status().canTransitionTo(newStatus)) {
+                throw new IllegalLeadTransitionException(leadId, lead.status(), newStatus);
+            }
+            return lead.withStatus(newStatus);
+        });
+    }
+
+    /**
+     * Append a note to a lead (for human agents)
+     *
+     * @param expectedVersion version the caller last saw, or null to append unconditionally
+     * @throws LeadVersionConflictException if the lead has changed since {@code expectedVersion}
+     */
+    public Lead addNoteToLead(UUID leadId, String text, @Nullable String author, @Nullable Long expectedVersion) {
+        LeadNote note = new LeadNote(text, author, LocalDateTime.now());
+        return update(leadId, expectedVersion, lead -> lead.withNote(note));
+    }
+
+    /**
+     * Apply a change atomically against the current version of a lead. The indexes are updated
+     * inside the same per-key critical section, so concurrent changes to one lead are applied and
+     * indexed in version order; the repository drops any version older than one it already has.
+     */
+    private Lead update(UUID leadId, @Nullable Long expectedVersion, UnaryOperator<Lead> change) {
+        Lead[] previous = new Lead[1];
+        Lead updated = leads.compute(leadId, (id, current) -> {
+            if (current == null) {
+                throw new IllegalArgumentException("Lead not found: " + leadId);
+            }
+            if (expectedVersion != null && current.version() != expectedVersion) {
+                throw new LeadVersionConflictException(current);
+            }
+            Lead next = change.apply(current);
+            if (next != current) {
+                index(current, next);
+                if (next.status() != current.status()) {
+                    statusChanges.get(next.status()).increment();
+                }
+            }
+            previous[0] = current;
+            return next;
+        });
+        if (updated != previous[0]) {
+            leadRepository.save(updated);
+        }
+        return updated;
     }
 
     /**
-     * Get leads by status
+     * Lead creation and status change counters, and the number of leads held
      */
-    public List<Lead> getLeadsByStatus(String status) {
-        return leads.values().stream()
-            .filter(lead -> status.equals(lead.status()))
-            .toList();
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("lic.leads.created", leadsCreated, LongAdder::sum)
+            .description("Leads captured since startup")
+            .register(registry);
+        statusChanges.forEach((status, changes) ->
+            FunctionCounter.builder("lic.leads.status.changes", changes, LongAdder::sum)
+                .description("Leads moved into a status by human agents")
+                .tag("status", status.name())
+                .register(registry));
+        Gauge.builder("lic.leads", leads, Map::size)
+            .description("Leads held, all statuses")
+            .register(registry);
     }
 
     /**
-     * Update lead status (for human agents)
+     * Keep the creation-order and status indexes in step with a lead change
      */
-    public Lead updateLeadStatus(UUID leadId, String newStatus) {
-        Lead lead = leads.get(leadId);
-        if (lead == null) {
-            throw new IllegalArgumentException("Lead not found: " + leadId);
+    private void index(@Nullable Lead previous, Lead lead) {
+        LeadKey key = LeadKey.of(lead);
+        if (previous == null) {
+            leadsByCreation.add(key);
+        } else if (previous.status() != lead.status()) {
+            leadsByStatus.get(previous.status()).remove(key);
         }
-        Lead updatedLead = lead.withStatus(newStatus);
-        leads.put(leadId, updatedLead);
-        return updatedLead;
+        leadsByStatus.get(lead.status()).add(key);
     }
 
     /**
-     * Add notes to a lead (for human agents)
+     * Sort key of the lead indexes; also the opaque pagination cursor
      */
-    public Lead addNotesToLead(UUID leadId, String notes) {
-        Lead lead = leads.get(leadId);
-        if (lead == null) {
-            throw new IllegalArgumentException("Lead not found: " + leadId);
+    private record LeadKey(LocalDateTime createdAt, UUID leadId) {
+
+        static LeadKey of(Lead lead) {
+            return new LeadKey(lead.createdAt(), lead.leadId());
+        }
+
+        String encode() {
+            String raw = createdAt + "|" + leadId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static LeadKey decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new LeadKey(LocalDateTime.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
         }
-        String updatedNotes = lead.notes() == null ? notes : lead.notes() + "\n" + notes;
-        Lead updatedLead = lead.withNotes(updatedNotes);
-        leads.put(leadId, updatedLead);
-        return updatedLead;
     }
 }
 
@@ -0,0 +1,22 @@
+package com.i2gether.lic.services;
+
+import java.util.Collection;
+
+import com.i2gether.lic.models.Lead;
+
+/**
+ * Persistence for leads. LeadManagementService serves reads from memory, so a repository
+ * only needs to store every version of a lead and hand all of them back on startup.
+ */
+public interface LeadRepository {
+
+    /**
+     * Store a version of a lead (insert or replace); a version older than the stored one is ignored
+     */
+    void save(Lead lead);
+
+    /**
+     * All stored leads, latest version of each
+     */
+    Collection<Lead> findAll();
+}
@@ -0,0 +1,23 @@
+package com.i2gether.lic.services;
+
+import com.i2gether.lic.models.Lead;
+
+/**
+ * A conditional lead update was based on a version that is no longer current
+ */
+public class LeadVersionConflictException extends RuntimeException {
+
+    private final Lead current;
+
+    public LeadVersionConflictException(Lead current) {
+        super("Lead " + current.leadId() + " is at version " + current.version());
+        this.current = current;
+    }
+
+    /**
+     * The lead as it is now, for the caller to re-read and retry against
+     */
+    public Lead getCurrent() {
+        return current;
+    }
+}
@@ -0,0 +1,88 @@
+package com.i2gether.lic.services;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.i2gether.lic.models.LeadStatus;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Upgrades leads persisted before leads were versioned to the current {@link com.i2gether.lic.models.Lead} shape.
+ *
+ * Those leads embed the conversation as one newline-joined string, carry a free-form status
+ * string and a single notes string, and have no version. The conversation is frozen into the
+ * transcript store, the status is mapped onto {@link LeadStatus} (an unknown one is kept as a
+ * note and the lead starts over as NEW), the notes become one note and the version starts at 1.
+ */
+final class LegacyLeadFormat {
+
+    private LegacyLeadFormat() {
+    }
+
+    /**
+     * Whether the entry predates versioned leads
+     */
+    static boolean isLegacy(JsonNode entry) {
+        return entry instanceof ObjectNode && !entry.has("version");
+    }
+
+    static ObjectNode upgrade(ObjectNode entry, TranscriptStore transcriptStore) {
+        ArrayNode notes = entry.arrayNode();
+        JsonNode createdAt = entry.get("createdAt");
+
+        JsonNode oldNotes = entry.remove("notes");
+        if (oldNotes != null && oldNotes.isString() && !oldNotes.asString().isBlank()) {
+            note(notes, oldNotes.asString(), createdAt);
+        }
+
+        JsonNode oldStatus = entry.get("status");
+        String statusText = oldStatus != null && oldStatus.isString() ? oldStatus.asString().strip() : "";
+        LeadStatus status = status(statusText);
+        if (status == null) {
+            note(notes, "Status before upgrade: " + statusText, createdAt);
+            status = LeadStatus.NEW;
+        }
+        entry.put("status", status.name());
+        entry.set("notes", notes);
+
+        JsonNode history = entry.remove("fullConversationHistory");
+        if (history != null && history.isString() && !history.asString().isEmpty()) {
+            // Messages were joined with newlines, so one containing a newline is split up here
+            UUID transcriptId = transcriptStore.freeze(List.of(history.asString().split("\n")));
+            entry.put("transcriptId", transcriptId.toString());
+        }
+
+        entry.put("version", 1L);
+        return entry;
+    }
+
+    /**
+     * The status named by the text, ignoring case and separators, or null for an unknown status
+     */
+    private static @Nullable LeadStatus status(String text) {
+        if (text.isEmpty()) {
+            return LeadStatus.NEW;
+        }
+        String name = text.toUpperCase(Locale.ROOT).replace(' ', '_').replace('-', '_');
+        for (LeadStatus status : LeadStatus.values()) {
+            if (status.name().equals(name)) {
+                return status;
+            }
+        }
+        return null;
+    }
+
+    private static void note(ArrayNode notes, String text, JsonNode createdAt) {
+        ObjectNode note = notes.addObject();
+        note.put("text", text);
+        if (createdAt != null) {
+            note.set("createdAt", createdAt);
+        }
+    }
+}
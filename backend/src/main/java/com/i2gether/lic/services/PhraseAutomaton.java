@@ -0,0 +1,168 @@
+package com.i2gether.lic.services;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton compiled to a dense transition table.
+ *
+ * Matching is case-insensitive and has String.contains semantics: phrases match anywhere,
+ * including inside words. Characters that occur in no phrase share a single "other" column,
+ * so the table stays small while any input character is handled in O(1).
+ */
+public final class PhraseAutomaton {
+
+    private static final int[] NO_OUTPUT = new int[0];
+
+    private final char[] charClass; // char -> column, 0 for characters not used by any phrase
+    private final int columns;
+    private final int[] transitions; // state * columns + column -> next state
+    private final int[][] outputs; // state -> indexes of phrases ending here
+    private final int[] phraseLengths;
+    private final int[] phraseLabels;
+
+    private PhraseAutomaton(char[] charClass, int columns, int[] transitions, int[][] outputs,
+                            int[] phraseLengths, int[] phraseLabels) {
+        this.charClass = charClass;
+        this.columns = columns;
+        this.transitions = transitions;
+        this.outputs = outputs;
+        this.phraseLengths = phraseLengths;
+        this.phraseLabels = phraseLabels;
+    }
+
+    /**
+     * Compile phrases, each tagged with a caller-defined label
+     */
+    public static PhraseAutomaton compile(List<String> phrases, int[] labels) {
+        if (phrases.size() != labels.length) {
+            throw new IllegalArgumentException("Every phrase needs a label");
+        }
+
+        List<String> normalized = phrases.stream().map(p -> p.toLowerCase(Locale.ROOT)).toList();
+        char maxChar = 0;
+        for (String phrase : normalized) {
+            if (phrase.isEmpty()) {
+                throw new IllegalArgumentException("Phrases must not be empty");
+            }
+            for (int i = 0; i < phrase.length(); i++) {
+                maxChar = (char) Math.max(maxChar, phrase.charAt(i));
+            }
+        }
+        char[] charClass = new char[maxChar + 1];
+        int columns = 1;
+        for (String phrase : normalized) {
+            for (int i = 0; i < phrase.length(); i++) {
+                if (charClass[phrase.charAt(i)] == 0) {
+                    charClass[phrase.charAt(i)] = (char) columns++;
+                }
+            }
+        }
+
+        // Trie
+        List<Map<Integer, Integer>> children = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        children.add(new HashMap<>());
+        ends.add(new ArrayList<>());
+        int[] phraseLengths = new int[normalized.size()];
+        for (int p = 0; p < normalized.size(); p++) {
+            String phrase = normalized.get(p);
+            int state = 0;
+            for (int i = 0; i < phrase.length(); i++) {
+                int column = charClass[phrase.charAt(i)];
+                Integer next = children.get(state).get(column);
+                if (next == null) {
+                    next = children.size();
+                    children.add(new HashMap<>());
+                    ends.add(new ArrayList<>());
+                    children.get(state).put(column, next);
+                }
+                state = next;
+            }
+            ends.get(state).add(p);
+            phraseLengths[p] = phrase.length();
+        }
+
+        // Failure links resolved breadth-first straight into the transition table
+        int states = children.size();
+        int[] transitions = new int[states * columns];
+        int[] failure = new int[states];
+        int[][] outputs = new int[states][];
+        outputs[0] = toArray(ends.get(0));
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int column = 0; column < columns; column++) {
+            Integer child = children.get(0).get(column);
+            if (child != null) {
+                transitions[column] = child;
+                failure[child] = 0;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            List<Integer> output = new ArrayList<>(ends.get(state));
+            for (int inherited : outputs[failure[state]]) {
+                output.add(inherited);
+            }
+            outputs[state] = toArray(output);
+
+            for (int column = 0; column < columns; column++) {
+                Integer child = children.get(state).get(column);
+                int fallback = transitions[failure[state] * columns + column];
+                if (child == null) {
+                    transitions[state * columns + column] = fallback;
+                } else {
+                    transitions[state * columns + column] = child;
+                    failure[child] = fallback;
+                    queue.add(child);
+                }
+            }
+        }
+
+        return new PhraseAutomaton(charClass, columns, transitions, outputs, phraseLengths, labels.clone());
+    }
+
+    /**
+     * The start state
+     */
+    public int initialState() {
+        return 0;
+    }
+
+    /**
+     * Advance by one input character
+     */
+    public int step(int state, char c) {
+        char lower = Character.toLowerCase(c);
+        int column = lower < charClass.length ? charClass[lower] : 0;
+        return transitions[state * columns + column];
+    }
+
+    /**
+     * Indexes of the phrases ending at this state
+     */
+    public int[] matches(int state) {
+        return outputs[state];
+    }
+
+    public int phraseLength(int phrase) {
+        return phraseLengths[phrase];
+    }
+
+    public int phraseLabel(int phrase) {
+        return phraseLabels[phrase];
+    }
+
+    public int stateCount() {
+        return outputs.length;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.isEmpty() ? NO_OUTPUT : values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,107 @@
+package com.i2gether.lic.services;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.i2gether.lic.models.InsuranceProduct;
+import com.i2gether.lic.models.InsuranceProduct.ProductType;
+import com.i2gether.lic.models.KnowledgeBaseChangedEvent;
+import com.i2gether.lic.models.ProductSearchResult;
+
+/**
+ * Full-text product search over every InsuranceProduct field plus the product's knowledge base file.
+ *
+ * Each product is analyzed once and kept in its analyzed form; {@link #refresh(Collection)}
+ * re-tokenizes only the products that changed and swaps in a rebuilt immutable index, so
+ * searches never block on updates.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private final ProductService productService;
+    private final Map<ProductType, Bm25Index.AnalyzedDocument> documents = new EnumMap<>(ProductType.class);
+    private volatile Bm25Index<ProductType> index;
+
+    ProductSearchIndex(ProductService productService) {
+        this.productService = productService;
+        refresh(List.of(ProductType.values()));
+    }
+
+    /**
+     * Ranked, paginated search. Query terms also match as prefixes when {@code prefix} is set.
+     */
+    public ProductSearchResult search(String query, int page, int size, boolean prefix) {
+        // Computed in long: a large page * size would overflow to a negative offset; past the end is an empty page
+        int offset = (int) Math.min((long) Math.max(page, 0) * Math.max(size, 0), Integer.MAX_VALUE);
+        Bm25Index.Page<ProductType> results = index.search(query, offset, size, prefix);
+        return new ProductSearchResult(
+            results.total(),
+            results.results().stream()
+                .map(result -> productService.getProductByType(result.key()))
+                .toList()
+        );
+    }
+
+    /**
+     * Re-index the products whose knowledge base files changed
+     */
+    @EventListener
+    public void onKnowledgeBaseChanged(KnowledgeBaseChangedEvent event) {
+        List<ProductType> changed = Arrays.stream(ProductType.values())
+            .filter(productType -> event.fileNames().contains(productType.knowledgeBaseFile()))
+            .toList();
+        refresh(changed);
+    }
+
+    /**
+     * Re-index the given products from the current catalog and knowledge base
+     */
+    public synchronized void refresh(Collection<ProductType> productTypes) {
+        for (ProductType productType : productTypes) {
+            InsuranceProduct product = productService.getProductByType(productType);
+            if (product == null) {
+                documents.remove(productType);
+            } else {
+                documents.put(productType, Bm25Index.analyze(searchableText(product)));
+            }
+        }
+        this.index = Bm25Index.fromAnalyzed(documents);
+    }
+
+    private String searchableText(InsuranceProduct product) {
+        StringBuilder text = new StringBuilder();
+        // Name is repeated so title matches outrank passing mentions in the body
+        text.append(product.productName()).append('\n').append(product.productName()).append('\n');
+        text.append(product.productType().name().replace('_', ' ')).append('\n');
+        text.append(product.description()).append('\n');
+        product.features().forEach(feature -> text.append(feature).append('\n'));
+        product.benefits().forEach(benefit -> text.append(benefit).append('\n'));
+        product.faqs().forEach(faq -> text.append(faq).append('\n'));
+        if (product.pricing() != null) {
+            appendIfPresent(text, product.pricing().premiumRange());
+            appendIfPresent(text, product.pricing().paymentFrequency());
+            appendIfPresent(text, product.pricing().notes());
+        }
+        if (product.eligibility() != null) {
+            appendIfPresent(text, product.eligibility().healthRequirements());
+            appendIfPresent(text, product.eligibility().otherRequirements());
+        }
+        String knowledgeBase = productService.getProductKnowledgeBase(product.productType());
+        if (!knowledgeBase.equals(ProductService.NOT_AVAILABLE)) {
+            text.append(knowledgeBase);
+        }
+        return text.toString();
+    }
+
+    private static void appendIfPresent(StringBuilder text, String value) {
+        if (value != null) {
+            text.append(value).append('\n');
+        }
+    }
+}
@@ -1,149 +1,206 @@
 package com.i2gether.lic.services;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
 
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.io.Resource;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StreamUtils;
 
 import com.i2gether.lic.models.InsuranceProduct;
 import com.i2gether.lic.models.InsuranceProduct.ProductType;
 import com.i2gether.lic.models.InsuranceProduct.PricingInfo;
 import com.i2gether.lic.models.InsuranceProduct.EligibilityCriteria;
+import com.i2gether.lic.models.KnowledgeBaseChangedEvent;
 
 @Service
 public class ProductService {
 
-    private static final String KNOWLEDGE_BASE_PATH = "knowledgebase/";
+    static final String NOT_AVAILABLE = "Product information not available.";
+
+    // List of all knowledge base files (in order of importance)
+    private static final List<String> KNOWLEDGE_BASE_FILES = List.of(
+        "term-benefit-pension-insurance.md",
+        "three-installment-insurance.md",
+        "multiple-installment-insurance.md",
+        "jbc-monthly-savings-scheme.md",
+        "jbc-expected-monthly-savings.md",
+        "social-security-insurance.md",
+        "promila-dps-scheme.md",
+        "rural-life-insurance.md",
+        "personal-pension-insurance.md",
+        "child-security-insurance.md",
+        // Keep old products for backward compatibility
+        "term-life-insurance.md",
+        "whole-life-insurance.md",
+        "universal-life-insurance.md",
+        "variable-life-insurance.md",
+        "group-life-insurance.md"
+    );
+
+    private final KnowledgeBaseCache knowledgeBaseCache;
+    private volatile Catalog catalog;
+    private volatile KnowledgeBaseText allProductKnowledgeBase;
+
+    ProductService(KnowledgeBaseCache knowledgeBaseCache) {
+        this.knowledgeBaseCache = knowledgeBaseCache;
+        this.catalog = loadCatalog();
+    }
+
+    /**
+     * Rebuild the catalog after knowledge base files changed; runs before the dependent indexes refresh
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onKnowledgeBaseChanged(KnowledgeBaseChangedEvent event) {
+        this.catalog = loadCatalog();
+    }
 
     /**
      * Get all available insurance products
      */
     public List<InsuranceProduct> getAllProducts() {
-        return List.of(
-            getTermLifeInsurance(),
-            getWholeLifeInsurance(),
-            getUniversalLifeInsurance(),
-            getVariableLifeInsurance(),
-            getGroupLifeInsurance()
-        );
+        return catalog.allProducts();
     }
 
     /**
      * Get product by type
      */
     public InsuranceProduct getProductByType(ProductType productType) {
-        return switch (productType) {
-            case TERM -> getTermLifeInsurance();
-            case WHOLE -> getWholeLifeInsurance();
-            case UNIVERSAL -> getUniversalLifeInsurance();
-            case VARIABLE -> getVariableLifeInsurance();
-            case GROUP -> getGroupLifeInsurance();
-            // JBC products - return null as they are primarily in knowledge base files
-            case TERM_BENEFIT_PENSION, THREE_INSTALLMENT, MULTIPLE_INSTALLMENT,
-                 JBC_MONTHLY_SAVINGS, JBC_EXPECTED_MONTHLY_SAVINGS, SOCIAL_SECURITY,
-                 PROMILA_DPS, RURAL_LIFE, PERSONAL_PENSION, CHILD_SECURITY -> null;
-        };
+        return catalog.byType().get(productType);
     }
 
     /**
      * Search products by keyword
      */
     public List<InsuranceProduct> searchProducts(String keyword) {
-        String lowerKeyword = keyword.toLowerCase();
-        return getAllProducts().stream()
-            .filter(product -> 
-                product.productName().toLowerCase().contains(lowerKeyword) ||
-                product.description().toLowerCase().contains(lowerKeyword) ||
-                product.productType().name().toLowerCase().contains(lowerKeyword)
-            )
-            .collect(Collectors.toList());
+        String lowerKeyword = keyword.toLowerCase(Locale.ROOT);
+        return catalog.searchEntries().stream()
+            .filter(entry -> entry.matches(lowerKeyword))
+            .map(SearchEntry::product)
+            .toList();
     }
 
     /**
      * Get product knowledge base content by file name
      */
     public String getProductKnowledgeBase(String fileName) {
-        try {
-            Resource resource = new ClassPathResource(KNOWLEDGE_BASE_PATH + fileName);
-            if (resource.exists()) {
-                return StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8);
-            }
-            return "Product information not available.";
-        } catch (IOException e) {
-            return "Product information not available.";
-        }
+        String content = knowledgeBaseCache.text(fileName);
+        return content != null ? content : NOT_AVAILABLE;
     }
 
     /**
      * Get product knowledge base content by product type
      */
     public String getProductKnowledgeBase(ProductType productType) {
-        String fileName = switch (productType) {
-            case TERM -> "term-life-insurance.md";
-            case WHOLE -> "whole-life-insurance.md";
-            case UNIVERSAL -> "universal-life-insurance.md";
-            case VARIABLE -> "variable-life-insurance.md";
-            case GROUP -> "group-life-insurance.md";
-            case TERM_BENEFIT_PENSION -> "term-benefit-pension-insurance.md";
-            case THREE_INSTALLMENT -> "three-installment-insurance.md";
-            case MULTIPLE_INSTALLMENT -> "multiple-installment-insurance.md";
-            case JBC_MONTHLY_SAVINGS -> "jbc-monthly-savings-scheme.md";
-            case JBC_EXPECTED_MONTHLY_SAVINGS -> "jbc-expected-monthly-savings.md";
-            case SOCIAL_SECURITY -> "social-security-insurance.md";
-            case PROMILA_DPS -> "promila-dps-scheme.md";
-            case RURAL_LIFE -> "rural-life-insurance.md";
-            case PERSONAL_PENSION -> "personal-pension-insurance.md";
-            case CHILD_SECURITY -> "child-security-insurance.md";
-        };
-        
-        return getProductKnowledgeBase(fileName);
+        return getProductKnowledgeBase(productType.knowledgeBaseFile());
+    }
+
+    /**
+     * Get the knowledge base file names, in order of importance
+     */
+    public List<String> getKnowledgeBaseFiles() {
+        return KNOWLEDGE_BASE_FILES;
     }
 
     /**
      * Get all product knowledge base content (for agent context)
-     * Loads all markdown files from the knowledgebase directory
+     * Built from the cached knowledge base files and kept for the knowledge base version it was built from
      */
     public String getAllProductKnowledgeBase() {
+        // Read before the files: text built while a reload is under way carries the old version and is rebuilt
+        long version = knowledgeBaseCache.version();
+        KnowledgeBaseText cached = allProductKnowledgeBase;
+        if (cached != null && cached.version() == version) {
+            return cached.text();
+        }
+
         StringBuilder knowledgeBase = new StringBuilder();
         knowledgeBase.append("# জীবন বীমা কর্পোরেশন - Insurance Products Knowledge Base\n\n");
         knowledgeBase.append("This knowledge base contains information about all available insurance products from Jiban Bima Corporation (জীবন বীমা কর্পোরেশন).\n\n");
         
-        // List of all knowledge base files (in order of importance)
-        String[] knowledgeBaseFiles = {
-            "term-benefit-pension-insurance.md",
-            "three-installment-insurance.md",
-            "multiple-installment-insurance.md",
-            "jbc-monthly-savings-scheme.md",
-            "jbc-expected-monthly-savings.md",
-            "social-security-insurance.md",
-            "promila-dps-scheme.md",
-            "rural-life-insurance.md",
-            "personal-pension-insurance.md",
-            "child-security-insurance.md",
-            // Keep old products for backward compatibility
-            "term-life-insurance.md",
-            "whole-life-insurance.md",
-            "universal-life-insurance.md",
-            "variable-life-insurance.md",
-            "group-life-insurance.md"
-        };
-        
-        for (String fileName : knowledgeBaseFiles) {
+        for (String fileName : KNOWLEDGE_BASE_FILES) {
             String content = getProductKnowledgeBase(fileName);
-            if (content != null && !content.equals("Product information not available.")) {
+            if (content != null && !content.equals(NOT_AVAILABLE)) {
                 knowledgeBase.append(content);
                 knowledgeBase.append("\n\n---\n\n");
             }
         }
         
-        return knowledgeBase.toString();
+        String text = knowledgeBase.toString();
+        allProductKnowledgeBase = new KnowledgeBaseText(version, text);
+        return text;
+    }
+
+    private Catalog loadCatalog() {
+        Map<ProductType, InsuranceProduct> products = new EnumMap<>(ProductType.class);
+        for (ProductType productType : ProductType.values()) {
+            InsuranceProduct product = loadProduct(productType);
+            if (product != null) {
+                products.put(productType, product);
+            }
+        }
+        List<InsuranceProduct> allProducts = List.copyOf(products.values());
+        return new Catalog(
+            Collections.unmodifiableMap(products),
+            allProducts,
+            allProducts.stream().map(SearchEntry::of).toList()
+        );
+    }
+
+    /**
+     * Hand-curated definitions are kept for the original products; the others are parsed
+     * from their knowledge base file
+     */
+    private InsuranceProduct loadProduct(ProductType productType) {
+        return switch (productType) {
+            case TERM -> getTermLifeInsurance();
+            case WHOLE -> getWholeLifeInsurance();
+            case UNIVERSAL -> getUniversalLifeInsurance();
+            case VARIABLE -> getVariableLifeInsurance();
+            case GROUP -> getGroupLifeInsurance();
+            case TERM_BENEFIT_PENSION, THREE_INSTALLMENT, MULTIPLE_INSTALLMENT,
+                 JBC_MONTHLY_SAVINGS, JBC_EXPECTED_MONTHLY_SAVINGS, SOCIAL_SECURITY,
+                 PROMILA_DPS, RURAL_LIFE, PERSONAL_PENSION, CHILD_SECURITY -> {
+                String markdown = getProductKnowledgeBase(productType);
+                yield markdown.equals(NOT_AVAILABLE) ? null : KnowledgeBaseProductParser.parse(productType, markdown);
+            }
+        };
+    }
+
+    private record Catalog(
+        Map<ProductType, InsuranceProduct> byType,
+        List<InsuranceProduct> allProducts,
+        List<SearchEntry> searchEntries
+    ) {}
+
+    /**
+     * The combined knowledge base text and the knowledge base version it was built from
+     */
+    private record KnowledgeBaseText(long version, String text) {}
+
+    /**
+     * Product with its search fields lowercased once when the catalog is loaded
+     */
+    private record SearchEntry(InsuranceProduct product, String name, String description, String type) {
+
+        static SearchEntry of(InsuranceProduct product) {
+            return new SearchEntry(
+                product,
+                product.productName().toLowerCase(Locale.ROOT),
+                product.description().toLowerCase(Locale.ROOT),
+                product.productType().name().toLowerCase(Locale.ROOT)
+            );
+        }
+
+        boolean matches(String lowerKeyword) {
+            return name.contains(lowerKeyword) || description.contains(lowerKeyword) || type.contains(lowerKeyword);
+        }
     }
 
     // Product definitions
@@ -0,0 +1,124 @@
+package com.i2gether.lic.services;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Single-flight for cacheable opening questions: while one session is generating the answer to a
+ * question, sessions asking the same (normalised) question against the same knowledge base version
+ * wait for that answer instead of starting their own model call.
+ *
+ * The first caller of {@link #join} leads and must end its flight with {@link Flight#complete} or
+ * {@link Flight#abandon}; the others follow and get the leader's answer, or an empty result if the
+ * leader failed or its answer was only for its own visitor, in which case they generate the answer
+ * themselves. Followers stop waiting at their own turn deadline.
+ */
+@Component
+public class QuestionCoalescer implements MeterBinder {
+
+    private final ConcurrentMap<FlightKey, CompletableFuture<Optional<ResponseCache.CachedAnswer>>> inFlight =
+        new ConcurrentHashMap<>();
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder followers = new LongAdder();
+
+    public Flight join(String question, long knowledgeBaseVersion) {
+        FlightKey key = new FlightKey(ResponseCache.normalize(question), knowledgeBaseVersion);
+        CompletableFuture<Optional<ResponseCache.CachedAnswer>> created = new CompletableFuture<>();
+        CompletableFuture<Optional<ResponseCache.CachedAnswer>> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            followers.increment();
+            return new Flight(key, existing, false);
+        }
+        leaders.increment();
+        return new Flight(key, created, true);
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * {@code lic.agent.coalesced.requests{role}} counts leaders (model calls made) and followers (model
+     * calls saved); followers / (leaders + followers) is the coalescing ratio
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        coalescedCounter(registry, "leader", leaders);
+        coalescedCounter(registry, "follower", followers);
+        Gauge.builder("lic.agent.coalesced.in.flight", inFlight, ConcurrentMap::size)
+            .description("Opening questions currently being answered for one or more sessions")
+            .register(registry);
+    }
+
+    private static void coalescedCounter(MeterRegistry registry, String role, LongAdder count) {
+        FunctionCounter.builder("lic.agent.coalesced.requests", count, LongAdder::sum)
+            .description("Cacheable opening questions, by whether they called the model or waited for an identical one")
+            .tag("role", role)
+            .register(registry);
+    }
+
+    private record FlightKey(String question, long knowledgeBaseVersion) {}
+
+    /**
+     * One session's part in answering a question
+     */
+    public final class Flight {
+
+        private final FlightKey key;
+        private final CompletableFuture<Optional<ResponseCache.CachedAnswer>> answer;
+        private final boolean leader;
+
+        private Flight(FlightKey key, CompletableFuture<Optional<ResponseCache.CachedAnswer>> answer, boolean leader) {
+            this.key = key;
+            this.answer = answer;
+            this.leader = leader;
+        }
+
+        /**
+         * Whether this session has to generate the answer
+         */
+        public boolean leader() {
+            return leader;
+        }
+
+        /**
+         * For followers, the leader's answer, empty if the leader failed or didn't share its answer
+         */
+        public CompletableFuture<Optional<ResponseCache.CachedAnswer>> answer() {
+            return answer;
+        }
+
+        /**
+         * Hand the leader's answer to the followers
+         */
+        public void complete(ResponseCache.CachedAnswer cachedAnswer) {
+            finish(Optional.of(cachedAnswer));
+        }
+
+        /**
+         * Release the followers without an answer; no-op if the flight was already completed
+         */
+        public void abandon() {
+            finish(Optional.empty());
+        }
+
+        private void finish(Optional<ResponseCache.CachedAnswer> result) {
+            if (!leader) {
+                return;
+            }
+            // Later arrivals start a new flight (or hit the response cache) from here on
+            inFlight.remove(key, answer);
+            answer.complete(result);
+        }
+    }
+}
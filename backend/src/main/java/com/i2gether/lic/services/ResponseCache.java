@@ -0,0 +1,138 @@
+package com.i2gether.lic.services;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.i2gether.lic.models.ConversationState;
+import com.i2gether.lic.models.KnowledgeBaseChangedEvent;
+import com.i2gether.lic.models.ResponseCacheProperties;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Answers to first-turn questions, so a question many visitors open with is only sent to the
+ * model once. Questions are keyed by their normalised tokens; with a similarity threshold set,
+ * a question without an exact entry is also matched against the cached questions by
+ * {@link HashedTextEmbedding} cosine similarity.
+ *
+ * Every answer records the knowledge base version it was generated from. A knowledge base change
+ * clears the cache, and an answer from an older version is neither stored nor served, so one
+ * generated while the change was being applied can't slip in afterwards.
+ */
+@Component
+public class ResponseCache implements MeterBinder {
+
+    private final ResponseCacheProperties properties;
+    private final KnowledgeBaseCache knowledgeBase;
+    private final Cache<String, CachedAnswer> answers;
+    private final LongAdder similarHits = new LongAdder();
+
+    ResponseCache(ResponseCacheProperties properties, KnowledgeBaseCache knowledgeBase) {
+        this.properties = properties;
+        this.knowledgeBase = knowledgeBase;
+        this.answers = Caffeine.newBuilder()
+            .maximumSize(properties.maximumSize())
+            .expireAfterWrite(properties.timeToLive())
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Whether answers to this question may be cached at all
+     */
+    public boolean accepts(String question) {
+        return properties.enabled() && !question.isBlank() && question.length() <= properties.maxQuestionLength()
+            && !normalize(question).isEmpty();
+    }
+
+    /**
+     * Knowledge base version to pass to {@link #put}; read it before generating the answer
+     */
+    public long knowledgeBaseVersion() {
+        return knowledgeBase.version();
+    }
+
+    /**
+     * The cached answer to the question, or to a similar enough question, or null
+     */
+    public @Nullable CachedAnswer get(String question) {
+        if (!accepts(question)) {
+            return null;
+        }
+        long version = knowledgeBase.version();
+        CachedAnswer exact = answers.getIfPresent(normalize(question));
+        if (exact != null) {
+            return exact.knowledgeBaseVersion() == version ? exact : null;
+        }
+        if (properties.similarityThreshold() <= 0) {
+            return null;
+        }
+        float[] embedding = HashedTextEmbedding.embed(question);
+        CachedAnswer best = null;
+        double bestSimilarity = properties.similarityThreshold();
+        for (CachedAnswer candidate : answers.asMap().values()) {
+            double similarity = HashedTextEmbedding.cosine(embedding, candidate.embedding());
+            if (similarity >= bestSimilarity && candidate.knowledgeBaseVersion() == version) {
+                best = candidate;
+                bestSimilarity = similarity;
+            }
+        }
+        if (best != null) {
+            similarHits.increment();
+        }
+        return best;
+    }
+
+    /**
+     * Cache an answer generated against the given knowledge base version
+     */
+    public void put(String question, String answer, ConversationState conversationState, boolean requiresLeadCapture,
+                    long knowledgeBaseVersion) {
+        if (!accepts(question) || answer.isBlank() || knowledgeBaseVersion != knowledgeBase.version()) {
+            return;
+        }
+        float[] embedding = properties.similarityThreshold() > 0 ? HashedTextEmbedding.embed(question) : null;
+        answers.put(normalize(question),
+            new CachedAnswer(answer, conversationState, requiresLeadCapture, knowledgeBaseVersion, embedding));
+    }
+
+    public long size() {
+        return answers.estimatedSize();
+    }
+
+    @EventListener
+    public void onKnowledgeBaseChanged(KnowledgeBaseChangedEvent event) {
+        answers.invalidateAll();
+    }
+
+    /**
+     * Size, hit/miss and eviction meters under cache=agent.responses, plus hits on similar questions
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, answers, "agent.responses");
+        FunctionCounter.builder("lic.agent.response.cache.similar.hits", similarHits, LongAdder::sum)
+            .description("Cached answers served for a similar rather than identical question")
+            .register(registry);
+    }
+
+    static String normalize(String question) {
+        return String.join(" ", TextTokenizer.tokenize(question));
+    }
+
+    public record CachedAnswer(
+        String answer,
+        ConversationState conversationState,
+        boolean requiresLeadCapture,
+        long knowledgeBaseVersion,
+        float @Nullable [] embedding
+    ) {}
+}
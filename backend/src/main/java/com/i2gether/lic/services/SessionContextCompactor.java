@@ -0,0 +1,196 @@
+package com.i2gether.lic.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.google.adk.events.Event;
+import com.google.adk.runner.Runner;
+import com.google.adk.sessions.BaseSessionService;
+import com.google.adk.sessions.Session;
+import com.google.genai.types.Content;
+import com.google.genai.types.Part;
+import com.i2gether.lic.models.ContextBudgetProperties;
+
+import io.reactivex.rxjava3.core.Scheduler;
+
+/**
+ * Keeps a session's context within the configured budget by compacting its history.
+ *
+ * The runner replays the whole session history on every turn, so the prompt grows with each one.
+ * Once a session passes the turn or prompt token budget, its older turns are condensed into a
+ * single summary event (or just dropped, with summaries disabled) and only the most recent turns
+ * are kept verbatim. Compaction runs on the agent scheduler, off the request path: the summary is
+ * generated without holding anything, and only the swap of the session's events takes the
+ * session's turn lock. The full transcript for lead capture lives in ConversationHistoryStore
+ * and is not affected.
+ */
+@Component
+public class SessionContextCompactor {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionContextCompactor.class);
+    private static final String USER_AUTHOR = "user";
+    static final String SUMMARY_PREFIX = "Summary of the earlier conversation:\n";
+
+    private final Runner runner;
+    private final ConversationSummarizer summarizer;
+    private final ContextBudgetProperties properties;
+    private final AgentMetrics metrics;
+    private final Scheduler agentScheduler;
+
+    SessionContextCompactor(Runner runner, ConversationSummarizer summarizer, ContextBudgetProperties properties,
+                            AgentMetrics metrics, Scheduler agentScheduler) {
+        this.runner = runner;
+        this.summarizer = summarizer;
+        this.properties = properties;
+        this.metrics = metrics;
+        this.agentScheduler = agentScheduler;
+    }
+
+    /**
+     * Record a completed turn and schedule a compaction if the session is over budget
+     *
+     * @param promptTokens prompt size of the turn's last model call, i.e. the current context size
+     * @return whether a compaction was scheduled
+     */
+    public boolean turnCompleted(SessionHandle session, int promptTokens) {
+        int turns = session.completeTurn();
+        if (!properties.enabled()
+                || (promptTokens <= properties.maxPromptTokens() && turns < properties.maxTurns())
+                || !session.startCompaction()) {
+            return false;
+        }
+        agentScheduler.scheduleDirect(() -> {
+            int remainingTurns = -1;
+            try {
+                remainingTurns = metrics.compaction(properties.summarize()).observe(() -> compact(session));
+            } catch (RuntimeException e) {
+                log.warn("Could not compact session {}: {}", session.id(), e.toString());
+            } finally {
+                session.endCompaction(remainingTurns);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Compact the session's history now
+     *
+     * @return number of turns left in the history, or -1 if there was nothing to compact
+     */
+    int compact(SessionHandle session) {
+        BaseSessionService sessionService = runner.sessionService();
+        String userId = session.key().userId().toString();
+
+        Session snapshot = sessionService.getSession(runner.appName(), userId, session.id(), Optional.empty()).blockingGet();
+        if (snapshot == null) {
+            return -1;
+        }
+        List<Event> events = List.copyOf(snapshot.events());
+        int keepFrom = keepFrom(events, properties.keepTurns());
+        if (keepFrom == 0) {
+            return -1;
+        }
+        // The slow part, done while further turns may run
+        Event summary = properties.summarize() ? summaryEvent(summarizer.summarize(render(events.subList(0, keepFrom)))) : null;
+
+        session.lock();
+        try {
+            Session current = sessionService.getSession(runner.appName(), userId, session.id(), Optional.empty()).blockingGet();
+            if (current == null || !startsWith(current.events(), events, keepFrom)) {
+                return -1; // Session was evicted or rebuilt meanwhile
+            }
+            List<Event> kept = List.copyOf(current.events().subList(keepFrom, current.events().size()));
+
+            List<Event> compactedEvents = new ArrayList<>(kept.size() + 1);
+            if (summary != null) {
+                compactedEvents.add(summary);
+            }
+            compactedEvents.addAll(kept);
+            if (sessionService instanceof DurableSessionService durable) {
+                // Swapped in one step, so a crash midway can't lose the conversation
+                durable.replaceEvents(current, compactedEvents);
+            } else {
+                sessionService.deleteSession(runner.appName(), userId, session.id()).blockingAwait();
+                Session compacted = sessionService
+                    .createSession(runner.appName(), userId, new ConcurrentHashMap<>(current.state()), session.id())
+                    .blockingGet();
+                for (Event event : compactedEvents) {
+                    sessionService.appendEvent(compacted, event).blockingGet();
+                }
+            }
+
+            metrics.recordCompaction(keepFrom);
+            log.debug("Compacted session {}: replaced {} events with {}", session.id(), keepFrom,
+                summary != null ? "a summary" : "nothing");
+            return (int) kept.stream().filter(event -> USER_AUTHOR.equals(event.author())).count();
+        } finally {
+            session.unlock();
+        }
+    }
+
+    /**
+     * Index of the first event of the last {@code keepTurns} user turns, or 0 if there are no more turns than that.
+     * The first event is never a turn boundary, which keeps a previous summary (always first) out of the count.
+     */
+    static int keepFrom(List<Event> events, int keepTurns) {
+        int turns = 0;
+        for (int i = events.size() - 1; i > 0; i--) {
+            if (USER_AUTHOR.equals(events.get(i).author()) && ++turns == keepTurns) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Text of the events to summarize, one line per message; a previous summary is included as is
+     */
+    static String render(List<Event> events) {
+        return events.stream()
+            .filter(event -> event.stringifyContent() != null && !event.stringifyContent().isBlank())
+            .map(event -> {
+                String text = event.stringifyContent();
+                if (text.startsWith(SUMMARY_PREFIX)) {
+                    return text;
+                }
+                return (USER_AUTHOR.equals(event.author()) ? "Customer: " : "Agent: ") + text;
+            })
+            .collect(Collectors.joining("\n"));
+    }
+
+    private static @Nullable Event summaryEvent(String summary) {
+        if (summary.isBlank()) {
+            return null;
+        }
+        return Event.builder()
+            .id(Event.generateEventId())
+            .invocationId("compaction-" + UUID.randomUUID())
+            .author(USER_AUTHOR)
+            .content(Content.builder()
+                .role(USER_AUTHOR)
+                .parts(List.of(Part.fromText(SUMMARY_PREFIX + summary)))
+                .build())
+            .build();
+    }
+
+    private static boolean startsWith(List<Event> events, List<Event> prefix, int length) {
+        if (events.size() < length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (!events.get(i).id().equals(prefix.get(i).id())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
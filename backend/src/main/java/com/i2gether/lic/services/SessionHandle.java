@@ -0,0 +1,103 @@
+package com.i2gether.lic.services;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.i2gether.lic.models.SessionKey;
+
+/**
+ * A live agent session as held by {@link AgentSessionCache}: the key of the session in the
+ * runner's session service plus per-session accounting that lives and dies with it.
+ *
+ * Turns of one session run one at a time under the turn lock, which history compaction also
+ * takes while it swaps the session's events. The lock is a semaphore rather than a
+ * ReentrantLock because a streamed turn releases it on a different thread than it took it on.
+ */
+public final class SessionHandle {
+
+    private final SessionKey key;
+    private final AtomicLong tokens = new AtomicLong();
+    private final Semaphore turnLock = new Semaphore(1);
+    private final AtomicInteger turns = new AtomicInteger();
+    private final AtomicInteger turnsSinceCompaction = new AtomicInteger();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    SessionHandle(SessionKey key) {
+        this.key = key;
+    }
+
+    public SessionKey key() {
+        return key;
+    }
+
+    /**
+     * Session ID in the runner's session service
+     */
+    public String id() {
+        return key.sessionId().toString();
+    }
+
+    /**
+     * Tokens used by the session so far
+     */
+    public long tokens() {
+        return tokens.get();
+    }
+
+    /**
+     * Add a turn's tokens, returning the new session total
+     */
+    public long addTokens(long turnTokens) {
+        return tokens.addAndGet(turnTokens);
+    }
+
+    void lock() {
+        turnLock.acquireUninterruptibly();
+    }
+
+    void unlock() {
+        turnLock.release();
+    }
+
+    /**
+     * Count a completed turn, returning the number of turns since the history was last compacted
+     */
+    int completeTurn() {
+        turns.incrementAndGet();
+        return turnsSinceCompaction.incrementAndGet();
+    }
+
+    /**
+     * Continue a stored session that already has {@code completedTurns} turns in its history
+     */
+    void resume(int completedTurns) {
+        turns.set(completedTurns);
+        turnsSinceCompaction.set(completedTurns);
+    }
+
+    /**
+     * Whether no turn of this session has completed yet
+     */
+    boolean isNew() {
+        return turns.get() == 0;
+    }
+
+    /**
+     * Claim the session for compaction; false if a compaction is already running
+     */
+    boolean startCompaction() {
+        return compacting.compareAndSet(false, true);
+    }
+
+    /**
+     * Finish a compaction that left {@code remainingTurns} turns in the session history (-1 if it did nothing)
+     */
+    void endCompaction(int remainingTurns) {
+        if (remainingTurns >= 0) {
+            turnsSinceCompaction.set(remainingTurns);
+        }
+        compacting.set(false);
+    }
+}
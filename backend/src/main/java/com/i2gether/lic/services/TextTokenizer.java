@@ -0,0 +1,65 @@
+package com.i2gether.lic.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tokenizer shared by the knowledge base indexes.
+ *
+ * Splits on anything that is not a letter, digit or combining mark, so Bengali words keep
+ * their vowel signs and virama (they are marks, not letters) and English words are split as
+ * usual. English tokens are lowercased, stripped of a few stopwords and a plural "s".
+ */
+public final class TextTokenizer {
+
+    private static final Set<String> STOPWORDS = Set.of(
+        "a", "an", "and", "are", "be", "can", "do", "does", "for", "how", "i", "in", "is",
+        "it", "me", "my", "of", "on", "or", "the", "to", "what", "with"
+    );
+
+    private TextTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        text.codePoints().forEach(cp -> {
+            if (isTokenCodePoint(cp)) {
+                current.appendCodePoint(Character.toLowerCase(cp));
+            } else if (!current.isEmpty()) {
+                addToken(tokens, current.toString());
+                current.setLength(0);
+            }
+        });
+        if (!current.isEmpty()) {
+            addToken(tokens, current.toString());
+        }
+        return tokens;
+    }
+
+    private static boolean isTokenCodePoint(int cp) {
+        if (Character.isLetterOrDigit(cp)) {
+            return true;
+        }
+        int type = Character.getType(cp);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK;
+    }
+
+    private static void addToken(List<String> tokens, String token) {
+        if (STOPWORDS.contains(token)) {
+            return;
+        }
+        tokens.add(normalize(token));
+    }
+
+    private static String normalize(String token) {
+        // Crude plural folding for ASCII words: "premiums" -> "premium", but keep "class", "bonus"
+        int length = token.length();
+        if (length > 3 && token.charAt(length - 1) == 's' && token.charAt(length - 2) < 0x80
+                && token.charAt(length - 2) != 's' && token.charAt(length - 2) != 'u') {
+            return token.substring(0, length - 1);
+        }
+        return token;
+    }
+}
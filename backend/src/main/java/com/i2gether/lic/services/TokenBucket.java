@@ -0,0 +1,62 @@
+package com.i2gether.lic.services;
+
+/**
+ * Token bucket refilled continuously at a fixed rate, up to its capacity
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(int capacity, double tokensPerMinute, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerMinute / 60e9;
+        this.tokens = capacity;
+        this.refilledAt = nowNanos;
+    }
+
+    /**
+     * Take a token if there is one
+     *
+     * @return 0 if a token was taken, otherwise nanoseconds until the next token is available
+     */
+    synchronized long tryTake(long nowNanos) {
+        long waitNanos = refill(nowNanos);
+        if (waitNanos == 0) {
+            tokens--;
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Take a token from this bucket and one from the other if both have one, otherwise take neither.
+     * Locks this bucket before the other, so callers must always pass the buckets in the same order.
+     *
+     * @return 0 if the tokens were taken, otherwise nanoseconds until both buckets have a token
+     */
+    long tryTakeWith(TokenBucket other, long nowNanos) {
+        synchronized (this) {
+            synchronized (other) {
+                long waitNanos = Math.max(refill(nowNanos), other.refill(nowNanos));
+                if (waitNanos == 0) {
+                    tokens--;
+                    other.tokens--;
+                }
+                return waitNanos;
+            }
+        }
+    }
+
+    /**
+     * Add the tokens accrued since the last refill; the caller holds the lock
+     *
+     * @return 0 if a token is available, otherwise nanoseconds until one is
+     */
+    private long refill(long nowNanos) {
+        tokens = Math.min(capacity, tokens + (nowNanos - refilledAt) * tokensPerNano);
+        refilledAt = nowNanos;
+        return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+}
@@ -0,0 +1,66 @@
+package com.i2gether.lic.services;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.google.adk.events.Event;
+import com.google.genai.types.GenerateContentResponseUsageMetadata;
+import com.i2gether.lic.models.TokenUsage;
+
+/**
+ * Sums the token usage reported on the events of one turn.
+ *
+ * Every model call of the turn ends in a non-partial event; in SSE mode it is preceded by partial
+ * events whose usage, when present, is cumulative for the call. A call is therefore counted once,
+ * from its final event, or from its last partial event if the final one carries no usage.
+ */
+final class TokenUsageCollector {
+
+    private TokenUsage total = TokenUsage.NONE;
+    private @Nullable TokenUsage pendingPartial;
+    private int lastPromptTokens;
+
+    void accept(Event event) {
+        TokenUsage usage = event.usageMetadata().map(TokenUsageCollector::toUsage).orElse(null);
+        if (event.partial().orElse(false)) {
+            if (usage != null) {
+                pendingPartial = usage;
+            }
+            return;
+        }
+        record(usage != null ? usage : pendingPartial);
+        pendingPartial = null;
+    }
+
+    /**
+     * Tokens used by all model calls of the turn
+     */
+    TokenUsage total() {
+        if (pendingPartial != null) {
+            // Stream ended (or was cut off) without a final event for the last call
+            record(pendingPartial);
+            pendingPartial = null;
+        }
+        return total;
+    }
+
+    /**
+     * Prompt size of the most recent model call, i.e. the current size of the session context
+     */
+    int lastPromptTokens() {
+        return lastPromptTokens;
+    }
+
+    private void record(@Nullable TokenUsage call) {
+        if (call == null) {
+            return;
+        }
+        total = total.plus(call);
+        lastPromptTokens = call.promptTokens();
+    }
+
+    private static TokenUsage toUsage(GenerateContentResponseUsageMetadata metadata) {
+        int prompt = metadata.promptTokenCount().orElse(0);
+        int response = metadata.candidatesTokenCount().orElse(0);
+        return new TokenUsage(prompt, response, metadata.totalTokenCount().orElse(prompt + response));
+    }
+}
@@ -0,0 +1,153 @@
+package com.i2gether.lic.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Frozen conversation transcripts, stored deflate-compressed and referenced from leads by ID.
+ *
+ * A transcript never changes once frozen, so it is compressed exactly once and only inflated
+ * when a human agent actually opens it. Without a directory the compressed bytes are kept in
+ * memory; with one each transcript is a file and nothing is held on the heap.
+ */
+public class TranscriptStore {
+
+    private static final String FILE_SUFFIX = ".transcript";
+
+    private final @Nullable Path directory;
+    private final Map<UUID, byte[]> transcripts = new ConcurrentHashMap<>();
+
+    public TranscriptStore(@Nullable Path directory) {
+        this.directory = directory;
+        if (directory != null) {
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not create transcript directory " + directory, e);
+            }
+        }
+    }
+
+    /**
+     * Compress and store the messages, returning the ID to resolve them with later. With a directory
+     * the transcript is on disk, file and directory entry both synced, before the ID is returned.
+     */
+    public UUID freeze(List<String> messages) {
+        UUID transcriptId = UUID.randomUUID();
+        byte[] compressed = compress(messages);
+        if (directory == null) {
+            transcripts.put(transcriptId, compressed);
+            return transcriptId;
+        }
+        Path file = file(transcriptId);
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(compressed);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store transcript " + transcriptId, e);
+        }
+        return transcriptId;
+    }
+
+    /**
+     * The messages of a transcript, or null if there is no such transcript
+     */
+    public @Nullable List<String> get(UUID transcriptId) {
+        byte[] compressed = directory == null ? transcripts.get(transcriptId) : read(transcriptId);
+        return compressed == null ? null : decompress(compressed);
+    }
+
+    private @Nullable byte[] read(UUID transcriptId) {
+        try {
+            return Files.readAllBytes(file(transcriptId));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read transcript " + transcriptId, e);
+        }
+    }
+
+    /**
+     * Make the rename durable; a lead must never reference a transcript that a crash can lose
+     */
+    private void syncDirectory() throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return; // Directories can't be opened on every platform (e.g. Windows); renames are durable there
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    private Path file(UUID transcriptId) {
+        return directory.resolve(transcriptId + FILE_SUFFIX);
+    }
+
+    /**
+     * Message count followed by length-prefixed UTF-8 messages, deflated; messages may contain newlines
+     */
+    static byte[] compress(List<String> messages) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            out.writeInt(messages.size());
+            for (String message : messages) {
+                byte[] utf8 = message.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(utf8.length);
+                out.write(utf8);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // In-memory streams don't fail
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    static List<String> decompress(byte[] compressed) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(compressed)))) {
+            int count = in.readInt();
+            List<String> messages = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                messages.add(new String(in.readNBytes(in.readInt()), StandardCharsets.UTF_8));
+            }
+            return List.copyOf(messages);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt transcript", e);
+        }
+    }
+}
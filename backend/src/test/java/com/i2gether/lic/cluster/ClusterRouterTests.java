@@ -0,0 +1,137 @@
+package com.i2gether.lic.cluster;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.i2gether.lic.models.ClusterProperties;
+
+class ClusterRouterTests {
+
+	private static final URI A = URI.create("http://node-a:5098");
+	private static final URI B = URI.create("http://node-b:5098");
+	private static final URI C = URI.create("http://node-c:5098");
+	private static final URI D = URI.create("http://node-d:5098");
+	private static final String SECRET = "cluster-secret";
+	private static final String INTERACT = "/api/v1/agent/interact";
+
+	@Test
+	void newSessionsAreOwnedByTheLocalNode() {
+		ClusterRouter router = new ClusterRouter(properties(B));
+		MockHttpServletRequest request = new MockHttpServletRequest();
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(router.ownerOf(router.newSessionId(), request)).isNull();
+		}
+	}
+
+	@Test
+	void forwardedRequestsAreNotForwardedAgain() {
+		ClusterRouter router = new ClusterRouter(properties(A));
+		UUID sessionId = sessionNotOwnedBy(A);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		assertThat(router.ownerOf(sessionId, request)).isNotNull();
+
+		MockHttpServletRequest forwarded = forwardedBy(B, sign(new ClusterRouter(properties(B)), sessionId, Instant.now()));
+		assertThat(router.isForwarded(forwarded, sessionId)).isTrue();
+		assertThat(router.ownerOf(sessionId, forwarded)).isNull();
+	}
+
+	@Test
+	void spoofedForwardedByHeaderIsStillRateLimitedAndRouted() {
+		ClusterRouter router = new ClusterRouter(properties(A));
+		ClusterRouter outsider = new ClusterRouter(new ClusterProperties(true, B, List.of(A, B, C), "guessed-secret",
+			128, Duration.ofSeconds(2), Duration.ofSeconds(30)));
+		UUID sessionId = sessionNotOwnedBy(A);
+
+		// AgentController applies the rate limits to every request that isn't forwarded
+		for (MockHttpServletRequest spoofed : List.of(
+			forwardedBy(B, null),
+			forwardedBy(B, "not-a-signature"),
+			forwardedBy(B, sign(outsider, sessionId, Instant.now())),
+			forwardedBy(D, sign(new ClusterRouter(properties(B)), sessionId, Instant.now())))) {
+			assertThat(router.isForwarded(spoofed, sessionId)).isFalse();
+			assertThat(router.ownerOf(sessionId, spoofed)).isNotNull();
+		}
+	}
+
+	@Test
+	void signatureIsOnlyAcceptedOnceAndForItsOwnRequest() {
+		ClusterRouter router = new ClusterRouter(properties(A));
+		ClusterRouter peer = new ClusterRouter(properties(B));
+		UUID sessionId = sessionNotOwnedBy(A);
+
+		String captured = sign(peer, sessionId, Instant.now());
+		assertThat(router.isForwarded(forwardedBy(B, captured), sessionId)).isTrue();
+		assertThat(router.isForwarded(forwardedBy(B, captured), sessionId)).as("replayed").isFalse();
+
+		assertThat(router.isForwarded(forwardedBy(B, sign(peer, sessionId, Instant.now())), UUID.randomUUID()))
+			.as("another session").isFalse();
+		MockHttpServletRequest otherPath = forwardedBy(B, sign(peer, sessionId, Instant.now()));
+		otherPath.setRequestURI("/api/v1/agent/interact/stream");
+		assertThat(router.isForwarded(otherPath, sessionId)).as("another path").isFalse();
+	}
+
+	@Test
+	void staleSignatureIsRejected() {
+		ClusterRouter router = new ClusterRouter(properties(A));
+		UUID sessionId = sessionNotOwnedBy(A);
+		String stale = sign(new ClusterRouter(properties(B)), sessionId, Instant.now().minus(Duration.ofMinutes(10)));
+
+		assertThat(router.isForwarded(forwardedBy(B, stale), sessionId)).isFalse();
+	}
+
+	@Test
+	void forwardedByHeaderIsIgnoredOutsideACluster() {
+		ClusterRouter router = new ClusterRouter(new ClusterProperties(false, null, List.of(), null, 128,
+			Duration.ofSeconds(2), Duration.ofSeconds(30)));
+
+		assertThat(router.isForwarded(forwardedBy(B, "0:nonce:anything"), UUID.randomUUID())).isFalse();
+	}
+
+	@Test
+	void selfMustBeOneOfTheNodes() {
+		assertThatIllegalStateException().isThrownBy(() -> new ClusterRouter(properties(D)));
+	}
+
+	@Test
+	void sharedSecretIsRequired() {
+		assertThatIllegalStateException().isThrownBy(() -> new ClusterRouter(new ClusterProperties(true, A,
+			List.of(A, B, C), " ", 128, Duration.ofSeconds(2), Duration.ofSeconds(30))));
+	}
+
+	private static UUID sessionNotOwnedBy(URI node) {
+		ConsistentHashRing ring = new ConsistentHashRing(List.of(A, B, C), 128);
+		UUID sessionId = UUID.randomUUID();
+		while (ring.owner(sessionId.toString()).equals(node)) {
+			sessionId = UUID.randomUUID();
+		}
+		return sessionId;
+	}
+
+	private static String sign(ClusterRouter from, UUID sessionId, Instant now) {
+		return from.signature("POST", INTERACT, sessionId, now);
+	}
+
+	private static MockHttpServletRequest forwardedBy(URI node, String signature) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", INTERACT);
+		request.addHeader(ClusterRouter.FORWARDED_BY, node.toString());
+		if (signature != null) {
+			request.addHeader(ClusterRouter.FORWARD_SIGNATURE, signature);
+		}
+		return request;
+	}
+
+	private static ClusterProperties properties(URI self) {
+		return new ClusterProperties(true, self, List.of(A, B, C), SECRET, 128, Duration.ofSeconds(2),
+			Duration.ofSeconds(30));
+	}
+}
@@ -0,0 +1,59 @@
+package com.i2gether.lic.cluster;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class ConsistentHashRingTests {
+
+	private static final URI A = URI.create("http://node-a:5098");
+	private static final URI B = URI.create("http://node-b:5098");
+	private static final URI C = URI.create("http://node-c:5098");
+	private static final URI D = URI.create("http://node-d:5098");
+
+	@Test
+	void ownerDoesNotDependOnNodeOrder() {
+		ConsistentHashRing ring = new ConsistentHashRing(List.of(A, B, C), 128);
+		ConsistentHashRing reordered = new ConsistentHashRing(List.of(C, A, B), 128);
+
+		for (int i = 0; i < 1000; i++) {
+			String key = UUID.randomUUID().toString();
+			assertThat(reordered.owner(key)).isEqualTo(ring.owner(key));
+		}
+	}
+
+	@Test
+	void spreadsKeysRoughlyEvenly() {
+		ConsistentHashRing ring = new ConsistentHashRing(List.of(A, B, C), 128);
+		Map<URI, Integer> counts = new HashMap<>();
+		for (int i = 0; i < 30_000; i++) {
+			counts.merge(ring.owner(UUID.randomUUID().toString()), 1, Integer::sum);
+		}
+
+		assertThat(counts).containsOnlyKeys(A, B, C);
+		assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(7_000, 13_000));
+	}
+
+	@Test
+	void addingANodeOnlyMovesKeysToIt() {
+		ConsistentHashRing before = new ConsistentHashRing(List.of(A, B, C), 128);
+		ConsistentHashRing after = new ConsistentHashRing(List.of(A, B, C, D), 128);
+		int moved = 0;
+		for (int i = 0; i < 10_000; i++) {
+			String key = UUID.randomUUID().toString();
+			if (!after.owner(key).equals(before.owner(key))) {
+				assertThat(after.owner(key)).isEqualTo(D);
+				moved++;
+			}
+		}
+
+		// About a quarter of the keys
+		assertThat(moved).isBetween(1_500, 3_500);
+	}
+}
@@ -0,0 +1,37 @@
+package com.i2gether.lic.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.functions.Function;
+import io.reactivex.rxjava3.plugins.RxJavaPlugins;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+class RxJavaHooksTests {
+
+	@AfterEach
+	void reset() {
+		RxJavaPlugins.reset();
+	}
+
+	@Test
+	void closingRestoresThePreviousHandlers() {
+		RxJavaPlugins.setIoSchedulerHandler(scheduler -> scheduler);
+		Function<? super Scheduler, ? extends Scheduler> previous = RxJavaPlugins.getIoSchedulerHandler();
+		RxJavaHooks hooks = new RxJavaHooks();
+		Scheduler agentScheduler = Schedulers.single();
+
+		hooks.propagateContext();
+		hooks.replaceIoScheduler(agentScheduler);
+		assertThat(RxJavaPlugins.getScheduleHandler()).isNotNull();
+		assertThat(Schedulers.io()).isSameAs(agentScheduler);
+
+		hooks.destroy();
+		assertThat(RxJavaPlugins.getScheduleHandler()).isNull();
+		assertThat(RxJavaPlugins.getIoSchedulerHandler()).isSameAs(previous);
+		assertThat(Schedulers.io()).isNotSameAs(agentScheduler);
+	}
+}
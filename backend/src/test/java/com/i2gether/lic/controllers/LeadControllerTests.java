@@ -0,0 +1,127 @@
+package com.i2gether.lic.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.assertj.MockMvcTester;
+import org.springframework.test.web.servlet.assertj.MvcTestResult;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+@SpringBootTest(properties = {
+	"com.i2gether.lic.lead-store.type=MEMORY",
+	"com.i2gether.lic.session-store.type=MEMORY"
+})
+@AutoConfigureMockMvc
+class LeadControllerTests {
+
+	private static final String LEADS = "/api/v1/agent/admin/leads";
+
+	@Autowired
+	private MockMvcTester mvc;
+
+	@Autowired
+	private JsonMapper jsonMapper;
+
+	@Test
+	void malformedPageRequestsAreBadRequests() {
+		assertThat(mvc.get().uri(LEADS + "?limit=0")).hasStatus(HttpStatus.BAD_REQUEST);
+		assertThat(mvc.get().uri(LEADS + "?limit=501")).hasStatus(HttpStatus.BAD_REQUEST);
+		assertThat(mvc.get().uri(LEADS + "?cursor=not-a-cursor")).hasStatus(HttpStatus.BAD_REQUEST);
+		assertThat(mvc.get().uri(LEADS + "?from=2026-01-02T00:00:00&to=2026-01-01T00:00:00"))
+			.hasStatus(HttpStatus.BAD_REQUEST);
+		assertThat(mvc.get().uri(LEADS + "/export?from=2026-01-02T00:00:00&to=2026-01-01T00:00:00"))
+			.hasStatus(HttpStatus.BAD_REQUEST);
+	}
+
+	@Test
+	void pagesFollowTheNextCursorNewestFirst() throws Exception {
+		LocalDateTime from = LocalDateTime.now();
+		List<String> created = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			created.add(createLead());
+		}
+
+		MvcTestResult first = mvc.get().uri(LEADS + "?limit=2&from=" + from).exchange();
+		assertThat(first).hasStatusOk();
+		assertThat(leadIds(first.getResponse().getContentAsString())).containsExactly(created.get(2), created.get(1));
+		String cursor = first.getResponse().getHeader("X-Next-Cursor");
+		assertThat(cursor).isNotNull();
+
+		MvcTestResult second = mvc.get().uri(LEADS + "?limit=2&from=" + from + "&cursor=" + cursor).exchange();
+		assertThat(second).hasStatusOk();
+		assertThat(leadIds(second.getResponse().getContentAsString())).containsExactly(created.get(0));
+		assertThat(second.getResponse().getHeader("X-Next-Cursor")).isNull();
+	}
+
+	@Test
+	void exportWritesOneLeadPerLine() throws Exception {
+		LocalDateTime from = LocalDateTime.now();
+		String older = createLead();
+		String newer = createLead();
+
+		MvcTestResult export = mvc.get().uri(LEADS + "/export?from=" + from).exchange();
+
+		assertThat(export).hasStatusOk();
+		assertThat(export.getResponse().getContentType()).startsWith(MediaType.APPLICATION_NDJSON_VALUE);
+		List<String> lines = export.getResponse().getContentAsString().lines().toList();
+		assertThat(lines).hasSize(2);
+		assertThat(lines).extracting(line -> jsonMapper.readTree(line).path("leadId").asString())
+			.containsExactly(newer, older);
+	}
+
+	@Test
+	void staleIfMatchIsRejectedWithTheCurrentLead() throws Exception {
+		String leadId = createLead();
+		String note = "{\"text\":\"Called, no answer\"}";
+
+		MvcTestResult updated = mvc.post().uri(LEADS + "/" + leadId + "/notes")
+			.header(HttpHeaders.IF_MATCH, "\"1\"")
+			.contentType(MediaType.APPLICATION_JSON)
+			.content(note)
+			.exchange();
+		assertThat(updated).hasStatusOk();
+		assertThat(updated.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo("\"2\"");
+
+		MvcTestResult stale = mvc.post().uri(LEADS + "/" + leadId + "/notes")
+			.header(HttpHeaders.IF_MATCH, "\"1\"")
+			.contentType(MediaType.APPLICATION_JSON)
+			.content(note)
+			.exchange();
+		assertThat(stale).hasStatus(HttpStatus.PRECONDITION_FAILED);
+		assertThat(stale.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo("\"2\"");
+		assertThat(mvc.get().uri(LEADS + "/" + leadId)).bodyJson().extractingPath("$.notes").asArray().hasSize(1);
+	}
+
+	private String createLead() throws Exception {
+		String request = """
+			{"sessionId":"%s","userId":"%s","name":"Rahim","phone":"+8801700000000","email":"rahim@example.com"}
+			""".formatted(UUID.randomUUID(), UUID.randomUUID());
+		MvcTestResult result = mvc.post().uri("/api/v1/agent/leads")
+			.contentType(MediaType.APPLICATION_JSON)
+			.content(request)
+			.exchange();
+		assertThat(result).hasStatusOk();
+		return jsonMapper.readTree(result.getResponse().getContentAsByteArray()).path("leadId").asString();
+	}
+
+	private List<String> leadIds(String body) {
+		List<String> ids = new ArrayList<>();
+		for (JsonNode lead : jsonMapper.readTree(body)) {
+			ids.add(lead.path("leadId").asString());
+		}
+		return ids;
+	}
+}
@@ -0,0 +1,99 @@
+package com.i2gether.lic.llm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTests {
+
+	private final AtomicLong now = new AtomicLong();
+	private final List<CircuitBreaker.State> transitions = new ArrayList<>();
+	private final CircuitBreaker breaker = new CircuitBreaker(4, 4, 0.5, Duration.ofSeconds(30), now::get,
+		transitions::add);
+
+	@Test
+	void opensOnceTheFailureRateReachesTheThreshold() {
+		call(true);
+		call(false);
+		call(true);
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+		call(false);
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+		call(true);
+
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+		assertThat(breaker.tryAcquire()).isFalse();
+	}
+
+	@Test
+	void failuresOutsideTheWindowAreForgotten() {
+		call(true);
+		call(true);
+		for (int i = 0; i < 4; i++) {
+			call(false);
+		}
+		call(true);
+
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+	}
+
+	@Test
+	void letsOneProbeThroughAfterTheOpenDuration() {
+		open();
+		now.addAndGet(Duration.ofSeconds(30).toNanos());
+
+		assertThat(breaker.tryAcquire()).isTrue();
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+		assertThat(breaker.tryAcquire()).isFalse();
+
+		breaker.onSuccess();
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+		assertThat(transitions).containsExactly(CircuitBreaker.State.OPEN, CircuitBreaker.State.HALF_OPEN,
+			CircuitBreaker.State.CLOSED);
+	}
+
+	@Test
+	void failedProbeReopens() {
+		open();
+		now.addAndGet(Duration.ofSeconds(30).toNanos());
+		breaker.tryAcquire();
+
+		breaker.onFailure();
+
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+		assertThat(breaker.tryAcquire()).isFalse();
+	}
+
+	@Test
+	void abandonedProbeLetsTheNextCallProbe() {
+		open();
+		now.addAndGet(Duration.ofSeconds(30).toNanos());
+		breaker.tryAcquire();
+
+		breaker.onAbandoned();
+
+		assertThat(breaker.tryAcquire()).isTrue();
+	}
+
+	private void open() {
+		for (int i = 0; i < 4; i++) {
+			call(true);
+		}
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+	}
+
+	private void call(boolean failure) {
+		assertThat(breaker.tryAcquire()).isTrue();
+		if (failure) {
+			breaker.onFailure();
+		} else {
+			breaker.onSuccess();
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package com.i2gether.lic.llm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.adk.models.BaseLlm;
+import com.google.adk.models.BaseLlmConnection;
+import com.google.adk.models.LlmRequest;
+import com.google.adk.models.LlmResponse;
+import com.google.genai.types.Content;
+import com.google.genai.types.Part;
+import com.i2gether.lic.models.ResilienceProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+class ResilientLlmTests {
+
+	private final ScriptedLlm upstream = new ScriptedLlm();
+	private final ResilientLlm llm = new ResilientLlm(upstream, properties(), Schedulers.computation());
+
+	@Test
+	void retriesTransientErrorsBeforeAnyOutput() throws InterruptedException {
+		upstream.script(Flowable.error(new IOException("connection reset")), Flowable.just(response("hello")));
+
+		llm.generateContent(request(), false).test().await()
+			.assertValueCount(1)
+			.assertComplete();
+		assertThat(upstream.calls).hasValue(2);
+	}
+
+	@Test
+	void doesNotRetryOnceOutputWasStreamed() throws InterruptedException {
+		upstream.script(Flowable.just(response("hel")).concatWith(Flowable.error(new IOException("reset"))),
+			Flowable.just(response("hello")));
+
+		llm.generateContent(request(), true).test().await()
+			.assertValueCount(1)
+			.assertError(IOException.class);
+		assertThat(upstream.calls).hasValue(1);
+	}
+
+	@Test
+	void doesNotRetryBadRequests() throws InterruptedException {
+		upstream.script(Flowable.error(new IllegalArgumentException("invalid request")));
+
+		llm.generateContent(request(), false).test().await().assertError(IllegalArgumentException.class);
+		assertThat(upstream.calls).hasValue(1);
+	}
+
+	@Test
+	void timesOutACallThatStopsResponding() throws InterruptedException {
+		upstream.script(Flowable.never(), Flowable.never(), Flowable.never());
+
+		llm.generateContent(request(), false).test().awaitDone(5, TimeUnit.SECONDS).assertError(TimeoutException.class);
+		assertThat(upstream.calls).hasValue(3);
+	}
+
+	@Test
+	void failsFastWhileTheCircuitIsOpen() throws InterruptedException {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		llm.bindTo(registry);
+		for (int i = 0; i < 2; i++) {
+			upstream.script(Flowable.error(new IOException("down")), Flowable.error(new IOException("down")),
+				Flowable.error(new IOException("down")));
+			llm.generateContent(request(), false).test().await().assertError(IOException.class);
+		}
+		int calls = upstream.calls.get();
+
+		llm.generateContent(request(), false).test().await().assertError(LlmUnavailableException.class);
+
+		assertThat(upstream.calls).hasValue(calls);
+		assertThat(registry.get("lic.llm.circuit.state").tag("state", "open").gauge().value()).isEqualTo(1);
+		assertThat(registry.get("lic.llm.calls").tag("outcome", "rejected").functionCounter().count()).isEqualTo(1);
+		assertThat(registry.get("lic.llm.retries").functionCounter().count()).isEqualTo(4);
+	}
+
+	@Test
+	void classifiesTransientErrors() {
+		assertThat(ResilientLlm.isTransient(new TimeoutException())).isTrue();
+		assertThat(ResilientLlm.isTransient(new RuntimeException(new IOException()))).isTrue();
+		assertThat(ResilientLlm.isTransient(new IllegalStateException("bad"))).isFalse();
+	}
+
+	private static ResilienceProperties properties() {
+		return new ResilienceProperties(true, Duration.ofSeconds(25), Duration.ofMillis(100), 3, Duration.ofMillis(1),
+			Duration.ofMillis(5), 0.5, 4, 2, Duration.ofHours(1), "Sorry");
+	}
+
+	private static LlmRequest request() {
+		return LlmRequest.builder().build();
+	}
+
+	private static LlmResponse response(String text) {
+		return LlmResponse.builder().content(Content.fromParts(Part.fromText(text))).build();
+	}
+
+	/**
+	 * Returns the scripted responses, one per call
+	 */
+	private static final class ScriptedLlm extends BaseLlm {
+
+		private final Deque<Flowable<LlmResponse>> responses = new ArrayDeque<>();
+		private final AtomicInteger calls = new AtomicInteger();
+
+		ScriptedLlm() {
+			super("scripted");
+		}
+
+		@SafeVarargs
+		final void script(Flowable<LlmResponse>... next) {
+			responses.addAll(List.of(next));
+		}
+
+		@Override
+		public synchronized Flowable<LlmResponse> generateContent(LlmRequest llmRequest, boolean stream) {
+			calls.incrementAndGet();
+			return responses.isEmpty() ? Flowable.error(new IllegalStateException("unscripted call")) : responses.poll();
+		}
+
+		@Override
+		public BaseLlmConnection connect(LlmRequest llmRequest) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
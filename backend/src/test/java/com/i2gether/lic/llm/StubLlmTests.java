@@ -0,0 +1,75 @@
+package com.i2gether.lic.llm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.adk.models.LlmRequest;
+import com.google.adk.models.LlmResponse;
+import com.google.genai.errors.ApiException;
+import com.google.genai.types.Content;
+import com.google.genai.types.Part;
+import com.i2gether.lic.models.StubLlmProperties;
+
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+class StubLlmTests {
+
+	private static final List<String> RESPONSES = List.of("First canned answer", "Second canned answer here",
+		"Third one");
+
+	@Test
+	void answersTheSameQuestionTheSameWay() {
+		StubLlm llm = stub(0.0);
+
+		String first = text(llm.generateContent(request("What plans do you offer?"), false).blockingLast());
+		String second = text(llm.generateContent(request("What plans do you offer?"), false).blockingLast());
+
+		assertThat(first).isIn(RESPONSES).isEqualTo(second);
+	}
+
+	@Test
+	void streamsWordByWordThenTheCompleteAnswerWithUsage() {
+		List<LlmResponse> responses = stub(0.0).generateContent(request("Tell me about term insurance"), true)
+			.toList().blockingGet();
+
+		LlmResponse complete = responses.getLast();
+		List<LlmResponse> partials = responses.subList(0, responses.size() - 1);
+		assertThat(partials).allSatisfy(response -> assertThat(response.partial()).contains(true));
+		assertThat(partials.stream().map(StubLlmTests::text).reduce("", String::concat)).isEqualTo(text(complete));
+		assertThat(complete.partial()).contains(false);
+		assertThat(complete.usageMetadata()).isPresent();
+	}
+
+	@Test
+	void injectsErrors() {
+		stub(1.0).generateContent(request("Hello"), false).test().awaitDone(5, TimeUnit.SECONDS)
+			.assertError(ApiException.class);
+	}
+
+	@Test
+	void splitsIntoChunksThatJoinBackToTheAnswer() {
+		assertThat(StubLlm.chunks("a term life policy")).containsExactly("a", " term", " life", " policy");
+	}
+
+	private static StubLlm stub(double errorRate) {
+		return new StubLlm("stub", new StubLlmProperties(Duration.ofMillis(1), Duration.ofMillis(2), Duration.ZERO,
+			errorRate, 503, RESPONSES), Schedulers.computation());
+	}
+
+	private static LlmRequest request(String question) {
+		return LlmRequest.builder()
+			.contents(List.of(Content.builder().role("user").parts(List.of(Part.fromText(question))).build()))
+			.build();
+	}
+
+	private static String text(LlmResponse response) {
+		return response.content().flatMap(Content::parts).orElse(List.of()).stream()
+			.map(part -> part.text().orElse(""))
+			.reduce("", String::concat);
+	}
+}
@@ -0,0 +1,151 @@
+package com.i2gether.lic.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.i2gether.lic.models.AdmissionProperties;
+
+class AdmissionControlTests {
+
+	@Test
+	void rateLimitsPerUserAndPerAddress() {
+		AdmissionControl admission = new AdmissionControl(properties(4, 1, Duration.ofSeconds(1)));
+
+		admission.checkRate("user-1", "10.0.0.1");
+		admission.checkRate("user-1", "10.0.0.1");
+		assertThatExceptionOfType(AdmissionRejectedException.class)
+			.isThrownBy(() -> admission.checkRate("user-1", "10.0.0.1"))
+			.satisfies(e -> {
+				assertThat(e.getReason()).isEqualTo(AdmissionControl.RATE_LIMITED);
+				assertThat(e.getRetryAfter()).isPositive();
+			});
+
+		// Another user behind the same address still has its own budget, until the address runs out
+		admission.checkRate("user-2", "10.0.0.1");
+		admission.checkRate("user-2", "10.0.0.1");
+		assertThatExceptionOfType(AdmissionRejectedException.class)
+			.isThrownBy(() -> admission.checkRate("user-3", "10.0.0.1"));
+		admission.checkRate(null, "10.0.0.2");
+	}
+
+	@Test
+	void requestRejectedForItsAddressKeepsItsUserBudget() {
+		AdmissionControl admission = new AdmissionControl(properties(4, 1, Duration.ofSeconds(1)));
+		for (int i = 0; i < 4; i++) {
+			admission.checkRate(null, "10.0.0.1");
+		}
+
+		assertThatExceptionOfType(AdmissionRejectedException.class)
+			.isThrownBy(() -> admission.checkRate("user-1", "10.0.0.1"));
+		admission.checkRate("user-1", "10.0.0.2");
+		admission.checkRate("user-1", "10.0.0.2");
+	}
+
+	@Test
+	void callsOverTheLimitWaitForASlot() throws Exception {
+		AdmissionControl admission = new AdmissionControl(properties(1, 4, Duration.ofSeconds(5)));
+		AdmissionControl.Permit first = admission.acquire();
+
+		CompletableFuture<AdmissionControl.Permit> second = CompletableFuture.supplyAsync(admission::acquire);
+		Thread.sleep(50);
+		assertThat(second).isNotDone();
+
+		first.close();
+		second.get(5, TimeUnit.SECONDS).close();
+	}
+
+	@Test
+	void rejectsWhenTheQueueIsFull() {
+		AdmissionControl admission = new AdmissionControl(properties(1, 0, Duration.ofSeconds(5)));
+		admission.acquire();
+
+		assertThatExceptionOfType(AdmissionRejectedException.class)
+			.isThrownBy(admission::acquire)
+			.satisfies(e -> assertThat(e.getReason()).isEqualTo(AdmissionControl.QUEUE_FULL));
+		assertThatExceptionOfType(AdmissionRejectedException.class)
+			.isThrownBy(admission::checkCapacity);
+	}
+
+	@Test
+	void rejectsAfterTheMaximumWait() {
+		AdmissionControl admission = new AdmissionControl(properties(1, 4, Duration.ofMillis(20)));
+		admission.acquire();
+
+		assertThatExceptionOfType(AdmissionRejectedException.class)
+			.isThrownBy(admission::acquire)
+			.satisfies(e -> {
+				assertThat(e.getReason()).isEqualTo(AdmissionControl.TIMEOUT);
+				assertThat(e.getRetryAfter()).isGreaterThanOrEqualTo(Duration.ofSeconds(1));
+			});
+	}
+
+	@Test
+	void limitShrinksOnFailuresAndGrowsBackOnSuccess() {
+		AdmissionControl admission = new AdmissionControl(new AdmissionProperties(true, 10, 2, 20, 1000, 10,
+			Duration.ofSeconds(1), 60, 10, 60, 10));
+
+		for (int i = 0; i < 5; i++) {
+			AdmissionControl.Permit permit = admission.acquire();
+			permit.failed();
+			permit.close();
+		}
+		int reduced = admission.limit();
+		assertThat(reduced).isLessThan(10);
+
+		for (int round = 0; round < 20; round++) {
+			AdmissionControl.Permit[] permits = new AdmissionControl.Permit[admission.limit()];
+			for (int i = 0; i < permits.length; i++) {
+				permits[i] = admission.acquire();
+			}
+			for (AdmissionControl.Permit permit : permits) {
+				permit.close();
+			}
+		}
+		assertThat(admission.limit()).isGreaterThan(reduced).isLessThanOrEqualTo(20);
+	}
+
+	@Test
+	void steadyMixOfShortAndLongCallsIsNotCongestion() {
+		AdmissionControl admission = new AdmissionControl(new AdmissionProperties(true, 10, 2, 20, 2.0, 10,
+			Duration.ofSeconds(1), 60, 10, 60, 10));
+
+		// Four short answers to every long one, at the same load throughout
+		for (int i = 0; i < 2_000; i++) {
+			admission.acquire();
+			admission.release(TimeUnit.SECONDS.toNanos(i % 5 == 4 ? 8 : 1), false);
+		}
+		assertThat(admission.limit()).isEqualTo(10);
+
+		// The same mix, all three times slower
+		for (int i = 0; i < 200; i++) {
+			admission.acquire();
+			admission.release(TimeUnit.SECONDS.toNanos(i % 5 == 4 ? 24 : 3), false);
+		}
+		assertThat(admission.limit()).isLessThan(10);
+	}
+
+	@Test
+	void tokenBucketRefillsOverTime() {
+		long minute = TimeUnit.MINUTES.toNanos(1);
+		TokenBucket bucket = new TokenBucket(2, 60, 0);
+
+		assertThat(bucket.tryTake(0)).isZero();
+		assertThat(bucket.tryTake(0)).isZero();
+		assertThat(bucket.tryTake(0)).isCloseTo(TimeUnit.SECONDS.toNanos(1), within(1L));
+		assertThat(bucket.tryTake(minute / 30)).isZero();
+		assertThat(bucket.tryTake(minute)).isZero();
+		assertThat(bucket.tryTake(minute)).isZero();
+		assertThat(bucket.tryTake(minute)).isPositive();
+	}
+
+	private static AdmissionProperties properties(int limit, int maxQueue, Duration maxWait) {
+		return new AdmissionProperties(true, limit, 1, limit, 2.0, maxQueue, maxWait, 60, 2, 60, 4);
+	}
+}
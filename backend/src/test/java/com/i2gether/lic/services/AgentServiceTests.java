@@ -0,0 +1,197 @@
+package com.i2gether.lic.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import com.google.adk.agents.LlmAgent;
+import com.google.adk.events.Event;
+import com.google.adk.models.BaseLlm;
+import com.google.adk.models.BaseLlmConnection;
+import com.google.adk.models.LlmRequest;
+import com.google.adk.models.LlmResponse;
+import com.google.adk.runner.InMemoryRunner;
+import com.google.adk.runner.Runner;
+import com.google.genai.types.Content;
+import com.google.genai.types.Part;
+import com.i2gether.lic.llm.LlmUnavailableException;
+import com.i2gether.lic.llm.ResilientLlm;
+import com.i2gether.lic.models.AdmissionProperties;
+import com.i2gether.lic.models.ContextBudgetProperties;
+import com.i2gether.lic.models.ConversationHistoryProperties;
+import com.i2gether.lic.models.IntentProperties;
+import com.i2gether.lic.models.ResilienceProperties;
+import com.i2gether.lic.models.ResponseCacheProperties;
+import com.i2gether.lic.models.SessionCacheProperties;
+import com.i2gether.lic.models.UserRequest;
+import com.i2gether.lic.models.UserResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+class AgentServiceTests {
+
+	private static final String QUESTION = "What is term life insurance?";
+	private static final String FALLBACK = "Sorry, please try again in a moment.";
+
+	private final GatedLlm llm = new GatedLlm(null);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final Runner runner = runner(llm);
+	private final AgentService service = service(runner, llm, resilience(true), meterRegistry);
+
+	@Test
+	void followerOfAFallbackTurnAnswersForItself() throws Exception {
+		UserRequest leaderRequest = new UserRequest(UUID.randomUUID(), UUID.randomUUID(), QUESTION, null, null);
+		UserRequest followerRequest = new UserRequest(UUID.randomUUID(), UUID.randomUUID(), QUESTION, null, null);
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			Future<UserResponse> leader = executor.submit(() -> service.interact(leaderRequest));
+			await(() -> llm.calls.get() == 1);
+			Future<UserResponse> follower = executor.submit(() -> service.interact(followerRequest));
+			await(() -> meterRegistry.get("lic.agent.coalesced.requests").tag("role", "follower")
+				.functionCounter().count() == 1);
+
+			// The circuit opens while the follower waits on the leader
+			llm.gate.countDown();
+
+			assertThat(leader.get(10, TimeUnit.SECONDS).answer()).isEqualTo(FALLBACK);
+			assertThat(follower.get(10, TimeUnit.SECONDS).answer()).isEqualTo(FALLBACK);
+		}
+
+		assertThat(llm.calls).hasValue(2);
+		assertThat(runner.sessionService()
+			.getSession(runner.appName(), followerRequest.userId().toString(), followerRequest.sessionId().toString(),
+				Optional.empty())
+			.blockingGet()
+			.events())
+			.extracting(Event::stringifyContent)
+			.doesNotContain(FALLBACK);
+		assertThat(meterRegistry.get("lic.agent.fallbacks").tag("reason", "unavailable").counter().count())
+			.isEqualTo(2);
+	}
+
+	@Test
+	void followerWaitsForASlowLeaderPastTheTurnTimeoutWhenResilienceIsOff() throws Exception {
+		GatedLlm slowLlm = new GatedLlm("Term life insurance pays out if you die within the term.");
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		AgentService unbounded = service(runner(slowLlm), slowLlm, resilience(false), registry);
+		UserRequest leaderRequest = new UserRequest(UUID.randomUUID(), UUID.randomUUID(), QUESTION, null, null);
+		UserRequest followerRequest = new UserRequest(UUID.randomUUID(), UUID.randomUUID(), QUESTION, null, null);
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			Future<UserResponse> leader = executor.submit(() -> unbounded.interact(leaderRequest));
+			await(() -> slowLlm.calls.get() == 1);
+			Future<UserResponse> follower = executor.submit(() -> unbounded.interact(followerRequest));
+			await(() -> registry.get("lic.agent.coalesced.requests").tag("role", "follower")
+				.functionCounter().count() == 1);
+
+			// Well past the 200ms turn timeout, which only applies with resilience on
+			Thread.sleep(600);
+			slowLlm.gate.countDown();
+
+			assertThat(leader.get(10, TimeUnit.SECONDS).answer()).isEqualTo(slowLlm.answer);
+			assertThat(follower.get(10, TimeUnit.SECONDS).answer()).isEqualTo(slowLlm.answer);
+		}
+		assertThat(slowLlm.calls).hasValue(1);
+	}
+
+	private static Runner runner(BaseLlm model) {
+		return new InMemoryRunner(LlmAgent.builder()
+			.name("agent")
+			.description("Answers questions about life insurance")
+			.model(model)
+			.instruction("Answer questions about life insurance.")
+			.build());
+	}
+
+	private static ResilienceProperties resilience(boolean enabled) {
+		return new ResilienceProperties(enabled, enabled ? Duration.ofSeconds(25) : Duration.ofMillis(200),
+			Duration.ofSeconds(15), 1, Duration.ofMillis(250), Duration.ofSeconds(2), 0.5, 20, 10, Duration.ofSeconds(30),
+			FALLBACK);
+	}
+
+	private static AgentService service(Runner runner, BaseLlm model, ResilienceProperties resilience,
+			MeterRegistry meterRegistry) {
+		QuestionCoalescer coalescer = new QuestionCoalescer();
+		coalescer.bindTo(meterRegistry);
+		AgentMetrics metrics = new AgentMetrics(meterRegistry, ObservationRegistry.NOOP);
+		ContextBudgetProperties contextBudget = new ContextBudgetProperties(false, 32_000, 12, 4, false,
+			new ClassPathResource("prompts/summary-prompt.txt"), null, Duration.ofSeconds(60));
+		ConversationSummarizer summarizer = new ConversationSummarizer(contextBudget,
+			new ResilientLlm(model, resilience, Schedulers.io()), resilience, Schedulers.io());
+		LeadManagementService leadManagementService = new LeadManagementService(
+			new ConversationHistoryStore(new ConversationHistoryProperties(10, 1024, Duration.ofHours(1), 100)),
+			new InMemoryLeadRepository(), new TranscriptStore(null));
+
+		return new AgentService(runner,
+			new AgentSessionCache(runner, new SessionCacheProperties(100, Duration.ofMinutes(30))),
+			leadManagementService,
+			new IntentMatcher(new IntentProperties(null)),
+			new SessionContextCompactor(runner, summarizer, contextBudget, metrics, Schedulers.single()),
+			new ResponseCache(new ResponseCacheProperties(true, 100, Duration.ofHours(1), 200, 0), TestKnowledgeBase.cache()),
+			coalescer,
+			new AdmissionControl(new AdmissionProperties(true, 10, 2, 20, 2.0, 10, Duration.ofSeconds(1), 60, 10, 60, 10)),
+			resilience,
+			metrics,
+			Schedulers.io());
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition met in time").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	/**
+	 * Once the gate is opened, answers every call, or without an answer fails it as if the circuit
+	 * breaker were open
+	 */
+	private static final class GatedLlm extends BaseLlm {
+
+		private final CountDownLatch gate = new CountDownLatch(1);
+		private final AtomicInteger calls = new AtomicInteger();
+		private final String answer;
+
+		GatedLlm(String answer) {
+			super("gated");
+			this.answer = answer;
+		}
+
+		@Override
+		public Flowable<LlmResponse> generateContent(LlmRequest llmRequest, boolean stream) {
+			calls.incrementAndGet();
+			return Flowable.<LlmResponse>defer(() -> {
+				gate.await();
+				if (answer == null) {
+					return Flowable.error(new LlmUnavailableException("gated"));
+				}
+				return Flowable.just(LlmResponse.builder()
+					.content(Content.builder().role("model").parts(List.of(Part.fromText(answer))).build())
+					.build());
+			}).subscribeOn(Schedulers.io());
+		}
+
+		@Override
+		public BaseLlmConnection connect(LlmRequest llmRequest) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package com.i2gether.lic.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.i2gether.lic.models.ConversationHistoryProperties;
+
+class ConversationHistoryStoreTests {
+
+	private final UUID sessionId = UUID.randomUUID();
+
+	@Test
+	void keepsOnlyTheNewestMessages() {
+		ConversationHistoryStore store = store(3, 1024);
+		IntStream.range(0, 5).forEach(i -> store.append(sessionId, "m" + i));
+
+		assertThat(store.snapshot(sessionId)).containsExactly("m2", "m3", "m4");
+	}
+
+	@Test
+	void dropsOldestMessagesWhenByteBudgetIsExceeded() {
+		ConversationHistoryStore store = store(100, 10);
+		store.append(sessionId, "aaaa");
+		store.append(sessionId, "bbbb");
+		store.append(sessionId, "cccc");
+
+		assertThat(store.snapshot(sessionId)).containsExactly("bbbb", "cccc");
+	}
+
+	@Test
+	void snapshotIsImmutableAndDetachedFromLaterAppends() {
+		ConversationHistoryStore store = store(10, 1024);
+		store.append(sessionId, "first");
+		List<String> snapshot = store.snapshot(sessionId);
+		store.append(sessionId, "second");
+
+		assertThat(snapshot).containsExactly("first");
+		assertThatThrownBy(() -> snapshot.add("x")).isInstanceOf(UnsupportedOperationException.class);
+	}
+
+	@Test
+	void concurrentAppendsAreNotLost() throws InterruptedException {
+		ConversationHistoryStore store = store(10_000, Long.MAX_VALUE);
+		try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+			IntStream.range(0, 2_000).forEach(i -> executor.execute(() -> store.append(sessionId, "m" + i)));
+		}
+
+		assertThat(store.snapshot(sessionId)).hasSize(2_000).doesNotHaveDuplicates();
+	}
+
+	private static ConversationHistoryStore store(int maxMessages, long maxBytes) {
+		return new ConversationHistoryStore(
+			new ConversationHistoryProperties(maxMessages, maxBytes, Duration.ofHours(1), 1_000));
+	}
+}
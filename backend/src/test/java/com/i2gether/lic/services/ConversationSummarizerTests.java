@@ -0,0 +1,58 @@
+package com.i2gether.lic.services;
+
+import static org.assertj.core.api.Assertions.assertThatRuntimeException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import com.google.adk.models.BaseLlm;
+import com.google.adk.models.BaseLlmConnection;
+import com.google.adk.models.LlmRequest;
+import com.google.adk.models.LlmResponse;
+import com.i2gether.lic.llm.ResilientLlm;
+import com.i2gether.lic.models.ContextBudgetProperties;
+import com.i2gether.lic.models.ResilienceProperties;
+
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+class ConversationSummarizerTests {
+
+	@Test
+	void hungSummaryCallIsGivenUpAfterTheSummaryTimeout() {
+		// Resilience off: the model call itself is unbounded
+		ResilienceProperties resilience = new ResilienceProperties(false, Duration.ofSeconds(25), Duration.ofSeconds(15),
+			1, Duration.ofMillis(250), Duration.ofSeconds(2), 0.5, 20, 10, Duration.ofSeconds(30), "Sorry");
+		ContextBudgetProperties properties = new ContextBudgetProperties(true, 32_000, 12, 4, true,
+			new ClassPathResource("prompts/summary-prompt.txt"), null, Duration.ofMillis(200));
+		ConversationSummarizer summarizer = new ConversationSummarizer(properties,
+			new ResilientLlm(new HungLlm(), resilience, Schedulers.io()), resilience, Schedulers.io());
+
+		assertThatRuntimeException()
+			.isThrownBy(() -> summarizer.summarize("Customer: term plans?\nAgent: we have two"))
+			.withCauseInstanceOf(TimeoutException.class);
+	}
+
+	/**
+	 * Never answers
+	 */
+	private static final class HungLlm extends BaseLlm {
+
+		HungLlm() {
+			super("hung");
+		}
+
+		@Override
+		public Flowable<LlmResponse> generateContent(LlmRequest llmRequest, boolean stream) {
+			return Flowable.never();
+		}
+
+		@Override
+		public BaseLlmConnection connect(LlmRequest llmRequest) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
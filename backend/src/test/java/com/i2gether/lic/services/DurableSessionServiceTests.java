@@ -0,0 +1,253 @@
+package com.i2gether.lic.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.adk.events.Event;
+import com.google.adk.sessions.Session;
+import com.google.genai.types.Content;
+import com.google.genai.types.Part;
+import com.i2gether.lic.models.SessionKey;
+import com.i2gether.lic.models.SessionStoreProperties;
+
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import tools.jackson.databind.json.JsonMapper;
+
+class DurableSessionServiceTests {
+
+	private static final String APP = "app";
+	private static final String USER = "3f1b6c1e-0d2f-4a43-9c57-4a3c7b1f2e10";
+	private static final String SESSION = "9a0e5c8d-2b7f-4d61-8e3a-1c2d3e4f5a6b";
+
+	@TempDir
+	Path directory;
+
+	private final JsonMapper jsonMapper = JsonMapper.builder().build();
+	private DurableSessionService service;
+
+	@AfterEach
+	void close() {
+		if (service != null) {
+			service.close();
+		}
+	}
+
+	@Test
+	void sessionSurvivesARestart() {
+		service = service(10);
+		Session session = service.createSession(APP, USER, new ConcurrentHashMap<>(), SESSION).blockingGet();
+		service.appendEvent(session, event("user", "What is term life insurance?")).blockingGet();
+		service.appendEvent(session, event("agent", "Term life covers a fixed period.")).blockingGet();
+		service.close();
+
+		service = service(10);
+		Session reloaded = service.getSession(APP, USER, SESSION, Optional.empty()).blockingGet();
+
+		assertThat(reloaded).isNotNull();
+		assertThat(reloaded.events()).extracting(Event::stringifyContent)
+			.containsExactly("What is term life insurance?", "Term life covers a fixed period.");
+		assertThat(service.getSession(APP, "someone-else", SESSION, Optional.empty()).blockingGet()).isNull();
+	}
+
+	@Test
+	void releasedSessionIsReloadedWithLaterEvents() {
+		service = service(10);
+		Session session = service.createSession(APP, USER, null, SESSION).blockingGet();
+		service.appendEvent(session, event("user", "Hello")).blockingGet();
+
+		service.release(APP, USER, SESSION);
+		Session reloaded = service.getSession(APP, USER, SESSION, Optional.empty()).blockingGet();
+		service.appendEvent(reloaded, event("agent", "Hi, how can I help?")).blockingGet();
+		service.release(APP, USER, SESSION);
+
+		assertThat(service.getSession(APP, USER, SESSION, Optional.empty()).blockingGet().events()).hasSize(2);
+	}
+
+	@Test
+	void recreatingASessionReplacesItsEvents() {
+		service = service(10);
+		Session session = service.createSession(APP, USER, null, SESSION).blockingGet();
+		service.appendEvent(session, event("user", "Hello")).blockingGet();
+
+		service.deleteSession(APP, USER, SESSION).blockingAwait();
+		assertThat(service.getSession(APP, USER, SESSION, Optional.empty()).blockingGet()).isNull();
+
+		Session recreated = service.createSession(APP, USER, null, SESSION).blockingGet();
+		service.appendEvent(recreated, event("user", "Summary")).blockingGet();
+		service.release(APP, USER, SESSION);
+
+		assertThat(service.getSession(APP, USER, SESSION, Optional.empty()).blockingGet().events())
+			.extracting(Event::stringifyContent)
+			.containsExactly("Summary");
+	}
+
+	@Test
+	void sameSessionIdOfAnotherUserIsASeparateSession() {
+		String otherUser = "7c2d9e4f-1a3b-4c5d-8e6f-0a1b2c3d4e5f";
+		service = service(10);
+		Session session = service.createSession(APP, USER, null, SESSION).blockingGet();
+		service.appendEvent(session, event("user", "My phone is +8801700000000")).blockingGet();
+
+		// What AgentSessionCache.getOrCreate does for the other user
+		assertThat(service.getSession(APP, otherUser, SESSION, Optional.empty()).blockingGet()).isNull();
+		Session other = service.createSession(APP, otherUser, null, SESSION).blockingGet();
+		service.appendEvent(other, event("user", "Hello")).blockingGet();
+		service.close();
+
+		service = service(10);
+		assertThat(service.getSession(APP, USER, SESSION, Optional.empty()).blockingGet().events())
+			.extracting(Event::stringifyContent)
+			.containsExactly("My phone is +8801700000000");
+		assertThat(service.getSession(APP, otherUser, SESSION, Optional.empty()).blockingGet().events())
+			.extracting(Event::stringifyContent)
+			.containsExactly("Hello");
+	}
+
+	@Test
+	void sessionFileNamedBySessionIdAloneIsStillFound() throws IOException {
+		service = service(10);
+		Session session = service.createSession(APP, USER, null, SESSION).blockingGet();
+		service.appendEvent(session, event("user", "Hello")).blockingGet();
+		service.close();
+		Files.move(sessionFile(), directory.resolve(SESSION + ".jsonl"));
+
+		service = service(10);
+
+		assertThat(service.getSession(APP, "someone-else", SESSION, Optional.empty()).blockingGet()).isNull();
+		assertThat(service.getSession(APP, USER, SESSION, Optional.empty()).blockingGet().events()).hasSize(1);
+		assertThat(sessionFile().getFileName().toString()).isNotEqualTo(SESSION + ".jsonl");
+	}
+
+	@Test
+	void replacingEventsSwapsTheWholeSessionInOneStep() throws IOException {
+		service = service(10);
+		Session session = service.createSession(APP, USER, null, SESSION).blockingGet();
+		service.appendEvent(session, event("user", "Hello")).blockingGet();
+		service.appendEvent(session, event("agent", "Hi, how can I help?")).blockingGet();
+		service.appendEvent(session, event("user", "Term plans?")).blockingGet();
+
+		Session replaced = service.replaceEvents(session, List.of(event("user", "Summary"), session.events().get(2)));
+		service.appendEvent(replaced, event("agent", "We have two")).blockingGet();
+		service.close();
+
+		service = service(10);
+		assertThat(service.getSession(APP, USER, SESSION, Optional.empty()).blockingGet().events())
+			.extracting(Event::stringifyContent)
+			.containsExactly("Summary", "Term plans?", "We have two");
+		try (Stream<Path> files = Files.list(directory)) {
+			assertThat(files).extracting(path -> path.getFileName().toString()).noneMatch(name -> name.endsWith(".tmp"));
+		}
+	}
+
+	@Test
+	void dropsATornLastLineAndAppendsAfterTheLastEvent() throws IOException {
+		service = service(10);
+		Session session = service.createSession(APP, USER, null, SESSION).blockingGet();
+		service.appendEvent(session, event("user", "Hello")).blockingGet();
+		service.close();
+		Path file = sessionFile();
+		Files.writeString(file, Files.readString(file) + "{\"id\":\"trunc", StandardCharsets.UTF_8);
+
+		service = service(10);
+		Session reloaded = service.getSession(APP, USER, SESSION, Optional.empty()).blockingGet();
+		assertThat(reloaded.events()).hasSize(1);
+		service.appendEvent(reloaded, event("agent", "Hi, how can I help?")).blockingGet();
+		service.release(APP, USER, SESSION);
+
+		assertThat(service.getSession(APP, USER, SESSION, Optional.empty()).blockingGet().events()).hasSize(2);
+	}
+
+	@Test
+	void unreadableEventBeforeTheEndFailsTheLoad() throws IOException {
+		service = service(10);
+		Session session = service.createSession(APP, USER, null, SESSION).blockingGet();
+		service.appendEvent(session, event("user", "Hello")).blockingGet();
+		service.close();
+		Path file = sessionFile();
+		List<String> lines = Files.readAllLines(file);
+		Files.write(file, List.of(lines.get(0), "{\"id\":\"trunc", lines.get(1)));
+
+		service = service(10);
+
+		assertThatThrownBy(() -> service.getSession(APP, USER, SESSION, Optional.empty()).blockingGet())
+			.isInstanceOf(UncheckedIOException.class);
+	}
+
+	@Test
+	void resumedHandleCountsStoredTurns() {
+		SessionHandle handle = AgentSessionCache.resumed(new SessionKey(UUID.fromString(USER),
+			UUID.fromString(SESSION)), List.of(event("user", "Hello"), event("agent", "Hi")));
+
+		assertThat(handle.isNew()).isFalse();
+		// One stored turn, so the next is the second
+		assertThat(handle.completeTurn()).isEqualTo(2);
+	}
+
+	@Test
+	void resumedHandleDoesNotCountTheCompactionSummaryAsATurn() {
+		SessionHandle handle = AgentSessionCache.resumed(new SessionKey(UUID.fromString(USER),
+			UUID.fromString(SESSION)), List.of(
+				event("user", SessionContextCompactor.SUMMARY_PREFIX + "The customer asked about term plans."),
+				event("user", "How much is the premium?"), event("agent", "It depends on your age.")));
+
+		assertThat(handle.completeTurn()).isEqualTo(2);
+	}
+
+	@Test
+	void appendAfterTheSessionFileWasSweptWritesTheSessionAgain() throws IOException {
+		service = service(10);
+		Session session = service.createSession(APP, USER, null, SESSION).blockingGet();
+		service.appendEvent(session, event("user", "Hello")).blockingGet();
+
+		// What the retention sweep does to a session idle for too long
+		Files.delete(sessionFile());
+		service.appendEvent(session, event("agent", "Hi, how can I help?")).blockingGet();
+		service.release(APP, USER, SESSION);
+
+		assertThat(service.getSession(APP, USER, SESSION, Optional.empty()).blockingGet().events())
+			.extracting(Event::stringifyContent)
+			.containsExactly("Hello", "Hi, how can I help?");
+	}
+
+	private Path sessionFile() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(path -> path.getFileName().toString().endsWith(".jsonl")).findFirst().orElseThrow();
+		}
+	}
+
+	private DurableSessionService service(long hotSessions) {
+		try {
+			return new DurableSessionService(
+				new SessionStoreProperties(SessionStoreProperties.StoreType.FILE, directory, hotSessions, Duration.ofDays(7)),
+				jsonMapper, Schedulers.single());
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static Event event(String author, String text) {
+		return Event.builder()
+			.id(Event.generateEventId())
+			.invocationId("test")
+			.author(author)
+			.content(Content.builder().role("user".equals(author) ? "user" : "model")
+				.parts(List.of(Part.fromText(text))).build())
+			.build();
+	}
+}
@@ -0,0 +1,172 @@
+package com.i2gether.lic.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.i2gether.lic.models.CustomerInfo;
+import com.i2gether.lic.models.Lead;
+import com.i2gether.lic.models.LeadNote;
+import com.i2gether.lic.models.LeadStatus;
+import com.i2gether.lic.models.LeadStoreProperties;
+import com.i2gether.lic.models.LeadStoreProperties.Durability;
+import com.i2gether.lic.models.LeadStoreProperties.StoreType;
+
+import tools.jackson.databind.json.JsonMapper;
+
+class FileLeadRepositoryTests {
+
+	@TempDir
+	Path directory;
+
+	private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+	private TranscriptStore transcriptStore;
+
+	@BeforeEach
+	void transcriptStore() {
+		transcriptStore = new TranscriptStore(directory.resolve("transcripts"));
+	}
+
+	@Test
+	void leadsSurviveAReopen() throws Exception {
+		Lead lead = lead();
+		try (FileLeadRepository repository = repository(Durability.SYNC, 100)) {
+			repository.save(lead);
+			repository.save(lead.withStatus(LeadStatus.CONTACTED));
+		}
+
+		try (FileLeadRepository reopened = repository(Durability.SYNC, 100)) {
+			assertThat(reopened.findAll()).containsExactly(lead.withStatus(LeadStatus.CONTACTED));
+		}
+	}
+
+	@Test
+	void olderVersionWrittenLaterDoesNotWin() throws Exception {
+		Lead lead = lead();
+		Lead contacted = lead.withStatus(LeadStatus.CONTACTED);
+		try (FileLeadRepository repository = repository(Durability.SYNC, 100)) {
+			repository.save(contacted);
+			repository.save(lead);
+		}
+
+		try (FileLeadRepository reopened = repository(Durability.SYNC, 100)) {
+			assertThat(reopened.findAll()).containsExactly(contacted);
+		}
+	}
+
+	@Test
+	void compactionKeepsTheLatestVersionOfEveryLead() throws Exception {
+		try (FileLeadRepository repository = repository(Durability.ASYNC, 3)) {
+			for (int i = 0; i < 10; i++) {
+				repository.save(lead());
+			}
+		}
+
+		try (FileLeadRepository reopened = repository(Durability.ASYNC, 3)) {
+			assertThat(reopened.findAll()).hasSize(10);
+		}
+		assertThat(directory.resolve("leads.snapshot")).exists();
+	}
+
+	@Test
+	void tornLastEntryIsDroppedAndCutOffTheLog() throws Exception {
+		Lead first = lead();
+		try (FileLeadRepository repository = repository(Durability.SYNC, 100)) {
+			repository.save(first);
+		}
+		Path logFile = directory.resolve("leads.log");
+		Files.writeString(logFile, "{\"leadId\":\"", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+		Lead second = lead();
+		try (FileLeadRepository reopened = repository(Durability.SYNC, 100)) {
+			assertThat(reopened.findAll()).containsExactly(first);
+			reopened.save(second);
+		}
+
+		try (FileLeadRepository reopened = repository(Durability.SYNC, 100)) {
+			assertThat(reopened.findAll()).containsExactlyInAnyOrder(first, second);
+		}
+		assertThat(Files.readAllLines(logFile)).hasSize(2);
+	}
+
+	@Test
+	void unreadableEntryBeforeTheEndFailsStartup() throws Exception {
+		try (FileLeadRepository repository = repository(Durability.SYNC, 100)) {
+			repository.save(lead());
+		}
+		Path logFile = directory.resolve("leads.log");
+		String intact = Files.readString(logFile);
+		Files.writeString(logFile, "not json\n" + intact, StandardCharsets.UTF_8);
+
+		assertThatIOException().isThrownBy(() -> repository(Durability.SYNC, 100))
+			.withMessageContaining("line 1");
+	}
+
+	@Test
+	void leadsWrittenBeforeVersioningAreUpgradedOnce() throws Exception {
+		UUID leadId = UUID.randomUUID();
+		Files.writeString(directory.resolve("leads.log"),
+			legacyLead(leadId, "Rahim", "I want term life\\nHere are the term life plans", "Contacted", "\"Call back after Eid\"")
+				+ legacyLead(UUID.randomUUID(), "Karim", "", "FOLLOW_UP", "null"),
+			StandardCharsets.UTF_8);
+
+		Lead upgraded;
+		try (FileLeadRepository repository = repository(Durability.SYNC, 100)) {
+			assertThat(repository.findAll()).hasSize(2);
+			upgraded = repository.findAll().stream().filter(lead -> lead.leadId().equals(leadId)).findFirst().orElseThrow();
+			assertThat(upgraded.status()).isEqualTo(LeadStatus.CONTACTED);
+			assertThat(upgraded.version()).isEqualTo(1);
+			assertThat(upgraded.notes()).extracting(LeadNote::text).containsExactly("Call back after Eid");
+			assertThat(transcriptStore.get(upgraded.transcriptId()))
+				.containsExactly("I want term life", "Here are the term life plans");
+
+			Lead unknownStatus = repository.findAll().stream().filter(lead -> !lead.leadId().equals(leadId)).findFirst().orElseThrow();
+			assertThat(unknownStatus.status()).isEqualTo(LeadStatus.NEW);
+			assertThat(unknownStatus.transcriptId()).isNull();
+			assertThat(unknownStatus.notes()).extracting(LeadNote::text).containsExactly("Status before upgrade: FOLLOW_UP");
+		}
+
+		try (FileLeadRepository reopened = repository(Durability.SYNC, 100)) {
+			assertThat(reopened.findAll()).contains(upgraded).hasSize(2);
+		}
+		try (Stream<Path> transcripts = Files.list(directory.resolve("transcripts"))) {
+			assertThat(transcripts).hasSize(1);
+		}
+	}
+
+	private FileLeadRepository repository(Durability durability, int compactionThreshold) throws Exception {
+		return new FileLeadRepository(new LeadStoreProperties(
+			StoreType.FILE, directory, durability, 16, Duration.ofMillis(5), 1_000, compactionThreshold), jsonMapper,
+			transcriptStore);
+	}
+
+	/**
+	 * A lead line as written before leads were versioned
+	 */
+	private static String legacyLead(UUID leadId, String name, String history, String status, String notes) {
+		return "{\"leadId\":\"" + leadId + "\",\"sessionId\":\"" + UUID.randomUUID() + "\",\"userId\":\"" + UUID.randomUUID() + "\","
+			+ "\"customerInfo\":{\"fullName\":\"" + name + "\",\"phoneNumber\":\"+8801700000000\",\"email\":\"lead@example.com\"},"
+			+ "\"fullConversationHistory\":\"" + history + "\",\"createdAt\":\"2025-06-01T10:15:30\","
+			+ "\"status\":\"" + status + "\",\"notes\":" + notes + "}\n";
+	}
+
+	private static Lead lead() {
+		CustomerInfo customer = new CustomerInfo("Rahim", "+8801700000000", "rahim@example.com", null, null, null, null);
+		return new Lead(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), customer,
+			UUID.randomUUID(), LocalDateTime.now().withNano(0), LeadStatus.NEW, List.of(), 1);
+	}
+}
@@ -0,0 +1,68 @@
+package com.i2gether.lic.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.i2gether.lic.models.IntentCategory;
+import com.i2gether.lic.models.IntentProperties;
+
+class IntentMatcherTests {
+
+	private final IntentMatcher matcher = new IntentMatcher(new IntentProperties(null));
+
+	@Test
+	void attributesMatchesToQuestionAndAnswer() {
+		IntentMatcher.Match match = matcher.match("I want to BUY this", "Could I get your name please?");
+
+		assertThat(match.inQuestion(IntentCategory.STRONG_PURCHASE_INTENT)).isTrue();
+		assertThat(match.inQuestion(IntentCategory.PURCHASE_HINT)).isTrue();
+		assertThat(match.inAnswer(IntentCategory.LEAD_CAPTURE_REQUEST)).isTrue();
+		assertThat(match.inAnswer(IntentCategory.STRONG_PURCHASE_INTENT)).isFalse();
+		assertThat(match.inQuestion(IntentCategory.LEAD_CAPTURE_REQUEST)).isFalse();
+	}
+
+	@Test
+	void keepsSubstringSemanticsOfStringContains() {
+		// "hi" inside "this" was a greeting for the String.contains implementation as well
+		IntentMatcher.Match match = matcher.match("this", "ok");
+
+		assertThat(match.inConversation(IntentCategory.GREETING)).isTrue();
+	}
+
+	@Test
+	void matchesSpanningQuestionAndAnswerOnlyCountForTheConversation() {
+		IntentMatcher.Match match = matcher.match("whole", "life");
+
+		assertThat(match.inConversation(IntentCategory.PRODUCT_RECOMMENDATION)).isTrue();
+		assertThat(match.inQuestion(IntentCategory.PRODUCT_RECOMMENDATION)).isFalse();
+		assertThat(match.inAnswer(IntentCategory.PRODUCT_RECOMMENDATION)).isFalse();
+	}
+
+	@Test
+	void findsOverlappingPhrases() {
+		PhraseAutomaton automaton = PhraseAutomaton.compile(List.of("he", "she", "hers"), new int[] {0, 1, 2});
+		int state = automaton.initialState();
+		long found = 0;
+		for (char c : "ushers".toCharArray()) {
+			state = automaton.step(state, c);
+			for (int phrase : automaton.matches(state)) {
+				found |= 1L << automaton.phraseLabel(phrase);
+			}
+		}
+
+		assertThat(found).isEqualTo(0b111);
+	}
+
+	@Test
+	void configuredPhrasesReplaceTheDefaultsOfThatCategory() {
+		IntentMatcher custom = new IntentMatcher(new IntentProperties(
+			Map.of(IntentCategory.GREETING, List.of("assalamu alaikum"))));
+
+		assertThat(custom.match("Assalamu Alaikum", "").inQuestion(IntentCategory.GREETING)).isTrue();
+		assertThat(custom.match("hello", "").inQuestion(IntentCategory.GREETING)).isFalse();
+	}
+}
@@ -0,0 +1,49 @@
+package com.i2gether.lic.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.i2gether.lic.models.KnowledgeBaseChangedEvent;
+import com.i2gether.lic.models.KnowledgeBaseProperties;
+
+class KnowledgeBaseCacheTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void servesTheSameContentWithoutReReading() {
+		KnowledgeBaseCache cache = TestKnowledgeBase.cache();
+
+		assertThat(cache.text("term-life-insurance.md")).startsWith("# Term Life Insurance")
+			.isSameAs(cache.text("term-life-insurance.md"));
+		assertThat(cache.text("missing.md")).isNull();
+	}
+
+	@Test
+	void externalDirectoryOverridesBundledFilesAndReloads() throws IOException {
+		List<Object> events = new ArrayList<>();
+		KnowledgeBaseCache cache = new KnowledgeBaseCache(new KnowledgeBaseProperties(directory, false), events::add);
+		Path file = directory.resolve("term-life-insurance.md");
+		Files.writeString(file, "# Term Life Insurance\n\nv1", StandardCharsets.UTF_8);
+		assertThat(cache.text("term-life-insurance.md")).endsWith("v1");
+
+		Files.writeString(file, "# Term Life Insurance\n\nv2", StandardCharsets.UTF_8);
+		long before = cache.version();
+		cache.reload(Set.of("term-life-insurance.md"));
+
+		assertThat(cache.text("term-life-insurance.md")).endsWith("v2");
+		assertThat(cache.version()).isGreaterThan(before);
+		assertThat(events).containsExactly(new KnowledgeBaseChangedEvent(Set.of("term-life-insurance.md"), cache.version()));
+	}
+}
@@ -0,0 +1,41 @@
+package com.i2gether.lic.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.i2gether.lic.models.KnowledgeChunk;
+import com.i2gether.lic.models.RetrievalProperties;
+
+class KnowledgeBaseRetrieverTests {
+
+	private final KnowledgeBaseRetriever retriever =
+		new KnowledgeBaseRetriever(TestKnowledgeBase.productService(), new RetrievalProperties(true, 3));
+
+	@Test
+	void splitsMarkdownAtSectionHeadings() {
+		List<KnowledgeChunk> chunks = KnowledgeBaseRetriever.chunk("x.md",
+			"# Product\n\nIntro\n\n## Overview\nAbout it\n\n## Eligibility\nAge 18-60\n");
+
+		assertThat(chunks).extracting(KnowledgeChunk::heading)
+			.containsExactly("Product", "Overview", "Eligibility");
+		assertThat(chunks).extracting(KnowledgeChunk::productTitle).containsOnly("Product");
+	}
+
+	@Test
+	void retrievesSectionsOfTheProductInQuestion() {
+		List<KnowledgeChunk> chunks = retriever.retrieve("premium payer for child security insurance", 3);
+
+		assertThat(chunks).isNotEmpty();
+		assertThat(chunks.getFirst().fileName()).isEqualTo("child-security-insurance.md");
+	}
+
+	@Test
+	void renderedContextIsMuchSmallerThanTheWholeKnowledgeBase() {
+		String context = retriever.renderContext("What is term life insurance?");
+
+		assertThat(context.length()).isLessThan(TestKnowledgeBase.productService().getAllProductKnowledgeBase().length() / 3);
+	}
+}
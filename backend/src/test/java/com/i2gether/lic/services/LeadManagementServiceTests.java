@@ -0,0 +1,180 @@
+package com.i2gether.lic.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.i2gether.lic.models.ConversationHistoryProperties;
+import com.i2gether.lic.models.CustomerInfo;
+import com.i2gether.lic.models.Lead;
+import com.i2gether.lic.models.LeadPage;
+import com.i2gether.lic.models.LeadQuery;
+import com.i2gether.lic.models.LeadStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LeadManagementServiceTests {
+
+	private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+	private final List<Lead> seeded = new ArrayList<>();
+
+	private LeadManagementService service;
+
+	@BeforeEach
+	void seed() {
+		InMemoryLeadRepository repository = new InMemoryLeadRepository();
+		for (int day = 0; day < 10; day++) {
+			Lead lead = lead(START.plusDays(day), day % 2 == 0 ? LeadStatus.NEW : LeadStatus.CONTACTED);
+			repository.save(lead);
+			seeded.add(lead);
+		}
+		service = new LeadManagementService(
+			new ConversationHistoryStore(new ConversationHistoryProperties(10, 1024, Duration.ofHours(1), 100)),
+			repository, new TranscriptStore(null));
+	}
+
+	@Test
+	void pagesThroughAllLeadsNewestFirst() {
+		List<Lead> collected = new ArrayList<>();
+		String cursor = null;
+		do {
+			LeadPage page = service.getLeads(LeadQuery.ALL, cursor, 3);
+			assertThat(page.leads()).hasSizeLessThanOrEqualTo(3);
+			collected.addAll(page.leads());
+			cursor = page.nextCursor();
+		} while (cursor != null);
+
+		assertThat(collected).containsExactlyElementsOf(seeded.reversed());
+	}
+
+	@Test
+	void lastPageHasNoCursor() {
+		LeadPage page = service.getLeads(LeadQuery.ALL, null, 10);
+
+		assertThat(page.leads()).hasSize(10);
+		assertThat(page.nextCursor()).isNull();
+	}
+
+	@Test
+	void newLeadsDoNotShiftLaterPages() {
+		LeadPage first = service.getLeads(LeadQuery.ALL, null, 4);
+		service.createLead(UUID.randomUUID(), UUID.randomUUID(), customer());
+
+		LeadPage second = service.getLeads(LeadQuery.ALL, first.nextCursor(), 4);
+
+		assertThat(second.leads()).containsExactlyElementsOf(seeded.reversed().subList(4, 8));
+	}
+
+	@Test
+	void filtersByStatusAndCreationRange() {
+		LeadQuery query = new LeadQuery(LeadStatus.NEW, START.plusDays(2), START.plusDays(8));
+
+		assertThat(service.streamLeads(query).map(Lead::createdAt))
+			.containsExactly(START.plusDays(6), START.plusDays(4), START.plusDays(2));
+	}
+
+	@Test
+	void statusIndexFollowsStatusChanges() {
+		Lead lead = seeded.getFirst();
+		service.updateLeadStatus(lead.leadId(), LeadStatus.CONTACTED, null);
+
+		assertThat(service.getLeadsByStatus(LeadStatus.NEW)).hasSize(4).doesNotContain(lead);
+		assertThat(service.getLeadsByStatus(LeadStatus.CONTACTED)).hasSize(6).last()
+			.isEqualTo(lead.withStatus(LeadStatus.CONTACTED));
+	}
+
+	@Test
+	void leadKeepsTheTranscriptFrozenAtCreation() {
+		UUID sessionId = UUID.randomUUID();
+		service.addConversationMessage(sessionId, "User: I want a pension plan");
+		service.addConversationMessage(sessionId, "Agent: Sure.\nHere are the options.");
+		Lead lead = service.createLead(sessionId, UUID.randomUUID(), customer());
+		service.addConversationMessage(sessionId, "User: thanks");
+
+		assertThat(service.getTranscript(lead))
+			.containsExactly("User: I want a pension plan", "Agent: Sure.\nHere are the options.");
+	}
+
+	@Test
+	void updatesBumpTheVersionAndRejectStaleOnes() {
+		Lead lead = seeded.getFirst();
+
+		Lead updated = service.updateLeadStatus(lead.leadId(), LeadStatus.PENDING_CONTACT, lead.version());
+
+		assertThat(updated.version()).isEqualTo(lead.version() + 1);
+		assertThatThrownBy(() -> service.addNoteToLead(lead.leadId(), "Called, no answer", "rina", lead.version()))
+			.isInstanceOfSatisfying(LeadVersionConflictException.class,
+				e -> assertThat(e.getCurrent()).isEqualTo(updated));
+	}
+
+	@Test
+	void settingTheSameStatusIsANoOp() {
+		Lead lead = seeded.getFirst();
+
+		assertThat(service.updateLeadStatus(lead.leadId(), LeadStatus.NEW, lead.version())).isSameAs(lead);
+	}
+
+	@Test
+	void statusFollowsTheLifecycle() {
+		Lead lead = seeded.getFirst();
+		service.updateLeadStatus(lead.leadId(), LeadStatus.CONTACTED, null);
+		service.updateLeadStatus(lead.leadId(), LeadStatus.CONVERTED, null);
+
+		assertThatThrownBy(() -> service.updateLeadStatus(lead.leadId(), LeadStatus.NEW, null))
+			.isInstanceOf(IllegalLeadTransitionException.class);
+	}
+
+	@Test
+	void concurrentNotesAreAllKept() throws Exception {
+		UUID leadId = seeded.getFirst().leadId();
+		try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+			for (int i = 0; i < 200; i++) {
+				String text = "note " + i;
+				executor.submit(() -> service.addNoteToLead(leadId, text, null, null));
+			}
+		}
+
+		Lead lead = service.getLead(leadId);
+		assertThat(lead.notes()).hasSize(200);
+		assertThat(lead.version()).isEqualTo(201);
+	}
+
+	@Test
+	void countsCreatedLeadsAndStatusChanges() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		service.bindTo(registry);
+
+		service.createLead(UUID.randomUUID(), UUID.randomUUID(), customer());
+		service.updateLeadStatus(seeded.getFirst().leadId(), LeadStatus.CONTACTED, null);
+
+		assertThat(registry.get("lic.leads.created").functionCounter().count()).isEqualTo(1);
+		assertThat(registry.get("lic.leads.status.changes").tag("status", "CONTACTED").functionCounter().count())
+			.isEqualTo(1);
+		assertThat(registry.get("lic.leads").gauge().value()).isEqualTo(11);
+	}
+
+	@Test
+	void rejectsMalformedCursor() {
+		assertThatThrownBy(() -> service.getLeads(LeadQuery.ALL, "not-a-cursor", 5))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static Lead lead(LocalDateTime createdAt, LeadStatus status) {
+		return new Lead(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), customer(), null, createdAt, status, List.of(), 1);
+	}
+
+	private static CustomerInfo customer() {
+		return new CustomerInfo("Karim", "+8801800000000", "karim@example.com", null, null, null, null);
+	}
+}
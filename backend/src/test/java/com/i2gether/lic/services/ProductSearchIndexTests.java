@@ -0,0 +1,53 @@
+package com.i2gether.lic.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.i2gether.lic.models.InsuranceProduct;
+import com.i2gether.lic.models.InsuranceProduct.ProductType;
+import com.i2gether.lic.models.ProductSearchResult;
+
+class ProductSearchIndexTests {
+
+	private final ProductSearchIndex index = new ProductSearchIndex(TestKnowledgeBase.productService());
+
+	@Test
+	void ranksTheBestMatchingProductFirst() {
+		ProductSearchResult result = index.search("child maturity premium payer", 0, 5, false);
+
+		assertThat(result.products()).isNotEmpty();
+		assertThat(result.products().getFirst().productType()).isEqualTo(ProductType.CHILD_SECURITY);
+	}
+
+	@Test
+	void searchesBengaliText() {
+		ProductSearchResult result = index.search("শিশু", 0, 5, false);
+
+		assertThat(result.products()).extracting(InsuranceProduct::productType).contains(ProductType.CHILD_SECURITY);
+	}
+
+	@Test
+	void matchesPrefixesOnlyWhenAsked() {
+		assertThat(index.search("pensio", 0, 20, false).total()).isZero();
+		assertThat(index.search("pensio", 0, 20, true).products()).extracting(InsuranceProduct::productType)
+			.contains(ProductType.PERSONAL_PENSION, ProductType.TERM_BENEFIT_PENSION);
+	}
+
+	@Test
+	void paginatesResults() {
+		ProductSearchResult all = index.search("insurance", 0, 100, false);
+		ProductSearchResult second = index.search("insurance", 1, 2, false);
+
+		assertThat(second.total()).isEqualTo(all.total());
+		assertThat(second.products()).containsExactlyElementsOf(all.products().subList(2, 4));
+	}
+
+	@Test
+	void returnsAnEmptyPageForOffsetsBeyondIntRange() {
+		ProductSearchResult result = index.search("insurance", Integer.MAX_VALUE, 500, false);
+
+		assertThat(result.total()).isPositive();
+		assertThat(result.products()).isEmpty();
+	}
+}
@@ -0,0 +1,60 @@
+package com.i2gether.lic.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.i2gether.lic.models.InsuranceProduct;
+import com.i2gether.lic.models.InsuranceProduct.ProductType;
+import com.i2gether.lic.models.KnowledgeBaseProperties;
+
+class ProductServiceTests {
+
+	private final ProductService productService = TestKnowledgeBase.productService();
+
+	@Test
+	void catalogCoversEveryProductType() {
+		assertThat(productService.getAllProducts()).hasSize(ProductType.values().length);
+		for (ProductType productType : ProductType.values()) {
+			assertThat(productService.getProductByType(productType)).isNotNull();
+		}
+	}
+
+	@Test
+	void parsesKnowledgeBaseOnlyProducts() {
+		InsuranceProduct product = productService.getProductByType(ProductType.TERM_BENEFIT_PENSION);
+
+		assertThat(product.productName()).contains("Term Benefit Pension Insurance Policy");
+		assertThat(product.description()).startsWith("This policy is designed");
+		assertThat(product.features()).contains("Premium Payment: Semi-annual and Annual");
+		assertThat(product.benefits()).contains("Guaranteed pension after maturity");
+		assertThat(product.pricing().paymentFrequency()).isEqualTo("Semi-annual and Annual");
+		assertThat(product.eligibility().minAge()).isEqualTo(20);
+		assertThat(product.eligibility().maxAge()).isEqualTo(60);
+		assertThat(product.faqs()).contains("When does pension start?");
+	}
+
+	@Test
+	void searchIsCaseInsensitiveAndReturnsTheSameInstances() {
+		assertThat(productService.searchProducts("TERM LIFE"))
+			.containsExactly(productService.getProductByType(ProductType.TERM));
+	}
+
+	@Test
+	void knowledgeBaseTextBuiltBeforeAReloadIsNotServedAfterIt(@TempDir Path directory) throws Exception {
+		KnowledgeBaseCache knowledgeBase = new KnowledgeBaseCache(new KnowledgeBaseProperties(directory, false), event -> {});
+		ProductService service = new ProductService(knowledgeBase);
+		assertThat(service.getAllProductKnowledgeBase()).doesNotContain("Updated term life terms");
+
+		// No change event reaches the service, as for text whose build finished after the event
+		Files.writeString(directory.resolve("term-life-insurance.md"), "# Term Life\n\nUpdated term life terms\n");
+		knowledgeBase.reload(Set.of("term-life-insurance.md"));
+
+		assertThat(service.getAllProductKnowledgeBase()).contains("Updated term life terms");
+	}
+}
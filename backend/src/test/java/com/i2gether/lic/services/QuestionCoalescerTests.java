@@ -0,0 +1,75 @@
+package com.i2gether.lic.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.i2gether.lic.models.ConversationState;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class QuestionCoalescerTests {
+
+	private final QuestionCoalescer coalescer = new QuestionCoalescer();
+
+	@Test
+	void followersReceiveTheLeadersAnswer() {
+		QuestionCoalescer.Flight leader = coalescer.join("What is term life insurance?", 1);
+		QuestionCoalescer.Flight follower = coalescer.join("what is TERM life insurance", 1);
+
+		assertThat(leader.leader()).isTrue();
+		assertThat(follower.leader()).isFalse();
+		assertThat(follower.answer()).isNotDone();
+
+		ResponseCache.CachedAnswer answer = answer("Term life covers a fixed period.");
+		leader.complete(answer);
+		leader.abandon();
+
+		assertThat(follower.answer()).isCompletedWithValue(Optional.of(answer));
+		assertThat(coalescer.inFlight()).isZero();
+	}
+
+	@Test
+	void abandonedFlightReleasesFollowersWithoutAnAnswer() {
+		QuestionCoalescer.Flight leader = coalescer.join("What is term life insurance?", 1);
+		QuestionCoalescer.Flight follower = coalescer.join("What is term life insurance?", 1);
+
+		leader.abandon();
+
+		assertThat(follower.answer()).isCompletedWithValue(Optional.empty());
+		assertThat(coalescer.join("What is term life insurance?", 1).leader()).isTrue();
+	}
+
+	@Test
+	void differentQuestionsAndKnowledgeBaseVersionsFlySeparately() {
+		assertThat(coalescer.join("What is term life insurance?", 1).leader()).isTrue();
+		assertThat(coalescer.join("What is whole life insurance?", 1).leader()).isTrue();
+		assertThat(coalescer.join("What is term life insurance?", 2).leader()).isTrue();
+		assertThat(coalescer.inFlight()).isEqualTo(3);
+	}
+
+	@Test
+	void countsLeadersAndFollowers() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		coalescer.bindTo(registry);
+
+		QuestionCoalescer.Flight leader = coalescer.join("What is term life insurance?", 1);
+		coalescer.join("What is term life insurance?", 1);
+		coalescer.join("What is term life insurance?", 1);
+
+		assertThat(registry.get("lic.agent.coalesced.requests").tag("role", "leader").functionCounter().count())
+			.isEqualTo(1);
+		assertThat(registry.get("lic.agent.coalesced.requests").tag("role", "follower").functionCounter().count())
+			.isEqualTo(2);
+		assertThat(registry.get("lic.agent.coalesced.in.flight").gauge().value()).isEqualTo(1);
+
+		leader.abandon();
+		assertThat(registry.get("lic.agent.coalesced.in.flight").gauge().value()).isZero();
+	}
+
+	private static ResponseCache.CachedAnswer answer(String text) {
+		return new ResponseCache.CachedAnswer(text, ConversationState.PRODUCT_RECOMMENDATION, false, 1, null);
+	}
+}
@@ -0,0 +1,82 @@
+package com.i2gether.lic.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.i2gether.lic.models.ConversationState;
+import com.i2gether.lic.models.KnowledgeBaseChangedEvent;
+import com.i2gether.lic.models.ResponseCacheProperties;
+
+class ResponseCacheTests {
+
+	private final KnowledgeBaseCache knowledgeBase = TestKnowledgeBase.cache();
+
+	@Test
+	void servesTheSameQuestionRegardlessOfCaseAndPunctuation() {
+		ResponseCache cache = cache(0);
+		cache.put("What is term life insurance?", "Term life covers a fixed period.",
+			ConversationState.PRODUCT_RECOMMENDATION, false, cache.knowledgeBaseVersion());
+
+		ResponseCache.CachedAnswer cached = cache.get("what is TERM life insurance");
+
+		assertThat(cached).isNotNull();
+		assertThat(cached.answer()).isEqualTo("Term life covers a fixed period.");
+		assertThat(cached.conversationState()).isEqualTo(ConversationState.PRODUCT_RECOMMENDATION);
+		assertThat(cache.get("What is whole life insurance?")).isNull();
+	}
+
+	@Test
+	void doesNotStoreAnswersGeneratedFromAnOlderKnowledgeBase() {
+		ResponseCache cache = cache(0);
+		long version = cache.knowledgeBaseVersion();
+		knowledgeBase.reload(Set.of("term-life-insurance.md"));
+
+		cache.put("What is term life insurance?", "Outdated answer", ConversationState.NEEDS_ASSESSMENT, false, version);
+
+		assertThat(cache.get("What is term life insurance?")).isNull();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void knowledgeBaseChangeClearsTheCache() {
+		ResponseCache cache = cache(0);
+		cache.put("What is term life insurance?", "Term life covers a fixed period.",
+			ConversationState.PRODUCT_RECOMMENDATION, false, cache.knowledgeBaseVersion());
+
+		cache.onKnowledgeBaseChanged(new KnowledgeBaseChangedEvent(Set.of("term-life-insurance.md"), 2));
+
+		assertThat(cache.get("What is term life insurance?")).isNull();
+	}
+
+	@Test
+	void servesSimilarQuestionsAboveTheThreshold() {
+		ResponseCache cache = cache(0.6);
+		cache.put("How much is the premium for term life insurance?", "It depends on your age.",
+			ConversationState.PRODUCT_RECOMMENDATION, false, cache.knowledgeBaseVersion());
+
+		assertThat(cache.get("Term life insurance premium?")).isNotNull();
+		assertThat(cache.get("Do you offer health insurance for children?")).isNull();
+	}
+
+	@Test
+	void doesNotCacheLongOrBlankQuestions() {
+		ResponseCache cache = cache(0);
+		String longQuestion = "term life ".repeat(30);
+		cache.put(longQuestion, "answer", ConversationState.NEEDS_ASSESSMENT, false, cache.knowledgeBaseVersion());
+		cache.put("What is term life insurance?", " ", ConversationState.NEEDS_ASSESSMENT, false,
+			cache.knowledgeBaseVersion());
+
+		assertThat(cache.accepts(longQuestion)).isFalse();
+		assertThat(cache.accepts("?!")).isFalse();
+		assertThat(cache.size()).isZero();
+	}
+
+	private ResponseCache cache(double similarityThreshold) {
+		return new ResponseCache(new ResponseCacheProperties(true, 100, Duration.ofHours(1), 200, similarityThreshold),
+			knowledgeBase);
+	}
+}
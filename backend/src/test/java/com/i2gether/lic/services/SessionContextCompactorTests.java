@@ -0,0 +1,55 @@
+package com.i2gether.lic.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.adk.events.Event;
+import com.google.genai.types.Content;
+import com.google.genai.types.Part;
+
+class SessionContextCompactorTests {
+
+	@Test
+	void keepsTheLastUserTurns() {
+		List<Event> events = List.of(
+			event("user", "hi"), event("agent", "hello"),
+			event("user", "term plans?"), event("agent", "we have two"),
+			event("user", "premium?"), event("agent", "500 a month"));
+
+		assertThat(SessionContextCompactor.keepFrom(events, 2)).isEqualTo(2);
+		assertThat(SessionContextCompactor.keepFrom(events, 3)).isZero();
+	}
+
+	@Test
+	void previousSummaryIsNotCountedAsATurn() {
+		List<Event> events = List.of(
+			event("user", SessionContextCompactor.SUMMARY_PREFIX + "Customer asked about term plans."),
+			event("user", "premium?"), event("agent", "500 a month"));
+
+		assertThat(SessionContextCompactor.keepFrom(events, 1)).isEqualTo(1);
+		assertThat(SessionContextCompactor.keepFrom(events, 2)).isZero();
+	}
+
+	@Test
+	void rendersTurnsAndMergesAPreviousSummary() {
+		List<Event> events = List.of(
+			event("user", SessionContextCompactor.SUMMARY_PREFIX + "Customer is 35."),
+			event("user", "term plans?"),
+			event("agent", "we have two"));
+
+		assertThat(SessionContextCompactor.render(events)).isEqualTo(
+			SessionContextCompactor.SUMMARY_PREFIX + "Customer is 35.\nCustomer: term plans?\nAgent: we have two");
+	}
+
+	private static Event event(String author, String text) {
+		return Event.builder()
+			.id(Event.generateEventId())
+			.invocationId("invocation")
+			.author(author)
+			.content(Content.fromParts(Part.fromText(text)))
+			.build();
+	}
+}
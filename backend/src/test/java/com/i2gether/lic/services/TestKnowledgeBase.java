@@ -0,0 +1,20 @@
+package com.i2gether.lic.services;
+
+import com.i2gether.lic.models.KnowledgeBaseProperties;
+
+/**
+ * Services backed by the bundled classpath knowledge base, without a Spring context
+ */
+final class TestKnowledgeBase {
+
+	private TestKnowledgeBase() {
+	}
+
+	static KnowledgeBaseCache cache() {
+		return new KnowledgeBaseCache(new KnowledgeBaseProperties(null, false), event -> {});
+	}
+
+	static ProductService productService() {
+		return new ProductService(cache());
+	}
+}
@@ -0,0 +1,63 @@
+package com.i2gether.lic.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.adk.events.Event;
+import com.google.genai.types.GenerateContentResponseUsageMetadata;
+import com.i2gether.lic.models.TokenUsage;
+
+class TokenUsageCollectorTests {
+
+	@Test
+	void sumsEveryModelCallOfTheTurn() {
+		TokenUsageCollector collector = new TokenUsageCollector();
+		collector.accept(event("model", false, usage(1200, 20))); // function call
+		collector.accept(event("model", false, null)); // function response
+		collector.accept(event("model", false, usage(1300, 150)));
+
+		assertThat(collector.total()).isEqualTo(new TokenUsage(2500, 170, 2670));
+		assertThat(collector.lastPromptTokens()).isEqualTo(1300);
+	}
+
+	@Test
+	void countsAStreamedCallOnceFromItsFinalEvent() {
+		TokenUsageCollector collector = new TokenUsageCollector();
+		collector.accept(event("model", true, usage(900, 10)));
+		collector.accept(event("model", true, usage(900, 40)));
+		collector.accept(event("model", false, usage(900, 40)));
+
+		assertThat(collector.total()).isEqualTo(new TokenUsage(900, 40, 940));
+	}
+
+	@Test
+	void fallsBackToTheLastPartialWhenTheFinalEventHasNoUsage() {
+		TokenUsageCollector collector = new TokenUsageCollector();
+		collector.accept(event("model", true, usage(900, 10)));
+		collector.accept(event("model", true, usage(900, 40)));
+		collector.accept(event("model", false, null));
+
+		assertThat(collector.total()).isEqualTo(new TokenUsage(900, 40, 940));
+	}
+
+	private static Event event(String author, boolean partial, GenerateContentResponseUsageMetadata usage) {
+		Event.Builder builder = Event.builder()
+			.id(Event.generateEventId())
+			.invocationId("invocation")
+			.author(author)
+			.partial(partial);
+		if (usage != null) {
+			builder.usageMetadata(usage);
+		}
+		return builder.build();
+	}
+
+	private static GenerateContentResponseUsageMetadata usage(int prompt, int candidates) {
+		return GenerateContentResponseUsageMetadata.builder()
+			.promptTokenCount(prompt)
+			.candidatesTokenCount(candidates)
+			.totalTokenCount(prompt + candidates)
+			.build();
+	}
+}
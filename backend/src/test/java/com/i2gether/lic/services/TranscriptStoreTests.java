@@ -0,0 +1,50 @@
+package com.i2gether.lic.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TranscriptStoreTests {
+
+	private static final List<String> MESSAGES = List.of(
+		"User: আমি একটি বীমা পলিসি চাই",
+		"Agent: Sure!\nHere are two plans:\n- Ekok Bima\n- Pension Bima",
+		"");
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void roundTripsMessagesInMemory() {
+		TranscriptStore store = new TranscriptStore(null);
+
+		assertThat(store.get(store.freeze(MESSAGES))).containsExactlyElementsOf(MESSAGES);
+	}
+
+	@Test
+	void roundTripsMessagesThroughFilesAcrossInstances() {
+		UUID transcriptId = new TranscriptStore(directory).freeze(MESSAGES);
+
+		assertThat(new TranscriptStore(directory).get(transcriptId)).containsExactlyElementsOf(MESSAGES);
+	}
+
+	@Test
+	void unknownTranscriptIsNull() {
+		assertThat(new TranscriptStore(null).get(UUID.randomUUID())).isNull();
+		assertThat(new TranscriptStore(directory).get(UUID.randomUUID())).isNull();
+	}
+
+	@Test
+	void repetitiveConversationsCompressWell() {
+		List<String> messages = Collections.nCopies(200, "Agent: The Ekok Bima plan offers life cover with a savings component.");
+		int raw = messages.stream().mapToInt(String::length).sum();
+
+		assertThat(TranscriptStore.compress(messages)).hasSizeLessThan(raw / 10);
+	}
+}
@@ -0,0 +1,326 @@
+package com.i2gether.lic.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.i2gether.lic.controllers.LeadController;
+import com.i2gether.lic.models.UserRequest;
+import com.i2gether.lic.models.UserResponse;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Drives multi-turn conversations against a running agent and reports throughput, latency percentiles and the
+ * server's heap and thread counts. Start the backend with the "loadtest" profile so it answers with the stub
+ * model instead of Gemini.
+ *
+ * Every virtual user repeatedly opens a session with one of a few common opening questions, asks follow-ups
+ * with a think time in between, and submits a lead for a share of its sessions. Answers the server shared from
+ * its response cache or from an identical question in flight are reported apart from the turns that called the
+ * model, as those few openings would otherwise inflate throughput when the cache is on. Options are given as
+ * {@code --name=value}: base-url, users, duration and think-time (e.g. 90s, 5m), turns, lead-rate and output.
+ */
+public final class LoadTest {
+
+    private static final List<String> OPENING_QUESTIONS = List.of(
+        "What life insurance products do you offer?",
+        "What is the difference between term and whole life insurance?",
+        "How much life insurance do I need?",
+        "Do you have group insurance for small companies?"
+    );
+    private static final List<String> FOLLOW_UPS = List.of(
+        "I am 34, married, with two children. What would you recommend?",
+        "How much would the premium be for a sum assured of 50 lakh taka?",
+        "Can I add critical illness cover to that policy?",
+        "What happens if I stop paying the premiums after a few years?",
+        "Is a medical exam required?",
+        "I want to buy this policy, how do I apply?"
+    );
+    private static final String INTERACT = "/api/v1/agent/interact";
+    private static final String LEADS = "/api/v1/agent/leads";
+
+    private final URI baseUrl;
+    private final int users;
+    private final Duration duration;
+    private final int turns;
+    private final Duration thinkTime;
+    private final double leadRate;
+    private final Path output;
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final HttpClient client;
+    private final Recorder interactions = new Recorder();
+    private final Recorder leads = new Recorder();
+    private final ServerSampler sampler;
+
+    private LoadTest(Map<String, String> options) {
+        this.baseUrl = URI.create(options.getOrDefault("base-url", "http://localhost:5098"));
+        this.users = Integer.parseInt(options.getOrDefault("users", "100"));
+        this.duration = Duration.parse("PT" + options.getOrDefault("duration", "60s").toUpperCase());
+        this.turns = Integer.parseInt(options.getOrDefault("turns", "4"));
+        this.thinkTime = Duration.parse("PT" + options.getOrDefault("think-time", "1s").toUpperCase());
+        this.leadRate = Double.parseDouble(options.getOrDefault("lead-rate", "0.1"));
+        this.output = Path.of(options.getOrDefault("output", "target/loadtest-result.json"));
+        this.client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        this.sampler = new ServerSampler(client, jsonMapper, baseUrl);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new LoadTest(options).run();
+    }
+
+    private void run() throws Exception {
+        System.out.printf("%d users for %s against %s (%d turns per session, %s think time)%n",
+            users, duration, baseUrl, turns, thinkTime);
+        long deadline = System.nanoTime() + duration.toNanos();
+        long started = System.nanoTime();
+        sampler.start();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                executor.submit(() -> user(deadline));
+                // Ramp up over the first second instead of opening every session at once
+                Thread.sleep(Math.max(1, 1000 / users));
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        sampler.stop();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("users", users);
+        result.put("durationSeconds", seconds);
+        Map<String, Object> interact = interactions.summary(seconds);
+        long cached = sampler.cachedAnswers();
+        long coalesced = sampler.coalescedAnswers();
+        interact.put("cachedAnswers", cached);
+        interact.put("coalescedAnswers", coalesced);
+        interact.put("modelAnswersPerSecond", Math.max(0, interactions.succeeded() - cached - coalesced) / seconds);
+        result.put("interact", interact);
+        result.put("leads", leads.summary(seconds));
+        result.put("server", sampler.summary());
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        jsonMapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), result);
+        System.out.println(jsonMapper.writerWithDefaultPrettyPrinter().writeValueAsString(result));
+        System.out.println("Written to " + output);
+    }
+
+    private void user(long deadline) {
+        UUID userId = UUID.randomUUID();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            UUID sessionId = null;
+            String question = OPENING_QUESTIONS.get(random.nextInt(OPENING_QUESTIONS.size()));
+            for (int turn = 0; turn < turns && System.nanoTime() < deadline; turn++) {
+                UserResponse response = post(INTERACT, new UserRequest(userId, sessionId, question), UserResponse.class,
+                    interactions);
+                if (response == null) {
+                    break;
+                }
+                sessionId = response.sessionId();
+                question = FOLLOW_UPS.get(random.nextInt(FOLLOW_UPS.size()));
+                think(random);
+            }
+            if (sessionId != null && random.nextDouble() < leadRate && System.nanoTime() < deadline) {
+                post(LEADS, new LeadController.LeadRequest(sessionId, userId, "Load Test", "+8801800000000",
+                    "loadtest@example.com"), LeadController.LeadResponse.class, leads);
+            }
+        }
+    }
+
+    private <T> T post(String path, Object body, Class<T> responseType, Recorder recorder) {
+        long start = System.nanoTime();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve(path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(jsonMapper.writeValueAsBytes(body)))
+                .build();
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            recorder.record(response.statusCode(), System.nanoTime() - start);
+            return response.statusCode() == 200 ? jsonMapper.readValue(response.body(), responseType) : null;
+        } catch (IOException e) {
+            recorder.record(0, System.nanoTime() - start);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void think(ThreadLocalRandom random) {
+        try {
+            // +-50% around the think time, so users don't move in lockstep
+            long millis = thinkTime.toMillis();
+            Thread.sleep(millis / 2 + random.nextLong(millis + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Latencies and status codes of one endpoint; status 0 is a connection error
+     */
+    private static final class Recorder {
+
+        private final List<Long> latencies = new ArrayList<>();
+        private final Map<Integer, Integer> statuses = new LinkedHashMap<>();
+
+        synchronized void record(int status, long latencyNanos) {
+            statuses.merge(status, 1, Integer::sum);
+            if (status == 200) {
+                latencies.add(latencyNanos);
+            }
+        }
+
+        synchronized int succeeded() {
+            return latencies.size();
+        }
+
+        synchronized Map<String, Object> summary(double seconds) {
+            List<Long> sorted = latencies.stream().sorted().toList();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", statuses.values().stream().mapToInt(Integer::intValue).sum());
+            summary.put("throughputPerSecond", sorted.size() / seconds);
+            summary.put("statuses", statuses);
+            summary.put("p50Millis", percentileMillis(sorted, 0.50));
+            summary.put("p90Millis", percentileMillis(sorted, 0.90));
+            summary.put("p99Millis", percentileMillis(sorted, 0.99));
+            summary.put("maxMillis", percentileMillis(sorted, 1.0));
+            return summary;
+        }
+
+        private static double percentileMillis(List<Long> sorted, double percentile) {
+            if (sorted.isEmpty()) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+            return sorted.get(Math.clamp(index, 0, sorted.size() - 1)) / 1e6;
+        }
+    }
+
+    /**
+     * Polls the server's heap use and live thread count from the actuator metrics endpoint every second, and
+     * counts the answers it served from its response cache or shared between identical questions during the run
+     */
+    private static final class ServerSampler {
+
+        private static final String CACHE_HITS = "cache.gets?tag=cache:agent.responses&tag=result:hit";
+        private static final String COALESCED = "lic.agent.coalesced.requests?tag=role:follower";
+
+        private final HttpClient client;
+        private final JsonMapper jsonMapper;
+        private final URI baseUrl;
+        private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        private double maxHeapBytes;
+        private double lastHeapBytes;
+        private double maxThreads;
+        private double lastThreads;
+        private double cacheHitsAtStart;
+        private double cacheHits;
+        private double coalescedAtStart;
+        private double coalesced;
+
+        ServerSampler(HttpClient client, JsonMapper jsonMapper, URI baseUrl) {
+            this.client = client;
+            this.jsonMapper = jsonMapper;
+            this.baseUrl = baseUrl;
+        }
+
+        void start() {
+            cacheHitsAtStart = cacheHits = metric(CACHE_HITS, "COUNT");
+            coalescedAtStart = coalesced = metric(COALESCED, "COUNT");
+            scheduler.scheduleAtFixedRate(this::sample, 0, 1, TimeUnit.SECONDS);
+        }
+
+        void stop() throws InterruptedException {
+            scheduler.shutdownNow();
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+            sample();
+            cacheHits = metric(CACHE_HITS, "COUNT");
+            coalesced = metric(COALESCED, "COUNT");
+        }
+
+        long cachedAnswers() {
+            return cacheHitsAtStart >= 0 && cacheHits >= 0 ? (long) (cacheHits - cacheHitsAtStart) : 0;
+        }
+
+        long coalescedAnswers() {
+            return coalescedAtStart >= 0 && coalesced >= 0 ? (long) (coalesced - coalescedAtStart) : 0;
+        }
+
+        synchronized Map<String, Object> summary() {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("maxHeapMegabytes", maxHeapBytes / (1024 * 1024));
+            summary.put("endHeapMegabytes", lastHeapBytes / (1024 * 1024));
+            summary.put("maxLiveThreads", maxThreads);
+            summary.put("endLiveThreads", lastThreads);
+            return summary;
+        }
+
+        private void sample() {
+            double heap = metric("jvm.memory.used?tag=area:heap", "VALUE");
+            double threads = metric("jvm.threads.live", "VALUE");
+            synchronized (this) {
+                if (heap >= 0) {
+                    lastHeapBytes = heap;
+                    maxHeapBytes = Math.max(maxHeapBytes, heap);
+                }
+                if (threads >= 0) {
+                    lastThreads = threads;
+                    maxThreads = Math.max(maxThreads, threads);
+                }
+            }
+        }
+
+        /**
+         * The metric's measurement of the statistic (VALUE, COUNT, ...), -1 if it could not be read
+         */
+        private double metric(String query, String statistic) {
+            try {
+                HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve("/actuator/metrics/" + query))
+                    .timeout(Duration.ofSeconds(5))
+                    .build();
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                if (response.statusCode() != 200) {
+                    return -1;
+                }
+                for (JsonNode measurement : jsonMapper.readTree(response.body()).path("measurements")) {
+                    if (statistic.equals(measurement.path("statistic").asString())) {
+                        return measurement.path("value").asDouble();
+                    }
+                }
+                return -1;
+            } catch (IOException | RuntimeException e) {
+                return -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.i2gether.lic.models;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Jackson (de)serialization of the agent response and of a lead as returned by the admin endpoints
+ * and written to the lead log
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private JsonMapper jsonMapper;
+    private UserResponse userResponse;
+    private Lead lead;
+    private byte[] userResponseJson;
+    private byte[] leadJson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        userResponse = new UserResponse(UUID.randomUUID(), UUID.randomUUID(),
+            "Term life insurance covers you for a fixed period, for example 10, 20 or 30 years. ".repeat(12),
+            ConversationState.PRODUCT_RECOMMENDATION, false, new TokenUsage(4_250, 380, 4_630), 12_900L);
+        CustomerInfo customer = new CustomerInfo("Karim Rahman", "+8801800000000", "karim@example.com",
+            "Father of two looking for cover until the children finish university",
+            List.of("Term Life Insurance", "Whole Life Insurance"), List.of("Premium affordability"),
+            Map.of("preferredContactTime", "evenings"));
+        lead = new Lead(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), customer, UUID.randomUUID(),
+            LocalDateTime.of(2025, 1, 1, 9, 0), LeadStatus.CONTACTED,
+            List.of(new LeadNote("Called, asked to call back on Sunday", "rahim", LocalDateTime.of(2025, 1, 2, 10, 0))),
+            3);
+        userResponseJson = jsonMapper.writeValueAsBytes(userResponse);
+        leadJson = jsonMapper.writeValueAsBytes(lead);
+    }
+
+    @Benchmark
+    public byte[] writeUserResponse() {
+        return jsonMapper.writeValueAsBytes(userResponse);
+    }
+
+    @Benchmark
+    public UserResponse readUserResponse() {
+        return jsonMapper.readValue(userResponseJson, UserResponse.class);
+    }
+
+    @Benchmark
+    public byte[] writeLead() {
+        return jsonMapper.writeValueAsBytes(lead);
+    }
+
+    @Benchmark
+    public Lead readLead() {
+        return jsonMapper.readValue(leadJson, Lead.class);
+    }
+}
@@ -0,0 +1,94 @@
+package com.i2gether.lic.services;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.i2gether.lic.models.ConversationState;
+import com.i2gether.lic.models.IntentProperties;
+import com.i2gether.lic.models.KnowledgeBaseProperties;
+
+/**
+ * Intent detection run on every turn: matching the question and the model's answer against the intent
+ * phrases, then lead capture and conversation state from the match. Answers are cut from the bundled
+ * knowledge base, so their vocabulary is what the model actually sends back. {@code legacyClassifyTurn}
+ * is the String.contains implementation IntentMatcher replaced, as the baseline for {@code classifyTurn}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IntentBenchmark {
+
+    private static final String QUESTION =
+        "My wife and I have two children, what cover would you suggest and how do I apply for it?";
+
+    @Param({"600", "3000", "12000"})
+    int answerLength;
+
+    private IntentMatcher matcher;
+    private String answer;
+    private IntentMatcher.Match match;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        matcher = new IntentMatcher(new IntentProperties(null));
+        KnowledgeBaseCache knowledgeBase = new KnowledgeBaseCache(new KnowledgeBaseProperties(null, false), event -> {});
+        try {
+            String text = new ProductService(knowledgeBase).getAllProductKnowledgeBase();
+            StringBuilder builder = new StringBuilder(answerLength);
+            while (builder.length() < answerLength) {
+                builder.append(text, 0, Math.min(text.length(), answerLength - builder.length()));
+            }
+            answer = builder.toString();
+        } finally {
+            knowledgeBase.destroy();
+        }
+        match = matcher.match(QUESTION, answer);
+    }
+
+    @Benchmark
+    public IntentMatcher.Match match() {
+        return matcher.match(QUESTION, answer);
+    }
+
+    @Benchmark
+    public boolean detectInterestSignal() {
+        return AgentService.detectInterestSignal(matcher.match(QUESTION, answer));
+    }
+
+    @Benchmark
+    public ConversationState determineConversationState() {
+        return AgentService.determineConversationState(match);
+    }
+
+    /**
+     * Both per-turn decisions from one match, as AgentService makes them
+     */
+    @Benchmark
+    public void classifyTurn(Blackhole blackhole) {
+        IntentMatcher.Match turnMatch = matcher.match(QUESTION, answer);
+        blackhole.consume(AgentService.detectInterestSignal(turnMatch));
+        blackhole.consume(AgentService.determineConversationState(turnMatch));
+    }
+
+    @Benchmark
+    public void legacyClassifyTurn(Blackhole blackhole) {
+        blackhole.consume(LegacyIntentDetection.detectInterestSignal(QUESTION, answer));
+        blackhole.consume(LegacyIntentDetection.determineConversationState(QUESTION, answer));
+    }
+}
@@ -0,0 +1,103 @@
+package com.i2gether.lic.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.i2gether.lic.models.ConversationHistoryProperties;
+import com.i2gether.lic.models.CustomerInfo;
+import com.i2gether.lic.models.Lead;
+import com.i2gether.lic.models.LeadStatus;
+
+/**
+ * Lead management under concurrency, with {@code leads} leads already stored (in memory, as with the
+ * MEMORY lead store): conversation appends from many sessions, lead creation, and the status listing
+ * of the admin view while leads are being created.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LeadManagementServiceBenchmark {
+
+    private static final int SESSIONS = 10_000;
+    private static final String MESSAGE = "User: What is the premium for a 20 year term policy of 50 lakh taka?";
+    private static final CustomerInfo CUSTOMER =
+        new CustomerInfo("Karim", "+8801800000000", "karim@example.com", null, null, null, null);
+
+    @Param({"1000", "100000"})
+    int leads;
+
+    private LeadManagementService service;
+    private UUID[] sessions;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        InMemoryLeadRepository repository = new InMemoryLeadRepository();
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 9, 0);
+        LeadStatus[] statuses = LeadStatus.values();
+        for (int i = 0; i < leads; i++) {
+            repository.save(new Lead(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), CUSTOMER, null,
+                start.plusMinutes(i), statuses[i % statuses.length], List.of(), 1));
+        }
+        service = new LeadManagementService(
+            new ConversationHistoryStore(new ConversationHistoryProperties(50, 64 * 1024, Duration.ofHours(1), SESSIONS)),
+            repository, new TranscriptStore(null));
+        sessions = new UUID[SESSIONS];
+        for (int i = 0; i < SESSIONS; i++) {
+            sessions[i] = UUID.randomUUID();
+            service.addConversationMessage(sessions[i], MESSAGE);
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void addConversationMessage() {
+        service.addConversationMessage(session(), MESSAGE);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Lead createLead() {
+        return service.createLead(session(), UUID.randomUUID(), CUSTOMER);
+    }
+
+    @Benchmark
+    @Group("adminWhileCreating")
+    @GroupThreads(6)
+    public Lead createLeadConcurrently() {
+        return service.createLead(session(), UUID.randomUUID(), CUSTOMER);
+    }
+
+    @Benchmark
+    @Group("adminWhileCreating")
+    @GroupThreads(2)
+    public List<Lead> getLeadsByStatus() {
+        return service.getLeadsByStatus(LeadStatus.NEW);
+    }
+
+    private UUID session() {
+        return sessions[ThreadLocalRandom.current().nextInt(SESSIONS)];
+    }
+}
@@ -0,0 +1,154 @@
+package com.i2gether.lic.services;
+
+import java.util.Locale;
+
+import com.i2gether.lic.models.ConversationState;
+
+/**
+ * Intent detection as it was before {@link IntentMatcher}: the turn lowercased and concatenated per
+ * decision, then one String.contains scan per phrase. Kept verbatim as the baseline for {@link IntentBenchmark}.
+ */
+final class LegacyIntentDetection {
+
+    private LegacyIntentDetection() {
+    }
+
+    /**
+     * Detect if customer is showing CLEAR PURCHASE INTENT and lead capture should be initiated.
+     * Only triggers on explicit purchase/subscription intent, not general information requests.
+     */
+    static boolean detectInterestSignal(String userQuestion, String agentAnswer) {
+        String userLower = userQuestion.toLowerCase(Locale.ROOT);
+        String agentLower = agentAnswer.toLowerCase(Locale.ROOT);
+        String combined = (userQuestion + " " + agentAnswer).toLowerCase(Locale.ROOT);
+
+        // STRONG purchase intent signals - only these should trigger lead capture
+        String[] strongPurchaseIntent = {
+            "i want to sign up",
+            "i want to apply",
+            "i want to purchase",
+            "i want to buy",
+            "i want to subscribe",
+            "i'd like to sign up",
+            "i'd like to apply",
+            "i'd like to purchase",
+            "i'd like to buy",
+            "i'd like to subscribe",
+            "i would like to sign up",
+            "i would like to apply",
+            "i would like to purchase",
+            "i would like to buy",
+            "i would like to subscribe",
+            "sign me up",
+            "i'm ready to apply",
+            "i'm ready to purchase",
+            "i'm ready to buy",
+            "i'm ready to sign up",
+            "i'm ready to subscribe",
+            "let's proceed",
+            "let's move forward",
+            "i'll take it",
+            "i'll take this",
+            "i want this policy",
+            "i want this insurance",
+            "how do i apply",
+            "how do i sign up",
+            "how do i purchase",
+            "how do i buy",
+            "how can i apply",
+            "how can i sign up",
+            "how can i purchase",
+            "how can i buy",
+            "i'm ready",
+            "ready to apply",
+            "ready to purchase",
+            "ready to buy",
+            "ready to sign up"
+        };
+
+        // Check for strong purchase intent in user's question
+        for (String intent : strongPurchaseIntent) {
+            if (userLower.contains(intent)) {
+                return true;
+            }
+        }
+
+        // Check if agent is explicitly asking for contact information (only if user showed purchase intent first)
+        // This is a secondary check - agent should only ask after user shows intent
+        String[] leadCaptureKeywords = {
+            "could i get your name",
+            "can i get your name",
+            "may i have your name",
+            "could i get your phone",
+            "can i get your phone",
+            "may i have your phone",
+            "could i get your email",
+            "can i get your email",
+            "may i have your email",
+            "contact information",
+            "phone number",
+            "email address"
+        };
+
+        // Only trigger if agent is asking AND user showed some purchase intent
+        boolean agentAsking = false;
+        for (String keyword : leadCaptureKeywords) {
+            if (agentLower.contains(keyword)) {
+                agentAsking = true;
+                break;
+            }
+        }
+
+        // If agent is asking, check if user showed any purchase intent
+        if (agentAsking) {
+            String[] anyPurchaseHint = {
+                "sign up", "apply", "purchase", "buy", "subscribe", "get started",
+                "proceed", "move forward", "ready", "interested in getting"
+            };
+            for (String hint : anyPurchaseHint) {
+                if (userLower.contains(hint)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Determine conversation state based on content
+     */
+    static ConversationState determineConversationState(String userQuestion, String agentAnswer) {
+        String combined = (userQuestion + " " + agentAnswer).toLowerCase(Locale.ROOT);
+
+        // Check for greeting patterns
+        if (combined.contains("hello") || combined.contains("hi") ||
+            combined.contains("greeting") || combined.contains("welcome")) {
+            return ConversationState.GREETING;
+        }
+
+        // Check for needs assessment
+        if (combined.contains("need") || combined.contains("looking for") ||
+            combined.contains("situation") || combined.contains("family") ||
+            combined.contains("dependents") || combined.contains("budget")) {
+            return ConversationState.NEEDS_ASSESSMENT;
+        }
+
+        // Check for product recommendation
+        if (combined.contains("term life") || combined.contains("whole life") ||
+            combined.contains("universal life") || combined.contains("variable life") ||
+            combined.contains("recommend") || combined.contains("suitable") ||
+            combined.contains("product") || combined.contains("policy")) {
+            return ConversationState.PRODUCT_RECOMMENDATION;
+        }
+
+        // Check for lead capture
+        if (combined.contains("name") || combined.contains("phone") ||
+            combined.contains("email") || combined.contains("contact")) {
+            return ConversationState.LEAD_CAPTURE;
+        }
+
+        // Default to needs assessment if unclear
+        return ConversationState.NEEDS_ASSESSMENT;
+    }
+}
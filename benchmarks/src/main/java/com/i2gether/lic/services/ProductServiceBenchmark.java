@@ -0,0 +1,65 @@
+package com.i2gether.lic.services;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.i2gether.lic.models.InsuranceProduct;
+import com.i2gether.lic.models.KnowledgeBaseProperties;
+
+/**
+ * Product catalogue reads behind the product endpoints and the agent's tools, on the bundled knowledge base
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    @Param({"term", "retirement savings", "no such product"})
+    String keyword;
+
+    private KnowledgeBaseCache knowledgeBase;
+    private ProductService productService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        knowledgeBase = new KnowledgeBaseCache(new KnowledgeBaseProperties(null, false), event -> {});
+        productService = new ProductService(knowledgeBase);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        knowledgeBase.destroy();
+    }
+
+    @Benchmark
+    public List<InsuranceProduct> getAllProducts() {
+        return productService.getAllProducts();
+    }
+
+    @Benchmark
+    public List<InsuranceProduct> searchProducts() {
+        return productService.searchProducts(keyword);
+    }
+
+    @Benchmark
+    public String getAllProductKnowledgeBase() {
+        return productService.getAllProductKnowledgeBase();
+    }
+}
@@ -0,0 +1,123 @@
+package com.i2gether.lic.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.i2gether.lic.models.KnowledgeBaseProperties;
+import com.i2gether.lic.models.RetrievalProperties;
+
+/**
+ * The agent's system prompt with the whole knowledge base against the prompt with only the top-k
+ * sections retrieved for the question, on the bundled knowledge base.
+ *
+ * The benchmarks time building each prompt; the whole-knowledge-base prompt is only rebuilt when
+ * the knowledge base changes, the retrieved one on every turn. {@link #main} prints what each prompt
+ * costs in size: bytes and estimated tokens (about 4 characters per token) per question and top-k.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RetrievalBenchmark {
+
+    private static final String KNOWLEDGE_BASE_HEADING = "\n\n## Product Knowledge Base\n\n";
+    private static final List<String> QUESTIONS = List.of(
+        "What is term life insurance?",
+        "My wife and I have two children, what cover would you suggest and how do I apply for it?",
+        "Can I add a critical illness rider to a whole life policy and what does it cost?");
+
+    @Param({"0", "1", "2"})
+    int question;
+
+    @Param({"2", "4", "8"})
+    int topK;
+
+    private KnowledgeBaseCache knowledgeBase;
+    private ProductService productService;
+    private KnowledgeBaseRetriever retriever;
+    private String systemPrompt;
+    private String query;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        knowledgeBase = new KnowledgeBaseCache(new KnowledgeBaseProperties(null, false), event -> {});
+        productService = new ProductService(knowledgeBase);
+        retriever = new KnowledgeBaseRetriever(productService, new RetrievalProperties(true, topK));
+        systemPrompt = systemPrompt();
+        query = QUESTIONS.get(question);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        knowledgeBase.destroy();
+    }
+
+    @Benchmark
+    public String fullKnowledgeBasePrompt() {
+        return systemPrompt + KNOWLEDGE_BASE_HEADING + productService.getAllProductKnowledgeBase();
+    }
+
+    @Benchmark
+    public String retrievedPrompt() {
+        return systemPrompt + KNOWLEDGE_BASE_HEADING + retriever.renderContext(query);
+    }
+
+    /**
+     * Print the size of the whole-knowledge-base prompt and of the retrieved prompts
+     */
+    public static void main(String[] args) throws Exception {
+        KnowledgeBaseCache knowledgeBase = new KnowledgeBaseCache(new KnowledgeBaseProperties(null, false), event -> {});
+        try {
+            ProductService productService = new ProductService(knowledgeBase);
+            String systemPrompt = systemPrompt();
+            System.out.printf("%-8s %-5s %9s %9s %7s%n", "question", "top-k", "bytes", "~tokens", "share");
+            String full = systemPrompt + KNOWLEDGE_BASE_HEADING + productService.getAllProductKnowledgeBase();
+            printSize("all", "-", full, full);
+            for (int topK : new int[] {2, 4, 8}) {
+                KnowledgeBaseRetriever retriever = new KnowledgeBaseRetriever(productService,
+                    new RetrievalProperties(true, topK));
+                for (int i = 0; i < QUESTIONS.size(); i++) {
+                    printSize(String.valueOf(i), String.valueOf(topK),
+                        systemPrompt + KNOWLEDGE_BASE_HEADING + retriever.renderContext(QUESTIONS.get(i)), full);
+                }
+            }
+        } finally {
+            knowledgeBase.destroy();
+        }
+    }
+
+    private static void printSize(String question, String topK, String prompt, String full) {
+        int bytes = prompt.getBytes(StandardCharsets.UTF_8).length;
+        int fullBytes = full.getBytes(StandardCharsets.UTF_8).length;
+        System.out.printf("%-8s %-5s %9d %9d %6.1f%%%n", question, topK, bytes, prompt.length() / 4,
+            100.0 * bytes / fullBytes);
+    }
+
+    private static String systemPrompt() throws IOException {
+        try (InputStream in = RetrievalBenchmark.class.getResourceAsStream("/prompts/agent-system-prompt.txt")) {
+            if (in == null) {
+                throw new IOException("prompts/agent-system-prompt.txt is not on the classpath");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
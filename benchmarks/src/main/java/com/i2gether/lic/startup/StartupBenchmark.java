@@ -0,0 +1,145 @@
+package com.i2gether.lic.startup;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time from launching the backend until /actuator/health/readiness answers 200, for the plain executable jar
+ * and for the fast-start build (Spring AOT and JVM AOT cache, see backend/fast-start.sh, which has to be
+ * built first). Each launch is a fresh JVM with its own port, and its own working directory for the data
+ * directories.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final Duration READINESS_TIMEOUT = Duration.ofSeconds(60);
+
+    @Param({"jar", "fast-start"})
+    String mode;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+    private Path backend;
+    private Path workDirectory;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void locateBackend() {
+        backend = Path.of(System.getProperty("lic.backend", "../backend")).toAbsolutePath().normalize();
+    }
+
+    @Setup(Level.Invocation)
+    public void createWorkDirectory() throws IOException {
+        workDirectory = Files.createTempDirectory("lic-startup");
+    }
+
+    @Benchmark
+    public int startUntilReady() throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(List.of("java"));
+        if (mode.equals("fast-start")) {
+            Path fastStart = backend.resolve("target/fast-start");
+            Path cache = fastStart.resolve("app.aot");
+            if (!Files.exists(cache)) {
+                throw new IllegalStateException("No AOT cache at " + cache + ", run backend/fast-start.sh build first");
+            }
+            command.addAll(List.of("-XX:AOTCache=" + cache, "-Dspring.aot.enabled=true", "-jar",
+                jar(fastStart, "lic-agent-*.jar").toString()));
+        } else {
+            command.addAll(List.of("-jar", jar(backend.resolve("target"), "lic-agent-*-exec.jar").toString()));
+        }
+        command.add("--server.port=" + port);
+
+        ProcessBuilder builder = new ProcessBuilder(command)
+            .directory(workDirectory.toFile())
+            .redirectErrorStream(true)
+            .redirectOutput(workDirectory.resolve("startup.log").toFile());
+        // The Gemini client is created at startup but never called
+        builder.environment().putIfAbsent("GEMINI_API_KEY", "startup-benchmark");
+        process = builder.start();
+        return awaitReady(URI.create("http://localhost:" + port + "/actuator/health/readiness"));
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws Exception {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            process = null;
+        }
+        try (Stream<Path> files = Files.walk(workDirectory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private int awaitReady(URI readiness) throws Exception {
+        long deadline = System.nanoTime() + READINESS_TIMEOUT.toNanos();
+        HttpRequest request = HttpRequest.newBuilder(readiness).timeout(Duration.ofSeconds(1)).build();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Backend exited with " + process.exitValue() + ", see "
+                    + workDirectory.resolve("startup.log"));
+            }
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return response.statusCode();
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("Backend not ready within " + READINESS_TIMEOUT);
+    }
+
+    private static Path jar(Path directory, String glob) throws IOException {
+        try (DirectoryStream<Path> jars = Files.newDirectoryStream(directory, glob)) {
+            for (Path jar : jars) {
+                return jar;
+            }
+        }
+        throw new IllegalStateException("No " + glob + " in " + directory);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}